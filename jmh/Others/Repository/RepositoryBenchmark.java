@@ -0,0 +1,220 @@
+package Others.Repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repository karşılaştırma benchmark'ı (JMH)
+ *
+ * InMemoryUserRepository ve DatabaseUserRepository (sorgu gecikmesi 0,
+ * loglama kapalı) için her veri boyutunda şu işlemler ölçülür:
+ *
+ * - findById        : rastgele mevcut id
+ * - findByUsername  : rastgele mevcut username
+ * - save            : rastgele mevcut kullanıcının güncellenmesi
+ * - findAllActive   : tüm aktif kullanıcılar
+ * - registerUser    : UserService üzerinden yeni kullanıcı (benzersizlik kontrolleri dahil)
+ *
+ * Her işlem tek thread'li ve @Threads(Threads.MAX) ile çok thread'li
+ * ("...Concurrent") olarak çalışır. Dönen değerleri JMH tüketir (Blackhole),
+ * JIT çağrıları ölü kod sayıp atamaz. registerUser'ın eklediği kullanıcılar
+ * her iterasyondan sonra (ölçüm dışında) silinir; veri boyutu iterasyonlar
+ * boyunca sabit kalır.
+ *
+ * Kullanım (proje kökünde):
+ *   gradle jmh -PjmhArgs='RepositoryBenchmark'
+ *   gradle jmh -PjmhArgs='RepositoryBenchmark -p size=1000 -rf csv -rff baseline.csv'
+ *
+ * CSV çıktısı, sonraki değişikliklerde aynı makinede tekrar çalıştırıp
+ * karşılaştırmak için baseline olur. 1M kullanıcıda InMemory'nin arama
+ * indeksi ~1 GB tutar; fork'lar bu yüzden -Xmx3g ile başlar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RepositoryBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"InMemory", "Database"})
+    private String repositoryType;
+
+    private IUserRepository repository;
+    private UserService service;
+    private User[] users;
+    private long[] ids;
+
+    // registerUser için iterasyonlar arasında çakışmayan username'ler
+    private final AtomicLong registrations = new AtomicLong();
+
+    // Repository ve servisler her işlemde System.out'a log yazar; ölçüm boyunca susturulur
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void load() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        repository = "InMemory".equals(repositoryType) ? loadInMemory(size) : loadDatabase(size);
+        service = new UserService(repository);
+        users = repository.findAll().toArray(new User[0]);
+        Arrays.sort(users, Comparator.comparing(User::getId));
+        ids = Arrays.stream(users).mapToLong(User::getId).toArray();
+    }
+
+    // Yüklenen son id'den büyük id'ler registerUser'ın ekledikleridir
+    @TearDown(Level.Iteration)
+    public void removeRegistered() {
+        long lastLoadedId = ids[ids.length - 1];
+        List<Long> added = new ArrayList<>();
+        for (List<User> page = repository.findPage(lastLoadedId, 10_000); !page.isEmpty();
+             page = repository.findPage(page.get(page.size() - 1).getId(), 10_000)) {
+            for (User user : page) {
+                added.add(user.getId());
+            }
+        }
+        repository.deleteAllById(added);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        try {
+            if (repository instanceof AutoCloseable) {
+                ((AutoCloseable) repository).close();
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<User> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<User> findByIdConcurrent() {
+        return findById();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<User> findByUsername() {
+        return repository.findByUsername(randomUser().getUsername());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<User> findByUsernameConcurrent() {
+        return findByUsername();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public User save() {
+        return repository.save(randomUser());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public User saveConcurrent() {
+        return save();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<User> findAllActive() {
+        return repository.findAllActive();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<User> findAllActiveConcurrent() {
+        return findAllActive();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public User registerUser() {
+        long n = registrations.incrementAndGet();
+        return service.registerUser("bench" + n, "bench" + n + "@bench.com", "Bench " + n);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public User registerUserConcurrent() {
+        return registerUser();
+    }
+
+    private static IUserRepository loadInMemory(int size) {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        List<User> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        for (int i = 0; i < size; i++) {
+            batch.add(newUser(i));
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+        return repository;
+    }
+
+    private static IUserRepository loadDatabase(int size) {
+        DatabaseUserRepository repository = new DatabaseUserRepository("BenchmarkDB", false, 0);
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(newUser(i));
+        }
+        repository.bulkInsert(users);
+        return repository;
+    }
+
+    // Her 10. kullanıcı deaktif - findAllActive boyutun ~%90'ını döner
+    private static User newUser(int i) {
+        User user = new User(null, "user" + i, "user" + i + "@bench.com", "Bench User " + i);
+        if (i % 10 == 0) {
+            user.deactivate();
+        }
+        return user;
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private User randomUser() {
+        return users[ThreadLocalRandom.current().nextInt(users.length)];
+    }
+}
@@ -0,0 +1,139 @@
+package Others.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Asenkron repository benchmark'ı
+ *
+ * Senaryolar:
+ * 1. 10k eşzamanlı findById: sınırlı platform thread havuzu (senkron çağrı)
+ *    vs. virtual thread'ler (AsyncUserRepository)
+ * 2. registerUser gecikmesi: UserService (kontroller sıralı) vs.
+ *    AsyncUserService (username/email kontrolleri paralel)
+ * 3. Hot key stampede: aynı id için eşzamanlı findById - doğrudan vs.
+ *    CoalescingUserRepository (tek sorgu, diğerleri sonucu paylaşır)
+ *
+ * Kullanım: java Others.Repository.AsyncRepositoryBenchmark [requests] [queryDelayMs] [platformThreads]
+ */
+public class AsyncRepositoryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int queryDelayMs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int platformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int preloadedUsers = 1_000;
+
+        // Havuz, eşzamanlılığı thread modeli sınırlasın diye istek sayısı kadar büyük
+        ConnectionPool connectionPool = new ConnectionPool("BenchmarkDB", requests, 60_000);
+        DatabaseUserRepository database = BenchmarkSupport.quietly(() -> {
+            DatabaseUserRepository repository = new DatabaseUserRepository("BenchmarkDB", false, queryDelayMs, connectionPool);
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < preloadedUsers; i++) {
+                users.add(new User(null, "user" + i, "user" + i + "@bench.com", "Bench User " + i));
+            }
+            repository.bulkInsert(users);
+            return repository;
+        });
+
+        System.out.println("=== Async Repository Benchmark ===");
+        System.out.println("Concurrent requests: " + requests + ", query delay: " + queryDelayMs + "ms\n");
+
+        // 1a. Platform thread havuzu - her istek bir thread'i sorgu boyunca bloklar
+        long platformNanos = BenchmarkSupport.quietly(() -> {
+            try (ExecutorService pool = Executors.newFixedThreadPool(platformThreads)) {
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>(requests);
+                for (int i = 0; i < requests; i++) {
+                    long id = 1 + i % preloadedUsers;
+                    futures.add(pool.submit(() -> database.findById(id)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                return System.nanoTime() - start;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.println("Platform pool (" + platformThreads + " threads): " +
+                BenchmarkSupport.opsPerSecond(requests, platformNanos) + ", total " +
+                BenchmarkSupport.millis(platformNanos));
+
+        // 1b. Virtual thread'ler
+        long virtualNanos = BenchmarkSupport.quietly(() -> {
+            try (AsyncUserRepository async = new AsyncUserRepository(database)) {
+                long start = System.nanoTime();
+                List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+                for (int i = 0; i < requests; i++) {
+                    futures.add(async.findById(1L + i % preloadedUsers));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+                return System.nanoTime() - start;
+            }
+        });
+        System.out.println("Virtual threads:              " +
+                BenchmarkSupport.opsPerSecond(requests, virtualNanos) + ", total " +
+                BenchmarkSupport.millis(virtualNanos));
+
+        // 2. registerUser gecikmesi
+        int registrations = 50;
+        UserService syncService = BenchmarkSupport.quietly(() -> new UserService(database));
+        long syncNanos = BenchmarkSupport.quietly(() -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < registrations; i++) {
+                syncService.registerUser("sync" + i, "sync" + i + "@bench.com", "Sync User");
+            }
+            return System.nanoTime() - start;
+        });
+
+        long asyncNanos = BenchmarkSupport.quietly(() -> {
+            try (AsyncUserRepository async = new AsyncUserRepository(database)) {
+                AsyncUserService asyncService = new AsyncUserService(async);
+                long start = System.nanoTime();
+                for (int i = 0; i < registrations; i++) {
+                    asyncService.registerUser("async" + i, "async" + i + "@bench.com", "Async User").join();
+                }
+                return System.nanoTime() - start;
+            }
+        });
+
+        System.out.println("\nregisterUser latency (avg of " + registrations + "):");
+        System.out.println("  UserService (sequential checks): " + BenchmarkSupport.millis(syncNanos / registrations));
+        System.out.println("  AsyncUserService (parallel):     " + BenchmarkSupport.millis(asyncNanos / registrations));
+
+        // 3. Hot key stampede - tüm istekler aynı kullanıcıyı okur
+        long directQueriesBefore = connectionPool.getAcquiredCount();
+        long directNanos = BenchmarkSupport.quietly(() -> stampede(database, requests));
+        long directQueries = connectionPool.getAcquiredCount() - directQueriesBefore;
+
+        CoalescingUserRepository coalescing = new CoalescingUserRepository(database);
+        long coalescedNanos = BenchmarkSupport.quietly(() -> stampede(coalescing, requests));
+
+        System.out.println("\nHot key stampede (" + requests + " concurrent findById, same ID):");
+        System.out.println("  Direct:    " + directQueries + " queries, total " + BenchmarkSupport.millis(directNanos));
+        System.out.println("  Coalesced: " + coalescing.getQueries() + " queries (" + coalescing.getCollapsedCalls() +
+                " collapsed), total " + BenchmarkSupport.millis(coalescedNanos));
+    }
+
+    // Her istek kendi virtual thread'inde aynı id'yi okur
+    private static long stampede(IUserRepository repository, int requests) {
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                futures.add(threads.submit(() -> repository.findById(1L)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
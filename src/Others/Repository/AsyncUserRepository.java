@@ -0,0 +1,161 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Asenkron Repository API (Adapter)
+ *
+ * Herhangi bir IUserRepository'yi CompletableFuture dönen bir API'ye çevirir.
+ * Varsayılan olarak her çağrı kendi virtual thread'inde çalışır: veri
+ * kaynağı beklerken (örn. DatabaseUserRepository'nin sorgu gecikmesi)
+ * platform thread'i bloklanmaz, böylece binlerce eşzamanlı istek az sayıda
+ * carrier thread ile karşılanabilir.
+ *
+ * Kullanım:
+ *   AsyncUserRepository async = new AsyncUserRepository(new DatabaseUserRepository());
+ *   async.findById(1L).thenAccept(user -> ...);
+ */
+public class AsyncUserRepository implements AutoCloseable {
+
+    private final IUserRepository delegate;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor - Her çağrı için yeni bir virtual thread
+     */
+    public AsyncUserRepository(IUserRepository delegate) {
+        this(delegate, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Constructor - Özel executor ile (örn. sınırlı platform thread havuzu)
+     */
+    public AsyncUserRepository(IUserRepository delegate, ExecutorService executor) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Optional<User>> findById(Long id) {
+        return supply(() -> delegate.findById(id));
+    }
+
+    public CompletableFuture<Optional<User>> findByUsername(String username) {
+        return supply(() -> delegate.findByUsername(username));
+    }
+
+    public CompletableFuture<Optional<User>> findByEmail(String email) {
+        return supply(() -> delegate.findByEmail(email));
+    }
+
+    public CompletableFuture<List<User>> findAll() {
+        return supply(delegate::findAll);
+    }
+
+    public CompletableFuture<List<User>> findAllActive() {
+        return supply(delegate::findAllActive);
+    }
+
+    public CompletableFuture<List<User>> findPage(long afterId, int limit) {
+        return supply(() -> delegate.findPage(afterId, limit));
+    }
+
+    public CompletableFuture<User> save(User user) {
+        return supply(() -> delegate.save(user));
+    }
+
+    /**
+     * Çakışmada future OptimisticLockException ile tamamlanır
+     */
+    public CompletableFuture<User> saveIfVersion(User user, long expectedVersion) {
+        return supply(() -> delegate.saveIfVersion(user, expectedVersion));
+    }
+
+    public CompletableFuture<Boolean> deleteById(Long id) {
+        return supply(() -> delegate.deleteById(id));
+    }
+
+    public CompletableFuture<Boolean> delete(User user) {
+        return supply(() -> delegate.delete(user));
+    }
+
+    public CompletableFuture<Boolean> existsById(Long id) {
+        return supply(() -> delegate.existsById(id));
+    }
+
+    public CompletableFuture<Boolean> existsByUsername(String username) {
+        return supply(() -> delegate.existsByUsername(username));
+    }
+
+    public CompletableFuture<List<User>> searchUsers(String query, int limit) {
+        return supply(() -> delegate.searchUsers(query, limit));
+    }
+
+    public CompletableFuture<List<User>> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return supply(() -> delegate.findCreatedBetween(from, to));
+    }
+
+    public CompletableFuture<List<User>> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return supply(() -> delegate.findUpdatedBetween(from, to));
+    }
+
+    public CompletableFuture<List<User>> findNewest(int limit) {
+        return supply(() -> delegate.findNewest(limit));
+    }
+
+    public CompletableFuture<List<User>> findRecentlyUpdated(int limit) {
+        return supply(() -> delegate.findRecentlyUpdated(limit));
+    }
+
+    public CompletableFuture<Long> countActive() {
+        return supply(delegate::countActive);
+    }
+
+    public CompletableFuture<Long> count() {
+        return supply(delegate::count);
+    }
+
+    public CompletableFuture<Void> deleteAll() {
+        return CompletableFuture.runAsync(delegate::deleteAll, executor);
+    }
+
+    public CompletableFuture<List<User>> saveAll(Collection<User> users) {
+        return supply(() -> delegate.saveAll(users));
+    }
+
+    public CompletableFuture<List<User>> findAllById(Collection<Long> ids) {
+        return supply(() -> delegate.findAllById(ids));
+    }
+
+    public CompletableFuture<Integer> deleteAllById(Collection<Long> ids) {
+        return supply(() -> delegate.deleteAllById(ids));
+    }
+
+    /**
+     * Senkron repository'ye erişim (örn. streamAll gibi asenkron karşılığı olmayan işlemler için)
+     */
+    public IUserRepository getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Executor'ı kapatır; kuyruktaki çağrılar tamamlanır
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+}
@@ -0,0 +1,119 @@
+package Others.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Asenkron Service Layer
+ *
+ * UserService ile aynı iş kurallarını uygular, ancak birbirinden bağımsız
+ * repository çağrılarını paralel başlatır. Örneğin registerUser'da username
+ * ve email benzersizlik kontrolleri aynı anda çalışır; toplam bekleme
+ * süresi iki sorgunun toplamı yerine en yavaşı kadardır.
+ */
+public class AsyncUserService {
+
+    // Sürüm çakışmasında bir güncellemenin en fazla deneme sayısı (UserService ile aynı)
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+
+    private final AsyncUserRepository userRepository;
+
+    public AsyncUserService(AsyncUserRepository userRepository) {
+        if (userRepository == null) {
+            throw new IllegalArgumentException("UserRepository cannot be null");
+        }
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Yeni kullanıcı kaydı - username ve email kontrolleri paralel çalışır
+     *
+     * Format hataları hemen (senkron) fırlatılır; benzersizlik ihlalleri
+     * dönen future'ı IllegalStateException ile tamamlar.
+     */
+    public CompletableFuture<User> registerUser(String username, String email, String fullName) {
+        UserService.validateFormat(username, email);
+
+        CompletableFuture<Boolean> usernameTaken = userRepository.existsByUsername(username);
+        CompletableFuture<Optional<User>> emailOwner = userRepository.findByEmail(email);
+
+        return usernameTaken.thenCombine(emailOwner, (taken, owner) -> {
+            // Business Rule: Kullanıcı adı benzersiz olmalı
+            if (taken) {
+                throw new IllegalStateException("Username already exists: " + username);
+            }
+            // Business Rule: Email benzersiz olmalı
+            if (owner.isPresent()) {
+                throw new IllegalStateException("Email already registered: " + email);
+            }
+            return new User(null, username, email, fullName);
+        }).thenCompose(userRepository::save);
+    }
+
+    public CompletableFuture<Optional<User>> getUserById(Long userId) {
+        return userRepository.findById(userId);
+    }
+
+    public CompletableFuture<Optional<User>> getUserByUsername(String username) {
+        return userRepository.findByUsername(username);
+    }
+
+    /**
+     * Birden fazla kullanıcıyı paralel getirir (her ID ayrı sorgu)
+     */
+    public CompletableFuture<List<User>> getUsersById(List<Long> userIds) {
+        List<CompletableFuture<Optional<User>>> lookups = userIds.stream()
+                .map(userRepository::findById)
+                .toList();
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> lookups.stream()
+                        .map(CompletableFuture::join)
+                        .flatMap(Optional::stream)
+                        .toList());
+    }
+
+    /**
+     * Kopya üzerinde deaktive edip saveIfVersion ile kaydeder; sürüm
+     * çakışmasında güncel kayıt okunup tekrar denenir
+     *
+     * MAX_UPDATE_ATTEMPTS denemede de çakışma olursa future son
+     * OptimisticLockException ile tamamlanır.
+     */
+    public CompletableFuture<Void> deactivateUser(Long userId) {
+        return deactivateUser(userId, 1);
+    }
+
+    private CompletableFuture<Void> deactivateUser(Long userId, int attempt) {
+        return userRepository.findById(userId)
+                .thenCompose(found -> {
+                    User current = found.orElseThrow(
+                            () -> new IllegalArgumentException("User not found with ID: " + userId));
+                    User changed = current.copy();
+                    changed.deactivate();
+                    return userRepository.saveIfVersion(changed, current.getVersion())
+                            .handle((saved, error) -> error == null
+                                    ? CompletableFuture.<Void>completedFuture(null)
+                                    : retryOnConflict(error, attempt, () -> deactivateUser(userId, attempt + 1)))
+                            .thenCompose(next -> next);
+                });
+    }
+
+    public CompletableFuture<Long> getUserCount() {
+        return userRepository.count();
+    }
+
+    // Sadece sürüm çakışması tekrar denenir (kullanıcı silinmişse değil), en fazla
+    // MAX_UPDATE_ATTEMPTS denemeye kadar; diğer hatalar ve son çakışma aynen iletilir
+    private static <T> CompletableFuture<T> retryOnConflict(Throwable error, int attempt,
+                                                            Supplier<CompletableFuture<T>> retry) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof OptimisticLockException conflict && conflict.getActualVersion() >= 0
+                && attempt < MAX_UPDATE_ATTEMPTS) {
+            return retry.get();
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+}
@@ -0,0 +1,38 @@
+package Others.Repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tek AtomicLong üzerinden sıralı id (varsayılan strateji)
+ *
+ * id'ler boşluksuz ve artan sıradadır. Her id bir getAndIncrement'tir;
+ * çok sayıda thread'in aynı anda kayıt eklediği durumda tüm thread'ler
+ * aynı cache line üzerinde yarışır (bkz. HiLoIdAllocator).
+ */
+public class AtomicIdAllocator implements IdAllocator {
+
+    private final AtomicLong next;
+
+    public AtomicIdAllocator() {
+        this(1);
+    }
+
+    public AtomicIdAllocator(long firstId) {
+        this.next = new AtomicLong(firstId);
+    }
+
+    @Override
+    public long nextId() {
+        return next.getAndIncrement();
+    }
+
+    @Override
+    public void advanceTo(long minNextId) {
+        next.accumulateAndGet(minNextId, Math::max);
+    }
+
+    @Override
+    public long highWaterMark() {
+        return next.get();
+    }
+}
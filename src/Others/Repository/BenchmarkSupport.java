@@ -0,0 +1,172 @@
+package Others.Repository;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark yardımcıları
+ *
+ * Repository ve servis sınıfları her işlemde System.out'a log yazar. Ölçüm
+ * sırasında bu loglar sonucu domine etmesin diye quietly() ile geçici olarak
+ * kapatılır.
+ */
+final class BenchmarkSupport {
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * İşlemi System.out susturulmuş halde çalıştırır
+     */
+    static <T> T quietly(Supplier<T> action) {
+        PrintStream original = System.out;
+        System.setOut(DISCARD);
+        try {
+            return action.get();
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    static void quietly(Runnable action) {
+        quietly(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Her thread'e operationsPerThread kez işlemi çalıştırır, hepsi aynı anda başlar
+     *
+     * @return geçen süre (nanosaniye)
+     */
+    static long runConcurrently(int threads, int operationsPerThread, ThreadOperation operation) {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int threadIndex = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        operation.run(threadIndex, i);
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Benchmark operation failed", failures.get(0));
+        }
+        return elapsed;
+    }
+
+    /**
+     * Her thread işlemi süre dolana kadar tekrar tekrar çalıştırır (JMH iterasyonu gibi)
+     *
+     * Süre kontrolü işlem grupları arasında yapılır. Grup boyutu, grup
+     * 10 µs'den kısa sürdükçe 64'e kadar ikiye katlanır; böylece nanoTime
+     * maliyeti kısa işlemlerin ölçümüne karışmaz, uzun işlemler de süreyi
+     * fazla aşmaz.
+     *
+     * @return tüm thread'lerin tamamladığı toplam işlem sayısı
+     */
+    static long runFor(int threads, long durationNanos, ThreadOperation operation) {
+        LongAdder completed = new LongAdder();
+        long[] deadline = new long[1];
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Throwable> failures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int threadIndex = t;
+            Thread worker = new Thread(() -> {
+                int iteration = 0;
+                try {
+                    ready.countDown();
+                    start.await();
+                    long end = deadline[0];
+                    long last = System.nanoTime();
+                    int batch = 1;
+                    long now;
+                    do {
+                        for (int i = 0; i < batch; i++) {
+                            operation.run(threadIndex, iteration++);
+                        }
+                        now = System.nanoTime();
+                        if (batch < 64 && now - last < 10_000) {
+                            batch <<= 1;
+                        }
+                        last = now;
+                    } while (now < end);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    completed.add(iteration);
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        try {
+            ready.await();
+            deadline[0] = System.nanoTime() + durationNanos;
+            start.countDown();
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Benchmark operation failed", failures.get(0));
+        }
+        return completed.sum();
+    }
+
+    static String opsPerSecond(long operations, long elapsedNanos) {
+        return String.format("%,.0f ops/s", operations * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    static String millis(long elapsedNanos) {
+        return String.format("%,.1f ms", elapsedNanos / 1_000_000.0);
+    }
+
+    /**
+     * Thread index'i ve o thread'deki işlem sırasını alan benchmark işlemi
+     */
+    @FunctionalInterface
+    interface ThreadOperation {
+        void run(int threadIndex, int iteration) throws Exception;
+    }
+}
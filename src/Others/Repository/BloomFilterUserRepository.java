@@ -0,0 +1,377 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom Filter Repository (Decorator)
+ *
+ * username ve email'ler için birer ScalableBloomFilter tutar. Filtre bir
+ * anahtarın kesinlikle olmadığını söylüyorsa existsByUsername,
+ * findByUsername ve findByEmail veri kaynağına hiç gitmeden döner.
+ * registerUser'daki benzersizlik kontrolleri çoğunlukla olmayan
+ * anahtarlar için yapıldığından bu kontrollerin sorgusu ortadan kalkar.
+ * "Olabilir" cevabında (gerçekten var veya yanlış pozitif) delegate sorgulanır.
+ *
+ * Yanlış negatif olmaması için:
+ * - save'de anahtarlar delegate'ten ÖNCE filtreye eklenir (kayıt başarısız
+ *   olursa filtrede fazladan anahtar kalır - zararsız yanlış pozitif)
+ * - rebuild sırasında gelen save'ler hem eski hem yeni filtreye eklenir
+ *
+ * Drift: Bloom filter'dan silme yapılamaz. Silinen kullanıcıların ve
+ * değişen username/email'lerin eski anahtarları filtrede kalır; yanlış
+ * pozitif oranı zamanla artar (doğruluk etkilenmez). getDeletesSinceRebuild
+ * ve getFalsePositives izlenip gerektiğinde rebuild() çağrılmalıdır.
+ *
+ * Sınıf final'dır: constructor filtreleri rebuild() ile kurar; alt sınıfta
+ * override edilen bir metod alanlar atanmadan çağrılabilirdi.
+ */
+public final class BloomFilterUserRepository implements IUserRepository {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final int DEFAULT_EXPECTED_USERS = 10_000;
+
+    private final IUserRepository delegate;
+    private final double falsePositiveRate;
+    private final int expectedUsers;
+
+    private volatile ScalableBloomFilter usernames;
+    private volatile ScalableBloomFilter emails;
+
+    // rebuild sürerken dolu: yeni filtreler (save'ler buraya da ekler)
+    private volatile ScalableBloomFilter rebuildingUsernames;
+    private volatile ScalableBloomFilter rebuildingEmails;
+
+    // save'ler read, rebuild'in filtre kurulumu write kilidi alır
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final Object rebuildMutex = new Object();
+
+    private final LongAdder filteredLookups = new LongAdder();
+    private final LongAdder passedLookups = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder deletesSinceRebuild = new LongAdder();
+
+    /**
+     * Constructor - %1 yanlış pozitif oranı
+     */
+    public BloomFilterUserRepository(IUserRepository delegate) {
+        this(delegate, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Mevcut kullanıcılar delegate'ten okunarak filtreler kurulur
+     *
+     * @param delegate          Asıl veri kaynağı
+     * @param falsePositiveRate Hedef yanlış pozitif oranı (ör. 0.01 = %1)
+     */
+    public BloomFilterUserRepository(IUserRepository delegate, double falsePositiveRate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.delegate = delegate;
+        this.falsePositiveRate = falsePositiveRate;
+        this.expectedUsers = (int) Math.max(DEFAULT_EXPECTED_USERS, Math.min(delegate.count(), Integer.MAX_VALUE / 4));
+        rebuild();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        if (username != null && !usernames.mightContain(username)) {
+            filteredLookups.increment();
+            return false;
+        }
+        passedLookups.increment();
+        boolean exists = delegate.existsByUsername(username);
+        if (!exists && username != null) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username != null && !usernames.mightContain(username)) {
+            filteredLookups.increment();
+            return Optional.empty();
+        }
+        passedLookups.increment();
+        Optional<User> user = delegate.findByUsername(username);
+        if (user.isEmpty() && username != null) {
+            falsePositives.increment();
+        }
+        return user;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email != null && !emails.mightContain(email)) {
+            filteredLookups.increment();
+            return Optional.empty();
+        }
+        passedLookups.increment();
+        Optional<User> user = delegate.findByEmail(email);
+        if (user.isEmpty() && email != null) {
+            falsePositives.increment();
+        }
+        return user;
+    }
+
+    @Override
+    public User save(User user) {
+        rebuildLock.readLock().lock();
+        try {
+            addKeys(user);
+            return delegate.save(user);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        rebuildLock.readLock().lock();
+        try {
+            addKeys(user);
+            return delegate.saveIfVersion(user, expectedVersion);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        rebuildLock.readLock().lock();
+        try {
+            users.forEach(this::addKeys);
+            return delegate.saveAll(users);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = delegate.deleteById(id);
+        if (deleted) {
+            deletesSinceRebuild.increment();
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        int deleted = delegate.deleteAllById(ids);
+        deletesSinceRebuild.add(deleted);
+        return deleted;
+    }
+
+    /**
+     * Tablo boşaldığı için filtreler de sıfırdan kurulur (drift kalmaz)
+     */
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        rebuild();
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return delegate.searchUsers(query, limit);
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findCreatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findUpdatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        return delegate.findNewest(limit);
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        return delegate.findRecentlyUpdated(limit);
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countActive() {
+        return delegate.countActive();
+    }
+
+    /**
+     * Filtreleri delegate'teki güncel kullanıcılardan yeniden kurar
+     *
+     * Silinen kullanıcıların ve eski username/email'lerin bıraktığı bitler
+     * temizlenir, yanlış pozitif oranı hedefe döner. Okumalar rebuild
+     * boyunca eski filtreyi kullanır; tarama bitince yeni filtre atomik
+     * olarak devreye girer. Tarama sırasında gelen save'ler yeni filtreye
+     * de eklendiği için kaybolmaz.
+     */
+    public void rebuild() {
+        synchronized (rebuildMutex) {
+            int capacity = (int) Math.max(expectedUsers, Math.min(delegate.count(), Integer.MAX_VALUE / 4));
+            ScalableBloomFilter newUsernames = new ScalableBloomFilter(capacity, falsePositiveRate);
+            ScalableBloomFilter newEmails = new ScalableBloomFilter(capacity, falsePositiveRate);
+
+            // Devam eden save'ler bitsin; bundan sonrakiler yeni filtreye de yazar
+            rebuildLock.writeLock().lock();
+            try {
+                rebuildingUsernames = newUsernames;
+                rebuildingEmails = newEmails;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+
+            try (Stream<User> users = delegate.streamAll()) {
+                users.forEach(user -> {
+                    addKey(newUsernames, user.getUsername());
+                    addKey(newEmails, user.getEmail());
+                });
+            }
+
+            rebuildLock.writeLock().lock();
+            try {
+                usernames = newUsernames;
+                emails = newEmails;
+                rebuildingUsernames = null;
+                rebuildingEmails = null;
+                deletesSinceRebuild.reset();
+                falsePositives.reset();
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Save yolunda - rebuildLock read kilidi altında çağrılır
+    private void addKeys(User user) {
+        addKey(usernames, user.getUsername());
+        addKey(emails, user.getEmail());
+        ScalableBloomFilter pendingUsernames = rebuildingUsernames;
+        if (pendingUsernames != null) {
+            addKey(pendingUsernames, user.getUsername());
+            addKey(rebuildingEmails, user.getEmail());
+        }
+    }
+
+    private static void addKey(ScalableBloomFilter filter, String key) {
+        if (filter != null && key != null) {
+            filter.add(key);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Metrikler
+    // ---------------------------------------------------------------
+
+    /**
+     * Filtre tarafından cevaplanan (delegate'e gitmeyen) aramalar
+     */
+    public long getFilteredLookups() {
+        return filteredLookups.sum();
+    }
+
+    /**
+     * Filtreden geçip delegate'e giden aramalar
+     */
+    public long getPassedLookups() {
+        return passedLookups.sum();
+    }
+
+    /**
+     * Filtre "olabilir" dediği halde kaydı bulunmayan aramalar (son rebuild'den beri)
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Son rebuild'den bu yana silinen kullanıcılar - filtrede kalan eski anahtarlar
+     */
+    public long getDeletesSinceRebuild() {
+        return deletesSinceRebuild.sum();
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void printStats() {
+        ScalableBloomFilter currentUsernames = usernames;
+        ScalableBloomFilter currentEmails = emails;
+        System.out.println("\n=== Bloom Filter Stats ===");
+        System.out.println("Target false positive rate: " + falsePositiveRate);
+        System.out.println("Username filter: " + currentUsernames.getInsertions() + " keys, " +
+                currentUsernames.getStageCount() + " stage(s), " + currentUsernames.sizeInBytes() + " bytes");
+        System.out.println("Email filter: " + currentEmails.getInsertions() + " keys, " +
+                currentEmails.getStageCount() + " stage(s), " + currentEmails.sizeInBytes() + " bytes");
+        System.out.println("Lookups answered by filter: " + getFilteredLookups());
+        System.out.println("Lookups passed to repository: " + getPassedLookups() +
+                " (false positives: " + getFalsePositives() + ")");
+        System.out.println("Deletes since rebuild: " + getDeletesSinceRebuild());
+        System.out.println("==========================\n");
+    }
+}
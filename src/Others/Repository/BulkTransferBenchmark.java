@@ -0,0 +1,164 @@
+package Others.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Toplu dışa / içe aktarma benchmark'ı (UserBulkTransfer)
+ *
+ * Ölçülenler:
+ * 1. Export: süre ve dosya boyutu (kullanıcı başına byte), snapshot formatıyla karşılaştırma
+ * 2. Sadece çözme (decode): dosyadan User nesnelerine
+ * 3. Çözülmüş kullanıcıların yüklenmesi: bulkLoad (indeksler sonda bir kez
+ *    kurulur) vs. saveAll batch'leri (satır başına indeks güncellemesi -
+ *    yavaş olduğu için ilk baselineUsers kullanıcı ile sınırlı)
+ * 4. Uçtan uca import: dosya -> decode -> bulkLoad
+ *
+ * Kaynak repository import'tan önce bırakılır; bellekte aynı anda tek kopya
+ * bulunur. 10M kullanıcı arama indeksiyle birlikte büyük heap ister:
+ *
+ * Kullanım: java -Xmx24g Others.Repository.BulkTransferBenchmark [users] [baselineUsers]
+ *   ör. java -Xmx24g Others.Repository.BulkTransferBenchmark 10000000 200000
+ */
+public class BulkTransferBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Ahmet", "Mehmet", "Ayşe", "Fatma", "Ali", "Zeynep", "Mustafa",
+            "Emine", "Hüseyin", "Elif", "Can", "Deniz", "Burak", "Selin", "Emre", "Merve"};
+    private static final String[] LAST_NAMES = {"Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım",
+            "Öztürk", "Aydın", "Özdemir", "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara"};
+    private static final String[] DOMAINS = {"gmail.com", "hotmail.com", "yahoo.com", "outlook.com", "example.com"};
+
+    public static void main(String[] args) throws IOException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int baselineUsers = Math.min(userCount, args.length > 1 ? Integer.parseInt(args[1]) : 200_000);
+
+        System.out.println("=== Bulk Export / Import Benchmark ===");
+        System.out.printf("Users: %,d, max heap: %,d MB%n%n", userCount, Runtime.getRuntime().maxMemory() >> 20);
+
+        Path directory = Files.createTempDirectory("user-bulk-benchmark");
+        Path file = directory.resolve("users.ubk");
+        try {
+            InMemoryUserRepository source = BenchmarkSupport.quietly(() -> new InMemoryUserRepository());
+            BenchmarkSupport.quietly(() -> source.bulkLoad(generateUsers(userCount)));
+
+            // 1. Export
+            long start = System.nanoTime();
+            long exported;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                exported = UserBulkTransfer.export(source, out);
+            }
+            long exportNanos = System.nanoTime() - start;
+            long fileBytes = Files.size(file);
+            System.out.printf("Export:           %,d users in %s (%s), %,d bytes = %.1f bytes/user%n",
+                    exported, BenchmarkSupport.millis(exportNanos), BenchmarkSupport.opsPerSecond(exported, exportNanos),
+                    fileBytes, (double) fileBytes / exported);
+
+            Path snapshotDirectory = Files.createDirectory(directory.resolve("snapshot"));
+            UserWriteAheadLog.writeSnapshot(snapshotDirectory, 0, 0, source.findAll());
+            long snapshotBytes = Files.size(snapshotDirectory.resolve("snapshot.bin"));
+            System.out.printf("Snapshot format:  %,d bytes = %.1f bytes/user (%.1fx larger)%n%n",
+                    snapshotBytes, (double) snapshotBytes / exported, (double) snapshotBytes / fileBytes);
+
+            // Import sırasında bellekte tek kopya olsun
+            BenchmarkSupport.quietly(source::deleteAll);
+            System.gc();
+
+            // 2. Sadece decode
+            start = System.nanoTime();
+            List<User> users;
+            try (InputStream in = Files.newInputStream(file)) {
+                users = UserBulkTransfer.readAll(in);
+            }
+            long decodeNanos = System.nanoTime() - start;
+            System.out.printf("Decode only:      %,d users in %s (%s)%n", users.size(),
+                    BenchmarkSupport.millis(decodeNanos), BenchmarkSupport.opsPerSecond(users.size(), decodeNanos));
+
+            // 3. Çözülmüş kullanıcılarla indeks kurulumu: bulkLoad vs. saveAll batch'leri
+            InMemoryUserRepository bulk = BenchmarkSupport.quietly(() -> new InMemoryUserRepository());
+            start = System.nanoTime();
+            BenchmarkSupport.quietly(() -> bulk.bulkLoad(users));
+            long bulkNanos = System.nanoTime() - start;
+            System.out.printf("Load bulkLoad:    %,d users in %s (%s)%n", users.size(),
+                    BenchmarkSupport.millis(bulkNanos), BenchmarkSupport.opsPerSecond(users.size(), bulkNanos));
+            BenchmarkSupport.quietly(bulk::deleteAll);
+
+            InMemoryUserRepository perRow = BenchmarkSupport.quietly(() -> new InMemoryUserRepository());
+            start = System.nanoTime();
+            BenchmarkSupport.quietly(() -> saveInBatches(perRow, users.subList(0, baselineUsers)));
+            long perRowNanos = System.nanoTime() - start;
+            System.out.printf("Load saveAll:     %,d users in %s (%s) -> bulkLoad %.1fx faster%n", baselineUsers,
+                    BenchmarkSupport.millis(perRowNanos), BenchmarkSupport.opsPerSecond(baselineUsers, perRowNanos),
+                    ((double) users.size() / bulkNanos) / ((double) baselineUsers / perRowNanos));
+            BenchmarkSupport.quietly(perRow::deleteAll);
+            users.clear();
+            System.gc();
+
+            // 4. Uçtan uca import: dosya -> decode -> bulkLoad
+            InMemoryUserRepository target = BenchmarkSupport.quietly(() -> new InMemoryUserRepository());
+            start = System.nanoTime();
+            long imported = BenchmarkSupport.quietly(() -> importFile(target, file));
+            long importNanos = System.nanoTime() - start;
+            System.out.printf("%nImport (file):    %,d users in %s (%s), count=%,d, active=%,d%n", imported,
+                    BenchmarkSupport.millis(importNanos), BenchmarkSupport.opsPerSecond(imported, importNanos),
+                    target.count(), target.countActive());
+            System.out.println("  search 'yılmaz': " + BenchmarkSupport.quietly(() -> target.searchUsers("yılmaz", 5)).size() +
+                    " hits, newest id: " + BenchmarkSupport.quietly(() -> target.findNewest(1)).get(0).getId());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    // Zaman sırasıyla oluşturulmuş, tekrar eden ad/soyad/domain'li kullanıcılar
+    private static List<User> generateUsers(int count) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = first.toLowerCase(Locale.ROOT) + "." + last.toLowerCase(Locale.ROOT) + i;
+            User user = new User((long) i + 1, username, username + "@" + DOMAINS[random.nextInt(DOMAINS.length)],
+                    first + " " + last);
+            LocalDateTime createdAt = start.plusSeconds(i * 15L + random.nextInt(15)).plusNanos(random.nextInt(1_000_000_000));
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(random.nextInt(4) == 0 ? createdAt.plusDays(random.nextInt(365)) : createdAt);
+            user.setActive(random.nextInt(5) != 0);
+            user.setVersion(1 + random.nextInt(3));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static long importFile(IUserRepository target, Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return UserBulkTransfer.importInto(target, in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Database/MappedFile import yolu - satır başına indeks güncellemesi
+    private static void saveInBatches(IUserRepository target, List<User> users) {
+        for (int from = 0; from < users.size(); from += UserBulkTransfer.IMPORT_BATCH_SIZE) {
+            target.saveAll(users.subList(from, Math.min(users.size(), from + UserBulkTransfer.IMPORT_BATCH_SIZE)));
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
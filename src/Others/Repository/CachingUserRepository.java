@@ -0,0 +1,660 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Caching Repository (Decorator)
+ *
+ * Herhangi bir IUserRepository'nin önüne sınırlı boyutlu bir cache koyar.
+ * Sık okunan kullanıcılar (getUserById, getUserByUsername) veri kaynağına
+ * gitmeden döner.
+ *
+ * Eviction politikası: W-TinyLFU
+ * - Window (kapasitenin %1'i, LRU): yeni gelen kayıtlar önce buraya girer.
+ *   Ani erişim patlamalarını (burst) yakalar.
+ * - Main (SLRU): probation + protected (%80) segmentleri. Probation'da
+ *   tekrar erişilen kayıt protected'a terfi eder.
+ * - Admission: window'dan taşan aday, probation'ın LRU kurbanıyla
+ *   FrequencySketch üzerinden karşılaştırılır; daha sık erişilen kalır.
+ *   Böylece tek seferlik taramalar popüler kayıtları cache'ten atamaz.
+ *
+ * Ek özellikler:
+ * - TTL (expire-after-write)
+ * - findByUsername / existsByUsername için negatif cache (olmayan username'ler)
+ * - save / delete / deleteAll cache'i günceller veya geçersiz kılar
+ * - hit / miss / eviction / expiration sayaçları
+ *
+ * Thread-safety: cache yapıları tek kilit altında güncellenir, veri kaynağı
+ * çağrıları kilit dışında yapılır.
+ */
+public class CachingUserRepository implements IUserRepository {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.80;
+
+    private final IUserRepository delegate;
+    private final int maximumSize;
+    private final long ttlNanos;
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+
+    // Kuyruklar LinkedHashMap'in ekleme sırasını LRU sırası olarak kullanır
+    // (ilk eleman = en eski). Tekrar eklemek kaydı kuyruğun sonuna taşır.
+    private final Map<Long, Node> data = new HashMap<>();
+    private final LinkedHashMap<Long, Node> window = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, Node> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, Node> protectedSegment = new LinkedHashMap<>();
+    private final FrequencySketch sketch;
+
+    // username -> id (pozitif) ve username -> son geçerlilik zamanı (negatif)
+    private final Map<String, Long> usernameToId = new HashMap<>();
+    private final LinkedHashMap<String, Long> missingUsernames;
+
+    // Her invalidation'da artar; yükleme sırasında değiştiyse sonuç cache'e yazılmaz
+    private long invalidationGeneration;
+
+    private final Object lock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Constructor - TTL olmadan
+     */
+    public CachingUserRepository(IUserRepository delegate, int maximumSize) {
+        this(delegate, maximumSize, 0);
+    }
+
+    /**
+     * @param delegate    Asıl veri kaynağı
+     * @param maximumSize Cache'te tutulacak en fazla kullanıcı sayısı
+     * @param ttlMillis   Kaydın yazıldıktan sonra geçerli kalacağı süre (0 = süresiz)
+     */
+    public CachingUserRepository(IUserRepository delegate, int maximumSize, long ttlMillis) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.windowCapacity = Math.max(1, (int) (maximumSize * WINDOW_RATIO));
+        this.protectedCapacity = (int) ((maximumSize - windowCapacity) * PROTECTED_RATIO);
+        this.sketch = new FrequencySketch(maximumSize);
+
+        int negativeCapacity = Math.max(16, maximumSize / 4);
+        this.missingUsernames = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > negativeCapacity;
+            }
+        };
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        User cached = getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = currentGeneration();
+        Optional<User> loaded = delegate.findById(id);
+        loaded.ifPresent(user -> putLoaded(user, generation));
+        return loaded;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        synchronized (lock) {
+            if (isKnownMissing(username)) {
+                negativeHits.increment();
+                return Optional.empty();
+            }
+            Long id = usernameToId.get(username);
+            User cached = id == null ? null : getIfPresentLocked(id);
+            if (cached != null && username.equals(cached.getUsername())) {
+                return Optional.of(cached);
+            }
+            misses.increment();
+        }
+
+        long generation = currentGeneration();
+        Optional<User> loaded = delegate.findByUsername(username);
+        if (loaded.isPresent()) {
+            putLoaded(loaded.get(), generation);
+        } else {
+            rememberMissing(username, generation);
+        }
+        return loaded;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        long generation = currentGeneration();
+        Optional<User> loaded = delegate.findByEmail(email);
+        loaded.ifPresent(user -> putLoaded(user, generation));
+        return loaded;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public User save(User user) {
+        long generation = currentGeneration();
+        User saved = delegate.save(user);
+        putWritten(List.of(saved), generation);
+        return saved;
+    }
+
+    /**
+     * Çakışmada cache'teki kayıt eski olabilir - silinir ki tekrar deneyen
+     * çağıran güncel sürümü delegate'ten okusun
+     */
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        long generation = currentGeneration();
+        User saved;
+        try {
+            saved = delegate.saveIfVersion(user, expectedVersion);
+        } catch (OptimisticLockException e) {
+            invalidate(user.getId());
+            throw e;
+        }
+        putWritten(List.of(saved), generation);
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = delegate.deleteById(id);
+        invalidate(id);
+        return deleted;
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return getIfPresent(id) != null || delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        synchronized (lock) {
+            if (isKnownMissing(username)) {
+                negativeHits.increment();
+                return false;
+            }
+            Long id = usernameToId.get(username);
+            if (id != null && getIfPresentLocked(id) != null) {
+                return true;
+            }
+            misses.increment();
+        }
+
+        long generation = currentGeneration();
+        boolean exists = delegate.existsByUsername(username);
+        if (!exists) {
+            rememberMissing(username, generation);
+        }
+        return exists;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countActive() {
+        return delegate.countActive();
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return delegate.searchUsers(query, limit);
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findCreatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findUpdatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        return delegate.findNewest(limit);
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        return delegate.findRecentlyUpdated(limit);
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        invalidateAll();
+    }
+
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        long generation = currentGeneration();
+        List<User> saved = delegate.saveAll(users);
+        putWritten(saved, generation);
+        return saved;
+    }
+
+    /**
+     * Cache'te olanlar doğrudan döner, sadece eksikler tek bir toplu sorguyla yüklenir
+     */
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        Map<Long, User> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            User cached = getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long generation = currentGeneration();
+            for (User user : delegate.findAllById(missing)) {
+                found.put(user.getId(), user);
+                putLoaded(user, generation);
+            }
+        }
+
+        List<User> users = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            User user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        int deleted = delegate.deleteAllById(ids);
+        synchronized (lock) {
+            invalidationGeneration++;
+            for (Long id : ids) {
+                removeLocked(id);
+            }
+        }
+        return deleted;
+    }
+
+    // ---------------------------------------------------------------
+    // Cache yönetimi
+    // ---------------------------------------------------------------
+
+    /**
+     * Kaydı cache'ten siler (örn. veri kaynağı dışarıdan değiştiğinde)
+     */
+    public void invalidate(Long id) {
+        synchronized (lock) {
+            invalidationGeneration++;
+            removeLocked(id);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (lock) {
+            invalidationGeneration++;
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            usernameToId.clear();
+            missingUsernames.clear();
+        }
+    }
+
+    private User getIfPresent(Long id) {
+        if (id == null) {
+            return null;
+        }
+        synchronized (lock) {
+            User user = getIfPresentLocked(id);
+            if (user == null) {
+                misses.increment();
+            }
+            return user;
+        }
+    }
+
+    private User getIfPresentLocked(Long id) {
+        Node node = data.get(id);
+        if (node == null) {
+            return null;
+        }
+        if (isExpired(node.writeTime)) {
+            expirations.increment();
+            removeLocked(id);
+            return null;
+        }
+        hits.increment();
+        sketch.increment(id);
+        onAccess(node);
+        return node.user;
+    }
+
+    private long currentGeneration() {
+        synchronized (lock) {
+            return invalidationGeneration;
+        }
+    }
+
+    /**
+     * Veri kaynağından yüklenen kaydı, yükleme sırasında bir yazma/silme
+     * olmadıysa cache'e koyar (eski değerin cache'e geri yazılmasını önler)
+     */
+    private void putLoaded(User user, long generation) {
+        synchronized (lock) {
+            if (generation == invalidationGeneration) {
+                put(user);
+            }
+        }
+    }
+
+    /**
+     * Yazılan kayıtları cache'e koyar (write-through) - ancak delegate
+     * yazması sürerken başka bir yazma veya silme olmadıysa.
+     *
+     * Aynı id'ye eşzamanlı iki yazma delegate'e ve cache'e farklı sırayla
+     * varabilir; eski değer cache'te kalır, TTL yoksa süresiz. Araya bir
+     * invalidation girdiyse hangi değerin son olduğu bilinemez: kayıtlar
+     * silinir ve sonraki okuma güncel satırı delegate'ten yükler.
+     */
+    private void putWritten(List<User> saved, long generation) {
+        synchronized (lock) {
+            boolean uncontended = generation == invalidationGeneration;
+            invalidationGeneration++;
+            for (User user : saved) {
+                forgetMissing(user);
+                if (uncontended) {
+                    put(user);
+                } else {
+                    removeLocked(user.getId());
+                }
+            }
+        }
+    }
+
+    private void put(User user) {
+        Long id = user.getId();
+        sketch.increment(id);
+
+        Node node = data.get(id);
+        if (node != null) {
+            if (node.username != null && !node.username.equals(user.getUsername())) {
+                usernameToId.remove(node.username, id);
+            }
+            node.user = user;
+            node.username = user.getUsername();
+            node.writeTime = System.nanoTime();
+            indexUsername(node);
+            onAccess(node);
+            return;
+        }
+
+        node = new Node(id, user);
+        data.put(id, node);
+        indexUsername(node);
+        node.segment = Segment.WINDOW;
+        window.put(id, node);
+        evictFromWindow();
+    }
+
+    private void onAccess(Node node) {
+        switch (node.segment) {
+            case WINDOW:
+                moveToTail(window, node);
+                break;
+            case PROBATION:
+                // İkinci erişim - protected segmente terfi
+                probation.remove(node.id);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(node.id, node);
+                demoteProtectedOverflow();
+                break;
+            case PROTECTED:
+                moveToTail(protectedSegment, node);
+                break;
+        }
+    }
+
+    /**
+     * Window taşarsa en eski aday main'e girmeye çalışır (TinyLFU admission)
+     */
+    private void evictFromWindow() {
+        while (window.size() > windowCapacity) {
+            Node candidate = pollFirst(window);
+            if (data.size() <= maximumSize) {
+                // Main'de yer var - doğrudan probation'a
+                candidate.segment = Segment.PROBATION;
+                probation.put(candidate.id, candidate);
+                continue;
+            }
+
+            Node victim = firstOf(probation);
+            if (victim == null) {
+                victim = firstOf(protectedSegment);
+            }
+            if (victim != null && sketch.frequency(candidate.id) > sketch.frequency(victim.id)) {
+                evict(victim);
+                candidate.segment = Segment.PROBATION;
+                probation.put(candidate.id, candidate);
+            } else {
+                evict(candidate);
+            }
+        }
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedSegment.size() > protectedCapacity) {
+            Node demoted = pollFirst(protectedSegment);
+            demoted.segment = Segment.PROBATION;
+            probation.put(demoted.id, demoted);
+        }
+    }
+
+    private void evict(Node node) {
+        segmentOf(node).remove(node.id);
+        data.remove(node.id);
+        if (node.username != null) {
+            usernameToId.remove(node.username, node.id);
+        }
+        evictions.increment();
+    }
+
+    private void removeLocked(Long id) {
+        Node node = data.remove(id);
+        if (node == null) {
+            return;
+        }
+        segmentOf(node).remove(id);
+        if (node.username != null) {
+            usernameToId.remove(node.username, id);
+        }
+    }
+
+    private void indexUsername(Node node) {
+        if (node.username != null) {
+            usernameToId.put(node.username, node.id);
+        }
+    }
+
+    private boolean isKnownMissing(String username) {
+        Long expiresAt = missingUsernames.get(username);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - expiresAt >= 0) {
+            missingUsernames.remove(username);
+            return false;
+        }
+        return true;
+    }
+
+    private void rememberMissing(String username, long generation) {
+        if (username == null) {
+            return;
+        }
+        synchronized (lock) {
+            if (generation == invalidationGeneration) {
+                missingUsernames.put(username, System.nanoTime() + ttlNanos);
+            }
+        }
+    }
+
+    private void forgetMissing(User user) {
+        if (user.getUsername() != null) {
+            missingUsernames.remove(user.getUsername());
+        }
+    }
+
+    private boolean isExpired(long writeTime) {
+        return ttlNanos > 0 && System.nanoTime() - writeTime >= ttlNanos;
+    }
+
+    private Map<Long, Node> segmentOf(Node node) {
+        switch (node.segment) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedSegment;
+        }
+    }
+
+    private static void moveToTail(LinkedHashMap<Long, Node> queue, Node node) {
+        queue.remove(node.id);
+        queue.put(node.id, node);
+    }
+
+    private static Node firstOf(LinkedHashMap<Long, Node> queue) {
+        Iterator<Node> iterator = queue.values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static Node pollFirst(LinkedHashMap<Long, Node> queue) {
+        Iterator<Node> iterator = queue.values().iterator();
+        Node first = iterator.next();
+        iterator.remove();
+        return first;
+    }
+
+    // ---------------------------------------------------------------
+    // İstatistikler
+    // ---------------------------------------------------------------
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public double getHitRate() {
+        long requests = hits.sum() + negativeHits.sum() + misses.sum();
+        return requests == 0 ? 1.0 : (double) (hits.sum() + negativeHits.sum()) / requests;
+    }
+
+    public int getSize() {
+        synchronized (lock) {
+            return data.size();
+        }
+    }
+
+    public void printStats() {
+        System.out.println("\n=== Cache Statistics ===");
+        System.out.println("Size: " + getSize() + " / " + maximumSize);
+        System.out.println("Hits: " + getHitCount() + " (negative: " + getNegativeHitCount() + ")");
+        System.out.println("Misses: " + getMissCount());
+        System.out.printf("Hit rate: %.2f%%%n", getHitRate() * 100);
+        System.out.println("Evictions: " + getEvictionCount());
+        System.out.println("Expirations: " + getExpirationCount());
+        System.out.println("========================\n");
+    }
+
+    private enum Segment {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    /**
+     * Cache kaydı
+     */
+    private static final class Node {
+        private final Long id;
+        private User user;
+        private String username;
+        private long writeTime;
+        private Segment segment;
+
+        private Node(Long id, User user) {
+            this.id = id;
+            this.user = user;
+            this.username = user.getUsername();
+            this.writeTime = System.nanoTime();
+        }
+    }
+}
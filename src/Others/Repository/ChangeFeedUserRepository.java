@@ -0,0 +1,399 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Change Data Capture Repository (Decorator)
+ *
+ * Her başarılı yazmayı (insert, update, delete, deleteAll) bir
+ * UserChangeEvent olarak UserChangeFeed'e yayınlar. Cache'ler ve arama
+ * indeksleri findAll() ile periyodik tarama yapmak yerine feed'e abone
+ * olup sadece değişen id'leri işler:
+ *
+ *   ChangeFeedUserRepository repository = new ChangeFeedUserRepository(database);
+ *   UserChangeFeed.Subscription changes = repository.subscribe();
+ *   for (UserChangeEvent event : changes.poll(1000)) { ... }
+ *
+ * Olay delegate yazması başarılı olduktan sonra yayınlanır; başarısız
+ * yazma olay üretmez. Aynı id'ye yapılan yazmalar ve olayları id'ye göre
+ * seçilen kilit şeridi (lock striping) altında yapılır; bir kullanıcının
+ * olayları feed'e commit sırasıyla girer. Farklı id'lerin yazmaları
+ * birbirini beklemez.
+ *
+ * INSERT'te id delegate yazmasından sonra belli olur, şerit önceden
+ * seçilemez. Bunun yerine INSERT'in sıra numarası delegate yazmasından
+ * ÖNCE ayrılır (UserChangeFeed.claim), olay yazmadan sonra o numaraya
+ * yazılır. id ancak yazmadan sonra görünür olduğu için aynı kullanıcıya
+ * yapılan her UPDATE/DELETE daha büyük bir numara alır; aboneler INSERT'i
+ * her zaman önce görür. Kimse beklemez; sadece aboneler ayrılmış numaraya
+ * gelince insert bitene kadar bekler. Yazma başarısız olursa numara iptal
+ * edilir (cancel) ve aboneler atlar.
+ *
+ * deleteAll, insert'lerin paylaştığı insertGate'in write kilidini tutar:
+ * numarası DELETE_ALL'dan önce ayrılmış bir insert'in satırı truncate'ten
+ * sonra yazılamaz.
+ *
+ * Okumalar doğrudan delegate'e gider.
+ */
+public class ChangeFeedUserRepository implements IUserRepository {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final IUserRepository delegate;
+    private final UserChangeFeed feed;
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    // Insert'ler read, deleteAll write kilidi alır
+    private final ReentrantReadWriteLock insertGate = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor - 65536 olaylık, DROP_OLDEST politikalı feed ile
+     */
+    public ChangeFeedUserRepository(IUserRepository delegate) {
+        this(delegate, new UserChangeFeed());
+    }
+
+    /**
+     * @param delegate Asıl veri kaynağı
+     * @param feed     Olayların yayınlanacağı feed (kapasite ve politika burada seçilir)
+     */
+    public ChangeFeedUserRepository(IUserRepository delegate, UserChangeFeed feed) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        this.delegate = delegate;
+        this.feed = feed;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public UserChangeFeed getFeed() {
+        return feed;
+    }
+
+    /**
+     * Bundan sonraki değişikliklere abone olur
+     */
+    public UserChangeFeed.Subscription subscribe() {
+        return feed.subscribe();
+    }
+
+    /**
+     * Kalınan sıra numarasından itibaren abone olur
+     */
+    public UserChangeFeed.Subscription subscribe(long fromSequence) {
+        return feed.subscribe(fromSequence);
+    }
+
+    // ---------------------------------------------------------------
+    // Yazmalar - olay yayınlar
+    // ---------------------------------------------------------------
+
+    @Override
+    public User save(User user) {
+        if (user.getId() == null) {
+            insertGate.readLock().lock();
+            long sequence = feed.claim();
+            try {
+                User saved = delegate.save(user);
+                feed.publish(sequence, UserChangeEvent.Type.INSERT, saved.getId(), saved.getVersion());
+                return saved;
+            } catch (RuntimeException | Error e) {
+                feed.cancel(sequence);
+                throw e;
+            } finally {
+                insertGate.readLock().unlock();
+            }
+        }
+        ReentrantLock lock = stripeOf(user.getId());
+        lock.lock();
+        try {
+            User saved = delegate.save(user);
+            feed.publish(UserChangeEvent.Type.UPDATE, saved.getId(), saved.getVersion());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
+        }
+        ReentrantLock lock = stripeOf(user.getId());
+        lock.lock();
+        try {
+            User saved = delegate.saveIfVersion(user, expectedVersion);
+            feed.publish(UserChangeEvent.Type.UPDATE, saved.getId(), saved.getVersion());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        List<Long> existingIds = new ArrayList<>();
+        for (User user : users) {
+            if (user.getId() != null) {
+                existingIds.add(user.getId());
+            }
+        }
+        // Hangi kullanıcıların yeni olduğu delegate id atamadan önce belirlenir
+        boolean[] inserted = new boolean[users.size()];
+        int index = 0;
+        for (User user : users) {
+            inserted[index++] = user.getId() == null;
+        }
+
+        insertGate.readLock().lock();
+        List<ReentrantLock> locks = lockStripes(existingIds);
+        try {
+            // Yeni kullanıcıların INSERT numaraları yazmadan önce ayrılır
+            long[] sequences = new long[inserted.length];
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    sequences[i] = feed.claim();
+                }
+            }
+            List<User> saved;
+            try {
+                saved = delegate.saveAll(users);
+            } catch (RuntimeException | Error e) {
+                for (int i = 0; i < inserted.length; i++) {
+                    if (inserted[i]) {
+                        feed.cancel(sequences[i]);
+                    }
+                }
+                throw e;
+            }
+            for (int i = 0; i < saved.size(); i++) {
+                User user = saved.get(i);
+                if (inserted[i]) {
+                    feed.publish(sequences[i], UserChangeEvent.Type.INSERT, user.getId(), user.getVersion());
+                } else {
+                    feed.publish(UserChangeEvent.Type.UPDATE, user.getId(), user.getVersion());
+                }
+            }
+            // Delegate eksik sonuç döndüyse kalan numaralar açık kalmamalı
+            for (int i = saved.size(); i < inserted.length; i++) {
+                if (inserted[i]) {
+                    feed.cancel(sequences[i]);
+                }
+            }
+            return saved;
+        } finally {
+            unlock(locks);
+            insertGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        if (id == null) {
+            return delegate.deleteById(null);
+        }
+        ReentrantLock lock = stripeOf(id);
+        lock.lock();
+        try {
+            boolean deleted = delegate.deleteById(id);
+            if (deleted) {
+                feed.publish(UserChangeEvent.Type.DELETE, id, 0);
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    /**
+     * Sadece gerçekten silinen id'ler için olay yayınlanır; bunun için
+     * silmeden önce (kilitler altında) mevcut id'ler okunur
+     */
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        List<ReentrantLock> locks = lockStripes(ids);
+        try {
+            List<User> existing = delegate.findAllById(ids);
+            int deleted = delegate.deleteAllById(ids);
+            for (User user : existing) {
+                feed.publish(UserChangeEvent.Type.DELETE, user.getId(), 0);
+            }
+            return deleted;
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        // Insert'ler de durur - DELETE_ALL'dan önce yazılıp sonra yayınlanan INSERT olmaz
+        insertGate.writeLock().lock();
+        List<ReentrantLock> locks = lockAllStripes();
+        try {
+            delegate.deleteAll();
+            feed.publish(UserChangeEvent.Type.DELETE_ALL, null, 0);
+        } finally {
+            unlock(locks);
+            insertGate.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Okumalar - doğrudan delegate
+    // ---------------------------------------------------------------
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return delegate.findByUsername(username);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return delegate.searchUsers(query, limit);
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findCreatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findUpdatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        return delegate.findNewest(limit);
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        return delegate.findRecentlyUpdated(limit);
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return delegate.existsByUsername(username);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countActive() {
+        return delegate.countActive();
+    }
+
+    // ---------------------------------------------------------------
+    // Kilit şeritleri
+    // ---------------------------------------------------------------
+
+    private ReentrantLock stripeOf(long id) {
+        return stripes[Math.floorMod(Long.hashCode(id), LOCK_STRIPES)];
+    }
+
+    // Şeritler artan sırada kilitlenir - çoklu kilit alan yazmalar birbirini kilitlemez (deadlock yok)
+    private List<ReentrantLock> lockStripes(Collection<Long> ids) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                indexes.add(Math.floorMod(Long.hashCode(id), LOCK_STRIPES));
+            }
+        }
+        List<ReentrantLock> locked = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock();
+            locked.add(stripes[index]);
+        }
+        return locked;
+    }
+
+    private List<ReentrantLock> lockAllStripes() {
+        List<ReentrantLock> locked = new ArrayList<>(LOCK_STRIPES);
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+            locked.add(stripe);
+        }
+        return locked;
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    public void printStats() {
+        System.out.println("\n=== Change Feed Stats ===");
+        System.out.println("Published events: " + feed.getLastSequence());
+        System.out.println("Capacity: " + feed.getCapacity() + " (" + feed.getPolicy() + ")");
+        System.out.println("Subscribers: " + feed.getSubscriberCount());
+        if (feed.getPolicy() == UserChangeFeed.OverflowPolicy.BLOCK) {
+            System.out.println("Blocked publishes: " + feed.getBlockedPublishes() +
+                    ", evicted subscribers: " + feed.getEvictions());
+        }
+        System.out.println("=========================\n");
+    }
+}
@@ -0,0 +1,319 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Request Coalescing Repository (Decorator, "single-flight")
+ *
+ * Aynı anda gelen aynı anahtarlı findById / findByUsername / findByEmail
+ * çağrılarını tek bir veri kaynağı sorgusunda birleştirir. İlk gelen çağrı
+ * (leader) sorguyu çalıştırır; sorgu sürerken aynı anahtarla gelenler
+ * (follower) yeni sorgu açmaz, leader'ın sonucunu bekler ve aynı sonucu
+ * (veya aynı hatayı) alır. Sorgu bitince anahtar haritadan çıkar - sonuç
+ * cache'lenmez, sonraki çağrı yeni sorgu yapar.
+ *
+ * Tipik kullanım: cache'ten düşen popüler bir kullanıcı için yüzlerce
+ * thread'in aynı anda veritabanına gitmesini (cache stampede) önlemek.
+ *   new CachingUserRepository(new CoalescingUserRepository(database), 10_000)
+ *
+ * Tutarlılık: save / delete / deleteAll, etkilenen anahtarların uçuştaki
+ * sorgularını haritadan çıkarır; yazmadan sonra gelen çağrılar yazmadan
+ * önce başlamış bir sorguya bağlanmaz.
+ *
+ * Diğer tüm metodlar doğrudan delegate'e gider.
+ */
+public class CoalescingUserRepository implements IUserRepository {
+
+    private final IUserRepository delegate;
+
+    // Anahtar -> uçuştaki sorgu
+    private final Map<Long, CompletableFuture<Optional<User>>> inFlightById = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<User>>> inFlightByUsername = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<User>>> inFlightByEmail = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public CoalescingUserRepository(IUserRepository delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return coalesce(inFlightById, id, () -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return coalesce(inFlightByUsername, username, () -> delegate.findByUsername(username));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return coalesce(inFlightByEmail, email, () -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return delegate.searchUsers(query, limit);
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findCreatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findUpdatedBetween(from, to);
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        return delegate.findNewest(limit);
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        return delegate.findRecentlyUpdated(limit);
+    }
+
+    @Override
+    public User save(User user) {
+        try {
+            return delegate.save(user);
+        } finally {
+            forget(user);
+        }
+    }
+
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        try {
+            return delegate.saveIfVersion(user, expectedVersion);
+        } finally {
+            forget(user);
+        }
+    }
+
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        try {
+            return delegate.saveAll(users);
+        } finally {
+            users.forEach(this::forget);
+        }
+    }
+
+    /**
+     * Silinen kullanıcının username/email'i bilinmediği için o haritalar
+     * tümden temizlenir (yazmalar okumalardan seyrek olduğu varsayılır)
+     */
+    @Override
+    public boolean deleteById(Long id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            inFlightById.remove(id);
+            inFlightByUsername.clear();
+            inFlightByEmail.clear();
+        }
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        try {
+            return delegate.deleteAllById(ids);
+        } finally {
+            forgetAll();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        try {
+            delegate.deleteAll();
+        } finally {
+            forgetAll();
+        }
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return delegate.existsByUsername(username);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countActive() {
+        return delegate.countActive();
+    }
+
+    // ---------------------------------------------------------------
+    // Single-flight
+    // ---------------------------------------------------------------
+
+    private <K> Optional<User> coalesce(Map<K, CompletableFuture<Optional<User>>> inFlight, K key,
+                                        Supplier<Optional<User>> query) {
+        lookups.increment();
+        if (key == null) {
+            // ConcurrentHashMap null anahtar kabul etmez - birleştirmeden sorgula
+            queries.increment();
+            return query.get();
+        }
+
+        CompletableFuture<Optional<User>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            // Follower - leader'ın sonucunu bekle
+            collapsed.increment();
+            return await(existing);
+        }
+
+        // Leader - sorguyu çalıştır, sonucu bekleyenlere dağıt
+        queries.increment();
+        try {
+            Optional<User> result = query.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Sadece kendi kaydını sil (yazma araya girip yeni leader başlatmış olabilir)
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Leader'ın hatası follower'da aynı exception olarak fırlatılır
+    private static Optional<User> await(CompletableFuture<Optional<User>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void forget(User user) {
+        if (user.getId() != null) {
+            inFlightById.remove(user.getId());
+        }
+        if (user.getUsername() != null) {
+            inFlightByUsername.remove(user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            inFlightByEmail.remove(user.getEmail());
+        }
+    }
+
+    private void forgetAll() {
+        inFlightById.clear();
+        inFlightByUsername.clear();
+        inFlightByEmail.clear();
+    }
+
+    // ---------------------------------------------------------------
+    // Metrikler
+    // ---------------------------------------------------------------
+
+    /**
+     * findById / findByUsername / findByEmail çağrılarının toplamı
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Veri kaynağına giden sorgu sayısı (leader çağrıları)
+     */
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /**
+     * Başka bir çağrının sorgusuna bağlanan (sorgu yapmayan) çağrı sayısı
+     */
+    public long getCollapsedCalls() {
+        return collapsed.sum();
+    }
+
+    /**
+     * Şu an uçuşta olan sorgu sayısı
+     */
+    public int getInFlight() {
+        return inFlightById.size() + inFlightByUsername.size() + inFlightByEmail.size();
+    }
+
+    public void printStats() {
+        long total = getLookups();
+        System.out.println("\n=== Coalescing Stats ===");
+        System.out.println("Lookups: " + total);
+        System.out.println("Queries: " + getQueries());
+        System.out.printf("Collapsed: %d (%.1f%%)%n", getCollapsedCalls(),
+                total == 0 ? 0.0 : 100.0 * getCollapsedCalls() / total);
+        System.out.println("========================\n");
+    }
+}
@@ -0,0 +1,251 @@
+package Others.Repository;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sınırlı Bağlantı Havuzu (Connection Pool) - HikariCP benzeri simülasyon
+ *
+ * Veritabanına aynı anda açık olabilecek bağlantı sayısını sınırlar.
+ * Havuz doluysa yeni istekler adil (FIFO) bir kuyrukta bekler; belirlenen
+ * süre içinde bağlantı alamayan istek hata alır (backpressure).
+ *
+ * Özellikler:
+ * - maximumPoolSize: en fazla bağlantı sayısı (bağlantılar ihtiyaç oldukça açılır)
+ * - acquireTimeoutMs: bağlantı bekleme süresi, aşılırsa IllegalStateException
+ * - Adil bekleme kuyruğu: ilk bekleyen ilk bağlantıyı alır
+ * - Leak detection: leakDetectionThresholdMs'den uzun süre geri verilmeyen
+ *   bağlantılar, alındıkları yerin stack trace'i ile loglanır
+ * - Gauge'lar: active / idle / waiting / total
+ *
+ * Kullanım:
+ *   try (ConnectionPool.PooledConnection connection = pool.acquire()) {
+ *       // sorgu çalıştır
+ *   }
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String name;
+    private final int maximumPoolSize;
+    private final long acquireTimeoutMs;
+    private final long leakDetectionThresholdMs;
+
+    // fair = true -> bekleyen thread'ler geliş sırasına göre izin alır
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Map<Long, PooledConnection> active = new ConcurrentHashMap<>();
+    private final AtomicLong connectionIds = new AtomicLong(1);
+
+    private final LongAdder waiting = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    private final ScheduledExecutorService leakDetector;
+
+    /**
+     * Constructor - Leak detection kapalı
+     */
+    public ConnectionPool(String name, int maximumPoolSize, long acquireTimeoutMs) {
+        this(name, maximumPoolSize, acquireTimeoutMs, 0);
+    }
+
+    /**
+     * @param name                     Havuz adı (loglar için)
+     * @param maximumPoolSize          En fazla bağlantı sayısı
+     * @param acquireTimeoutMs         Bağlantı için en fazla bekleme süresi
+     * @param leakDetectionThresholdMs Bu süreden uzun tutulan bağlantılar leak sayılır (0 = kapalı)
+     */
+    public ConnectionPool(String name, int maximumPoolSize, long acquireTimeoutMs, long leakDetectionThresholdMs) {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maximumPoolSize);
+        }
+        this.name = name;
+        this.maximumPoolSize = maximumPoolSize;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.permits = new Semaphore(maximumPoolSize, true);
+
+        if (leakDetectionThresholdMs > 0) {
+            this.leakDetector = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, name + "-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, leakDetectionThresholdMs / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.leakDetector = null;
+        }
+    }
+
+    /**
+     * Havuzdan bağlantı alır; havuz doluysa sırayla bekler
+     *
+     * @throws IllegalStateException acquireTimeoutMs içinde bağlantı alınamazsa
+     */
+    public PooledConnection acquire() {
+        waiting.increment();
+        boolean granted;
+        try {
+            granted = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for connection from pool " + name, e);
+        } finally {
+            waiting.decrement();
+        }
+
+        if (!granted) {
+            timeouts.increment();
+            throw new IllegalStateException("Connection pool " + name + " exhausted: no connection available after " +
+                    acquireTimeoutMs + "ms (active=" + getActiveConnections() +
+                    ", waiting=" + getWaitingThreads() + ")");
+        }
+
+        PooledConnection connection = idle.pollFirst();
+        if (connection == null) {
+            connection = new PooledConnection(connectionIds.getAndIncrement());
+        }
+        connection.borrow(leakDetectionThresholdMs > 0);
+        active.put(connection.id, connection);
+        acquired.increment();
+        return connection;
+    }
+
+    private void release(PooledConnection connection) {
+        active.remove(connection.id);
+        // Son kullanılan bağlantı önce tekrar verilir (LIFO - sıcak bağlantı)
+        idle.addFirst(connection);
+        permits.release();
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (PooledConnection connection : active.values()) {
+            long heldMs = (now - connection.borrowedAt) / 1_000_000;
+            if (heldMs >= leakDetectionThresholdMs && connection.markLeakReported()) {
+                leaks.increment();
+                log("Possible connection leak: connection #" + connection.id + " held by " +
+                        connection.borrower + " for " + heldMs + "ms");
+                if (connection.borrowTrace != null) {
+                    for (StackTraceElement frame : connection.borrowTrace.getStackTrace()) {
+                        log("    at " + frame);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Gauge'lar
+    // ---------------------------------------------------------------
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public int getActiveConnections() {
+        return active.size();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getTotalConnections() {
+        return getActiveConnections() + getIdleConnections();
+    }
+
+    public long getWaitingThreads() {
+        return waiting.sum();
+    }
+
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+
+    public void printStats() {
+        System.out.println("\n=== Connection Pool: " + name + " ===");
+        System.out.println("Active: " + getActiveConnections() + " / " + maximumPoolSize);
+        System.out.println("Idle: " + getIdleConnections());
+        System.out.println("Waiting threads: " + getWaitingThreads());
+        System.out.println("Acquired: " + getAcquiredCount());
+        System.out.println("Timeouts: " + getTimeoutCount());
+        System.out.println("Leaks detected: " + getLeakCount());
+        System.out.println("================================\n");
+    }
+
+    private void log(String message) {
+        System.out.println("[ConnectionPool:" + name + "] " + message);
+    }
+
+    /**
+     * Havuzdan alınmış bağlantı - close() bağlantıyı havuza geri verir
+     */
+    public final class PooledConnection implements AutoCloseable {
+        private final long id;
+        private volatile long borrowedAt;
+        private volatile String borrower;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+        private boolean open;
+
+        private PooledConnection(long id) {
+            this.id = id;
+        }
+
+        private void borrow(boolean captureTrace) {
+            this.borrowedAt = System.nanoTime();
+            this.borrower = Thread.currentThread().getName();
+            this.borrowTrace = captureTrace ? new Throwable("Connection acquired here") : null;
+            this.leakReported = false;
+            this.open = true;
+        }
+
+        private synchronized boolean markLeakReported() {
+            if (leakReported) {
+                return false;
+            }
+            leakReported = true;
+            return true;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                // İkinci close() havuzu bozmasın
+                if (!open) {
+                    return;
+                }
+                open = false;
+            }
+            release(this);
+        }
+    }
+}
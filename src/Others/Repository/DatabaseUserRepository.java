@@ -1,9 +1,11 @@
 package Others.Repository;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Database Repository Implementation (Simulated)
@@ -12,10 +14,13 @@ import java.util.stream.Collectors;
  * Gerçek uygulamada JDBC, JPA/Hibernate, MyBatis gibi teknolojiler kullanılır.
  *
  * Simüle Edilen Özellikler:
- * 1. Connection pooling (bağlantı havuzu)
+ * 1. Connection pooling (bağlantı havuzu) - her sorgu havuzdan bir bağlantı alır
  * 2. Transaction yönetimi
  * 3. Query execution time (sorgu çalıştırma süresi)
  * 4. Database logging
+ * 5. Aktif kullanıcılar için bitmap index (active = true sorguları tabloyu taramaz)
+ * 6. Prepared statement'lar - SQL şablonları "?" parametreli, bir kez hazırlanıp cache'lenir
+ * 7. created_at / updated_at üzerinde sıralı index (zaman aralığı ve ORDER BY ... LIMIT sorguları)
  *
  * Gerçek implementasyonda:
  * - JDBC ile SQL sorguları çalıştırılır
@@ -25,23 +30,93 @@ import java.util.stream.Collectors;
  */
 public class DatabaseUserRepository implements IUserRepository {
 
-    // Simüle edilmiş veritabanı tablosu
-    private final Map<Long, User> database = new ConcurrentHashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    // Streaming okumalarda tek seferde çekilen satır sayısı (JDBC fetch size gibi)
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final int LOCK_STRIPES = 64;
+
+    // SQL şablonları - değerler metne gömülmez, parametre olarak bağlanır
+    private static final String SELECT_BY_ID = "SELECT * FROM users WHERE id = ?";
+    private static final String SELECT_BY_USERNAME = "SELECT * FROM users WHERE username = ?";
+    private static final String SELECT_BY_EMAIL = "SELECT * FROM users WHERE email = ?";
+    private static final String SELECT_ALL = "SELECT * FROM users";
+    private static final String SELECT_ACTIVE = "SELECT * FROM users WHERE active = true";
+    private static final String SELECT_PAGE = "SELECT * FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BY_IDS = "SELECT * FROM users WHERE id = ANY(?)";
+    private static final String SELECT_CREATED_BETWEEN = "SELECT * FROM users WHERE created_at >= ? AND created_at < ? ORDER BY created_at";
+    private static final String SELECT_UPDATED_BETWEEN = "SELECT * FROM users WHERE updated_at >= ? AND updated_at < ? ORDER BY updated_at";
+    private static final String SELECT_NEWEST = "SELECT * FROM users ORDER BY created_at DESC LIMIT ?";
+    private static final String SELECT_RECENTLY_UPDATED = "SELECT * FROM users ORDER BY updated_at DESC LIMIT ?";
+    private static final String INSERT = "INSERT INTO users (id, username, email, full_name, active, version) VALUES (?, ?, ?, ?, ?, 1)";
+    private static final String UPDATE = "UPDATE users SET username = ?, email = ?, full_name = ?, active = ?, version = version + 1 WHERE id = ?";
+    private static final String UPDATE_IF_VERSION = "UPDATE users SET username = ?, email = ?, full_name = ?, active = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String DELETE_BY_ID = "DELETE FROM users WHERE id = ?";
+    private static final String DELETE_BY_IDS = "DELETE FROM users WHERE id = ANY(?)";
+    private static final String EXISTS_BY_ID = "SELECT COUNT(*) FROM users WHERE id = ?";
+    private static final String EXISTS_BY_USERNAME = "SELECT COUNT(*) FROM users WHERE username = ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM users";
+    private static final String COUNT_ACTIVE = "SELECT COUNT(*) FROM users WHERE active = true";
+    private static final String TRUNCATE = "TRUNCATE TABLE users";
+    private static final String ADVANCE_ID_SEQUENCE = "SELECT setval('users_id_seq', GREATEST(nextval('users_id_seq'), ?))";
+
+    // Simüle edilmiş veritabanı tablosu - primary key sıralı (B-tree index gibi)
+    private final ConcurrentSkipListMap<Long, User> database = new ConcurrentSkipListMap<>();
+    private final IdAllocator idAllocator;
+
+    // active kolonu üzerindeki bitmap index
+    private final IdBitmap activeIds = new IdBitmap();
+
+    // Satır yazması ve index güncellemesi, id'ye göre seçilen kilit şeridi
+    // altında birlikte yapılır (veritabanındaki satır kilidi gibi): aynı id'ye
+    // eşzamanlı iki yazma index'i satırdan farklı bir değerde bırakamaz
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    // created_at / updated_at üzerindeki sıralı index
+    private final UserTimeIndex timeIndex = new UserTimeIndex();
 
     // Database konfigürasyonu
     private final String databaseName;
     private final boolean enableQueryLogging;
     private final int queryDelayMs;
 
+    // Varsayılan havuz ayarları (HikariCP varsayılanları ile aynı)
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 30_000;
+
+    private final ConnectionPool connectionPool;
+    private final PreparedStatementCache statementCache = new PreparedStatementCache();
+
     /**
-     * Constructor - Database yapılandırması ile
+     * Constructor - Database yapılandırması ile (varsayılan bağlantı havuzu)
      */
     public DatabaseUserRepository(String databaseName, boolean enableQueryLogging, int queryDelayMs) {
+        this(databaseName, enableQueryLogging, queryDelayMs,
+                new ConnectionPool(databaseName, DEFAULT_POOL_SIZE, DEFAULT_ACQUIRE_TIMEOUT_MS));
+    }
+
+    /**
+     * Constructor - Özel bağlantı havuzu ile (kapasite planlaması için)
+     */
+    public DatabaseUserRepository(String databaseName, boolean enableQueryLogging, int queryDelayMs,
+                                  ConnectionPool connectionPool) {
+        this(databaseName, enableQueryLogging, queryDelayMs, connectionPool, new AtomicIdAllocator());
+    }
+
+    /**
+     * Constructor - Özel id stratejisi ile (sequence yerine uygulama tarafında
+     * üretilen id: HiLoIdAllocator, SnowflakeIdGenerator)
+     */
+    public DatabaseUserRepository(String databaseName, boolean enableQueryLogging, int queryDelayMs,
+                                  ConnectionPool connectionPool, IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
         this.databaseName = databaseName;
         this.enableQueryLogging = enableQueryLogging;
         this.queryDelayMs = queryDelayMs;
-        log("Connected to database: " + databaseName);
+        this.connectionPool = connectionPool;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        log("Connected to database: " + databaseName + " (pool size " + connectionPool.getMaximumPoolSize() + ")");
     }
 
     /**
@@ -53,16 +128,14 @@ public class DatabaseUserRepository implements IUserRepository {
 
     @Override
     public Optional<User> findById(Long id) {
-        String query = "SELECT * FROM users WHERE id = " + id;
-        executeQuery(query);
+        executeQuery(SELECT_BY_ID, id);
 
         return Optional.ofNullable(database.get(id));
     }
 
     @Override
     public Optional<User> findByUsername(String username) {
-        String query = "SELECT * FROM users WHERE username = '" + username + "'";
-        executeQuery(query);
+        executeQuery(SELECT_BY_USERNAME, username);
 
         return database.values().stream()
                 .filter(user -> user.getUsername().equals(username))
@@ -71,8 +144,7 @@ public class DatabaseUserRepository implements IUserRepository {
 
     @Override
     public Optional<User> findByEmail(String email) {
-        String query = "SELECT * FROM users WHERE email = '" + email + "'";
-        executeQuery(query);
+        executeQuery(SELECT_BY_EMAIL, email);
 
         return database.values().stream()
                 .filter(user -> user.getEmail().equals(email))
@@ -81,52 +153,166 @@ public class DatabaseUserRepository implements IUserRepository {
 
     @Override
     public List<User> findAll() {
-        String query = "SELECT * FROM users";
-        executeQuery(query);
+        executeQuery(SELECT_ALL);
 
         return new ArrayList<>(database.values());
     }
 
     @Override
     public List<User> findAllActive() {
-        String query = "SELECT * FROM users WHERE active = true";
-        executeQuery(query);
+        executeQuery(SELECT_ACTIVE);
+
+        long[] ids = activeIds.toArray();
+        List<User> users = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            User user = database.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
 
-        return database.values().stream()
-                .filter(User::isActive)
-                .collect(Collectors.toList());
+    /**
+     * Tabloyu STREAM_FETCH_SIZE'lık sayfalar halinde çeker; bir sonraki sayfa
+     * ancak stream o noktaya kadar tüketildiğinde sorgulanır
+     */
+    @Override
+    public Stream<User> streamAll() {
+        Iterator<User> pages = new Iterator<>() {
+            private List<User> page = Collections.emptyList();
+            private int position;
+            private long lastId;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = findPage(lastId, STREAM_FETCH_SIZE);
+                position = 0;
+                exhausted = page.size() < STREAM_FETCH_SIZE;
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public User next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        executeQuery(SELECT_PAGE, afterId, limit);
+
+        List<User> page = new ArrayList<>(limit);
+        for (User user : database.tailMap(afterId, false).values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(user);
+        }
+        return page;
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        executeQuery(SELECT_CREATED_BETWEEN, from, to);
+
+        return rowsOf(timeIndex.createdBetween(from, to));
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        executeQuery(SELECT_UPDATED_BETWEEN, from, to);
+
+        return rowsOf(timeIndex.updatedBetween(from, to));
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        executeQuery(SELECT_NEWEST, limit);
+
+        return rowsOf(timeIndex.newestCreated(limit));
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        executeQuery(SELECT_RECENTLY_UPDATED, limit);
+
+        return rowsOf(timeIndex.newestUpdated(limit));
     }
 
     @Override
     public User save(User user) {
         if (user.getId() == null) {
             // INSERT operation
-            user.setId(idGenerator.getAndIncrement());
-            String query = "INSERT INTO users (id, username, email, full_name, active) VALUES (" +
-                    user.getId() + ", '" + user.getUsername() + "', '" +
-                    user.getEmail() + "', '" + user.getFullName() + "', " + user.isActive() + ")";
-            executeQuery(query);
+            user.setId(idAllocator.nextId());
+            executeQuery(INSERT, user.getId(), user.getUsername(), user.getEmail(),
+                    user.getFullName(), user.isActive());
         } else {
             // UPDATE operation
-            String query = "UPDATE users SET username = '" + user.getUsername() +
-                    "', email = '" + user.getEmail() +
-                    "', full_name = '" + user.getFullName() +
-                    "', active = " + user.isActive() +
-                    " WHERE id = " + user.getId();
-            executeQuery(query);
+            executeQuery(UPDATE, user.getUsername(), user.getEmail(), user.getFullName(),
+                    user.isActive(), user.getId());
+        }
+
+        storeRow(user);
+        commitTransaction();
+        return user;
+    }
+
+    /**
+     * UPDATE ... WHERE id = ? AND version = ? - etkilenen satır yoksa çakışma
+     *
+     * Sürüm karşılaştırması satırın kilit şeridi altında yapılır; iki
+     * eşzamanlı güncellemeden sadece biri aynı sürümü görür.
+     */
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
         }
+        executeQuery(UPDATE_IF_VERSION, user.getUsername(), user.getEmail(), user.getFullName(),
+                user.isActive(), user.getId(), expectedVersion);
 
-        database.put(user.getId(), user);
+        ReentrantLock lock = stripeOf(user.getId());
+        lock.lock();
+        try {
+            User current = database.get(user.getId());
+            if (current == null || current.getVersion() != expectedVersion) {
+                commitTransaction();
+                throw new OptimisticLockException(user.getId(), expectedVersion,
+                        current == null ? -1 : current.getVersion());
+            }
+            user.setVersion(expectedVersion + 1);
+            database.put(user.getId(), user);
+            activeIds.set(user.getId(), user.isActive());
+            timeIndex.index(user);
+        } finally {
+            lock.unlock();
+        }
         commitTransaction();
         return user;
     }
 
     @Override
     public boolean deleteById(Long id) {
-        String query = "DELETE FROM users WHERE id = " + id;
-        executeQuery(query);
+        executeQuery(DELETE_BY_ID, id);
 
-        boolean result = database.remove(id) != null;
+        boolean result = removeRow(id);
         commitTransaction();
         return result;
     }
@@ -141,16 +327,14 @@ public class DatabaseUserRepository implements IUserRepository {
 
     @Override
     public boolean existsById(Long id) {
-        String query = "SELECT COUNT(*) FROM users WHERE id = " + id;
-        executeQuery(query);
+        executeQuery(EXISTS_BY_ID, id);
 
         return database.containsKey(id);
     }
 
     @Override
     public boolean existsByUsername(String username) {
-        String query = "SELECT COUNT(*) FROM users WHERE username = '" + username + "'";
-        executeQuery(query);
+        executeQuery(EXISTS_BY_USERNAME, username);
 
         return database.values().stream()
                 .anyMatch(user -> user.getUsername().equals(username));
@@ -158,31 +342,152 @@ public class DatabaseUserRepository implements IUserRepository {
 
     @Override
     public long count() {
-        String query = "SELECT COUNT(*) FROM users";
-        executeQuery(query);
+        executeQuery(COUNT);
 
         return database.size();
     }
 
+    @Override
+    public long countActive() {
+        executeQuery(COUNT_ACTIVE);
+
+        return activeIds.cardinality();
+    }
+
     @Override
     public void deleteAll() {
-        String query = "TRUNCATE TABLE users";
-        executeQuery(query);
+        executeQuery(TRUNCATE);
 
-        database.clear();
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            database.clear();
+            activeIds.clear();
+            timeIndex.clear();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
         commitTransaction();
     }
 
+    /**
+     * Bundan sonra üretilecek id'lerin en az minNextId olmasını sağlar
+     *
+     * id'leriyle dışarıdan yüklenen kayıtlardan sonra çağrılır
+     * (UserBulkTransfer import'u); yeni kayıtlar yüklenen id'lerle çakışmaz.
+     */
+    public void advanceIdsTo(long minNextId) {
+        executeQuery(ADVANCE_ID_SEQUENCE, minNextId);
+
+        idAllocator.advanceTo(minNextId);
+    }
+
+    /**
+     * Toplu kayıt - tek INSERT batch'i, tek UPDATE batch'i ve tek commit
+     *
+     * Satır başına sorgu gecikmesi ve commit yerine batch başına en fazla
+     * iki round trip ve bir commit ödenir (JDBC addBatch/executeBatch gibi).
+     */
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        List<User> inserts = new ArrayList<>();
+        List<User> updates = new ArrayList<>();
+        for (User user : users) {
+            if (user.getId() == null) {
+                user.setId(idAllocator.nextId());
+                inserts.add(user);
+            } else {
+                updates.add(user);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            executeBatch(INSERT, inserts.size());
+        }
+        if (!updates.isEmpty()) {
+            executeBatch(UPDATE, updates.size());
+        }
+
+        for (User user : users) {
+            storeRow(user);
+        }
+        commitTransaction();
+        return new ArrayList<>(users);
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        executeQuery(SELECT_BY_IDS, ids);
+
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = database.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        executeQuery(DELETE_BY_IDS, ids);
+
+        int deleted = 0;
+        for (Long id : ids) {
+            if (removeRow(id)) {
+                deleted++;
+            }
+        }
+        commitTransaction();
+        return deleted;
+    }
+
     /**
      * Query çalıştırma simülasyonu
+     *
+     * Şablon cache'ten hazırlanmış statement olarak alınır, parametreler
+     * bağlanır. Okunabilir SQL metni sadece loglama açıksa üretilir.
+     *
+     * Sorgu, havuzdan alınan bir bağlantı üzerinde çalışır. Havuz doluysa
+     * çağıran bağlantı boşalana kadar bekler.
+     */
+    private void executeQuery(String template, Object... parameters) {
+        PreparedStatementCache.Statement statement = statementCache.prepare(template);
+        statement.bind(parameters.length);
+
+        try (ConnectionPool.PooledConnection connection = connectionPool.acquire()) {
+            if (enableQueryLogging) {
+                log("Executing query on connection #" + connection.getId() + ": " + statement.render(parameters));
+            }
+
+            // Veritabanı gecikmesini simüle et
+            simulateQueryDelay();
+        }
+    }
+
+    /**
+     * Aynı statement'ı çok satırla tek round trip'te çalıştırır
      */
-    private void executeQuery(String query) {
-        if (enableQueryLogging) {
-            log("Executing query: " + query);
+    private void executeBatch(String template, int rows) {
+        PreparedStatementCache.Statement statement = statementCache.prepare(template);
+        statement.bindBatch();
+
+        try (ConnectionPool.PooledConnection connection = connectionPool.acquire()) {
+            if (enableQueryLogging) {
+                log("Executing batch of " + rows + " rows on connection #" + connection.getId() + ": " +
+                        statement.getSql());
+            }
+
+            simulateQueryDelay();
         }
+    }
 
-        // Veritabanı gecikmesini simüle et
-        simulateQueryDelay();
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
     }
 
     /**
@@ -196,6 +501,9 @@ public class DatabaseUserRepository implements IUserRepository {
      * Database query gecikmesini simüle et
      */
     private void simulateQueryDelay() {
+        if (queryDelayMs <= 0) {
+            return;
+        }
         try {
             Thread.sleep(queryDelayMs);
         } catch (InterruptedException e) {
@@ -217,9 +525,14 @@ public class DatabaseUserRepository implements IUserRepository {
         System.out.println("\n=== Database Statistics ===");
         System.out.println("Database: " + databaseName);
         System.out.println("Total records: " + count());
-        System.out.println("Active users: " + findAllActive().size());
+        System.out.println("Active users: " + countActive());
         System.out.println("Query logging: " + enableQueryLogging);
         System.out.println("Query delay: " + queryDelayMs + "ms");
+        System.out.println("Connection pool: " + connectionPool.getActiveConnections() + " active, " +
+                connectionPool.getIdleConnections() + " idle, " +
+                connectionPool.getWaitingThreads() + " waiting (max " + connectionPool.getMaximumPoolSize() + ")");
+        System.out.println("Prepared statements: " + statementCache.size() + " cached, " +
+                statementCache.getHits() + " hits, " + statementCache.getMisses() + " misses");
         System.out.println("===========================\n");
     }
 
@@ -231,12 +544,61 @@ public class DatabaseUserRepository implements IUserRepository {
 
         for (User user : users) {
             if (user.getId() == null) {
-                user.setId(idGenerator.getAndIncrement());
+                user.setId(idAllocator.nextId());
             }
-            database.put(user.getId(), user);
+            storeRow(user);
         }
 
         commitTransaction();
         log("Bulk insert completed");
     }
+
+    // Satırı yazar, sürümü saklanan sürümün bir fazlası yapar (version = version + 1)
+    private void storeRow(User user) {
+        ReentrantLock lock = stripeOf(user.getId());
+        lock.lock();
+        try {
+            User current = database.get(user.getId());
+            user.setVersion((current == null ? 0 : current.getVersion()) + 1);
+            database.put(user.getId(), user);
+            activeIds.set(user.getId(), user.isActive());
+            timeIndex.index(user);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean removeRow(Long id) {
+        if (id == null) {
+            return false;
+        }
+        ReentrantLock lock = stripeOf(id);
+        lock.lock();
+        try {
+            if (database.remove(id) == null) {
+                return false;
+            }
+            activeIds.remove(id);
+            timeIndex.remove(id);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeOf(long id) {
+        return stripes[Math.floorMod(Long.hashCode(id), LOCK_STRIPES)];
+    }
+
+    // Index'ten gelen id'leri satırlara çevirir (arada silinenler atlanır)
+    private List<User> rowsOf(List<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = database.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
 }
@@ -0,0 +1,84 @@
+package Others.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Kalıcılık modu benchmark'ı (write-ahead log + snapshot)
+ *
+ * Ölçülenler:
+ * 1. Yazma throughput'u: sadece bellek vs. write-ahead log (group commit)
+ * 2. fsync başına düşen kayıt sayısı (group commit verimi)
+ * 3. Recovery süresi: sadece log replay vs. snapshot + log kuyruğu
+ *
+ * Kullanım: java Others.Repository.DurableRepositoryBenchmark [users] [threads]
+ */
+public class DurableRepositoryBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int perThread = users / threads;
+        int total = perThread * threads;
+
+        System.out.println("=== Durable InMemoryUserRepository Benchmark ===");
+        System.out.println("Users: " + total + ", writer threads: " + threads + "\n");
+
+        // 1. Sadece bellek (baseline)
+        InMemoryUserRepository memoryOnly = new InMemoryUserRepository();
+        long memoryNanos = BenchmarkSupport.quietly(() -> insertUsers(memoryOnly, threads, perThread, "m"));
+        System.out.println("In-memory save:        " + BenchmarkSupport.opsPerSecond(total, memoryNanos));
+
+        Path directory = Files.createTempDirectory("user-wal-benchmark");
+        try {
+            // 2. Write-ahead log ile
+            InMemoryUserRepository durable = BenchmarkSupport.quietly(() -> new InMemoryUserRepository(directory, 0));
+            long durableNanos = BenchmarkSupport.quietly(() -> insertUsers(durable, threads, perThread, "d"));
+            System.out.println("Durable save (WAL):    " + BenchmarkSupport.opsPerSecond(total, durableNanos));
+            System.out.printf("Group commit:          %,d records / %,d fsyncs = %.1f records per fsync%n",
+                    durable.getLoggedRecords(), durable.getLogSyncCount(),
+                    (double) durable.getLoggedRecords() / Math.max(1, durable.getLogSyncCount()));
+            BenchmarkSupport.quietly(durable::close);
+
+            // 3. Recovery - sadece log replay
+            InMemoryUserRepository fromLog = BenchmarkSupport.quietly(() -> new InMemoryUserRepository(directory, 0));
+            System.out.println("\nRecovery (log only):   " + fromLog.getLastRecoveryMs() + " ms, " +
+                    fromLog.count() + " users");
+
+            // 4. Snapshot + %10 yeni yazma, sonra recovery
+            BenchmarkSupport.quietly(fromLog::snapshot);
+            BenchmarkSupport.quietly(() -> insertUsers(fromLog, threads, perThread / 10, "s"));
+            BenchmarkSupport.quietly(fromLog::close);
+
+            InMemoryUserRepository fromSnapshot = BenchmarkSupport.quietly(() -> new InMemoryUserRepository(directory, 0));
+            System.out.println("Recovery (snapshot + log tail): " + fromSnapshot.getLastRecoveryMs() + " ms, " +
+                    fromSnapshot.count() + " users");
+            BenchmarkSupport.quietly(fromSnapshot::close);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static long insertUsers(IUserRepository repository, int threads, int perThread, String prefix) {
+        return BenchmarkSupport.runConcurrently(threads, perThread, (thread, i) -> {
+            String name = prefix + thread + "_" + i;
+            repository.save(new User(null, name, name + "@bench.com", "Bench User " + i));
+        });
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package Others.Repository;
+
+/**
+ * Count-Min Sketch - erişim sıklığının yaklaşık ve sabit bellekli tahmini
+ *
+ * W-TinyLFU cache'in "admission" kararı için kullanılır: cache'e girmek
+ * isteyen aday, atılacak kurbandan daha sık erişilmişse içeri alınır.
+ *
+ * - 4 satır x genişlik sayaç, her anahtar her satırda farklı bir sayaca düşer
+ * - Tahmin = satırlardaki en küçük sayaç (çakışmalar sadece yukarı yanıltır)
+ * - Sayaçlar 15'te doyar (4-bit TinyLFU sayaçları gibi)
+ * - sampleSize kadar artıştan sonra tüm sayaçlar yarıya indirilir (aging):
+ *   eskiden popüler olan ama artık erişilmeyen anahtarlar zamanla unutulur
+ *
+ * Thread-safe değildir; çağıran kendi kilidi altında kullanmalıdır.
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private final int[] counters;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param maximumSize cache'in en fazla tutacağı kayıt sayısı
+     */
+    FrequencySketch(int maximumSize) {
+        int size = 16;
+        while (size < maximumSize) {
+            size <<= 1;
+        }
+        this.width = size;
+        this.counters = new int[DEPTH * size];
+        this.sampleSize = 10 * Math.max(maximumSize, 1);
+    }
+
+    void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + indexOf(key, row);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[row * width + indexOf(key, row)]);
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 31;
+        return (int) hash & (width - 1);
+    }
+}
@@ -0,0 +1,190 @@
+package Others.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi/Lo id allocator - thread başına ayrılan id blokları
+ *
+ * Paylaşılan sayaç (hi) id başına değil blok başına bir kez artırılır:
+ * her thread blockSize'lık bir aralık ayırır ve id'leri o aralıktan
+ * (lo) kilitsiz, paylaşılan hiçbir şeye dokunmadan verir. Çok thread'li
+ * kayıtta tek AtomicLong üzerindeki yarış blockSize kat azalır.
+ *
+ * Bedeli:
+ * - id'ler thread'ler arasında artan sırada değildir
+ * - Thread'in bitmemiş bloğu kullanılmaz; id'lerde boşluk olur. Her sanal
+ *   thread kendi bloğunu ayırdığı için kısa ömürlü çok sayıda thread'de
+ *   blockSize küçük tutulmalıdır.
+ *
+ * Kalıcılık (dosya verilirse):
+ * Ayrılan blokların üst sınırı (high-water mark) dosyaya yazılır; yeniden
+ * başlatmada sayaç bu değerden devam eder, önceki çalışmada verilmiş bir
+ * id tekrar verilmez. Her blokta fsync yapmamak için işaret
+ * PERSIST_AHEAD_BLOCKS blok ileriye yazılır; çökme sonrası en fazla bu
+ * kadar id atlanır. Dosya önce geçici dosyaya yazılıp fsync edilir, sonra
+ * atomik olarak yerine taşınır (yarım yazılmış işaret okunmaz).
+ */
+public class HiLoIdAllocator implements IdAllocator {
+
+    private static final int DEFAULT_BLOCK_SIZE = 1024;
+    private static final int PERSIST_AHEAD_BLOCKS = 1024;
+
+    private final int blockSize;
+    private final Path markFile;
+
+    // Henüz ayrılmamış ilk blok
+    private final AtomicLong nextBlock;
+
+    // Dosyadaki high-water mark - bunun altındaki id'ler güvenle verilebilir
+    private volatile long persistedMark;
+    private long persistCount;
+
+    // advanceTo'da artar; eski dönemden kalan thread blokları atılır
+    private volatile int epoch;
+
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    /**
+     * Constructor - kalıcılık yok, 1'den başlar
+     */
+    public HiLoIdAllocator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor - kalıcılık yok, 1'den başlar
+     *
+     * @param blockSize Thread başına ayrılan id sayısı
+     */
+    public HiLoIdAllocator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.markFile = null;
+        this.nextBlock = new AtomicLong(1);
+        this.persistedMark = Long.MAX_VALUE;
+    }
+
+    /**
+     * Constructor - high-water mark dosyası ile
+     *
+     * Dosya varsa id'ler kayıtlı işaretten devam eder, yoksa 1'den başlar.
+     *
+     * @param markFile  High-water mark dosyası
+     * @param blockSize Thread başına ayrılan id sayısı
+     */
+    public HiLoIdAllocator(Path markFile, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.markFile = markFile;
+        long mark = readMark(markFile);
+        this.nextBlock = new AtomicLong(mark);
+        this.persistedMark = mark;
+    }
+
+    @Override
+    public long nextId() {
+        Block block = blocks.get();
+        while (block.next == block.end || block.epoch != epoch) {
+            reserve(block);
+        }
+        return block.next++;
+    }
+
+    /**
+     * Kayıtlı işaret de ilerletilir; eski thread blokları bir sonraki
+     * nextId'de atılır
+     */
+    @Override
+    public synchronized void advanceTo(long minNextId) {
+        persistThrough(nextBlock.accumulateAndGet(minNextId, Math::max));
+        epoch++;
+    }
+
+    @Override
+    public long highWaterMark() {
+        return nextBlock.get();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * High-water mark'ın dosyaya yazılma (fsync) sayısı
+     */
+    public synchronized long getPersistCount() {
+        return persistCount;
+    }
+
+    private void reserve(Block block) {
+        int currentEpoch = epoch;
+        long start = nextBlock.getAndAdd(blockSize);
+        long end = start + blockSize;
+        if (end > persistedMark) {
+            persistThrough(end);
+        }
+        block.next = start;
+        block.end = end;
+        block.epoch = currentEpoch;
+    }
+
+    // Blok dağıtılmadan önce işaretin en az end olduğu diske yazılır
+    private synchronized void persistThrough(long end) {
+        if (markFile == null || end <= persistedMark) {
+            return;
+        }
+        long mark = end + (long) blockSize * PERSIST_AHEAD_BLOCKS;
+        writeMark(markFile, mark);
+        persistedMark = mark;
+        persistCount++;
+    }
+
+    private static long readMark(Path file) {
+        if (!Files.exists(file)) {
+            return 1;
+        }
+        try {
+            return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read id high-water mark from " + file, e);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Corrupt id high-water mark in " + file, e);
+        }
+    }
+
+    private static void writeMark(Path file, long mark) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap((mark + "\n").getBytes(StandardCharsets.US_ASCII)));
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot persist id high-water mark to " + file, e);
+        }
+    }
+
+    /**
+     * Thread'e ayrılmış aralık: [next, end)
+     */
+    private static final class Block {
+        long next;
+        long end;
+        int epoch = -1;
+    }
+}
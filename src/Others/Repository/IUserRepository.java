@@ -1,7 +1,12 @@
 package Others.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Repository Interface (Abstraction Layer)
@@ -58,6 +63,10 @@ public interface IUserRepository {
     /**
      * Kullanıcı kaydeder (yeni ekleme veya güncelleme)
      *
+     * Kaydedilen kullanıcının sürümü (version) saklanan sürümün bir fazlasına
+     * ayarlanır (yeni kullanıcı: 1). Sürüm kontrolü yapılmaz - son yazan kazanır;
+     * kontrollü güncelleme için saveIfVersion kullanılır.
+     *
      * @param user Kaydedilecek kullanıcı
      * @return User - Kaydedilen kullanıcı (genelde ID atanmış haliyle döner)
      */
@@ -107,4 +116,240 @@ public interface IUserRepository {
      * Dikkat: Bu metod genellikle test senaryolarında kullanılır
      */
     void deleteAll();
+
+    /**
+     * Aktif kullanıcı sayısını döndürür
+     *
+     * Varsayılan implementasyon findAllActive()'i sayar. Aktiflik için
+     * indeksi olan implementasyonlar bu metodu override etmelidir.
+     *
+     * @return long - Aktif kullanıcı sayısı
+     */
+    default long countActive() {
+        return findAllActive().size();
+    }
+
+    // ---------------------------------------------------------------
+    // Streaming ve sayfalama
+    // ---------------------------------------------------------------
+
+    /**
+     * Tüm kullanıcıları lazy bir stream olarak döndürür
+     *
+     * findAll()'dan farkı: sonuçlar tek bir listeye kopyalanmaz, stream
+     * tüketildikçe üretilir. Eşzamanlı yazmalara karşı zayıf tutarlıdır.
+     * Varsayılan implementasyon findAll()'a düşer.
+     *
+     * @return Stream<User> - Tüm kullanıcılar (sıra garanti edilmez)
+     */
+    default Stream<User> streamAll() {
+        return findAll().stream();
+    }
+
+    /**
+     * Keyset pagination - afterId'den sonraki sayfayı getirir
+     *
+     * Offset yerine son görülen ID kullanılır: sayfalar arasında ekleme/silme
+     * olsa bile kayıt atlanmaz veya tekrar edilmez.
+     *
+     * @param afterId Önceki sayfanın son ID'si (ilk sayfa için 0)
+     * @param limit   Sayfa boyutu
+     * @return List<User> - ID'ye göre artan sırada en fazla limit kullanıcı
+     */
+    default List<User> findPage(long afterId, int limit) {
+        try (Stream<User> users = streamAll()) {
+            return KeysetPages.firstAfter(users.iterator(), User::getId, afterId, limit);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Arama
+    // ---------------------------------------------------------------
+
+    /**
+     * Type-ahead arama - fullName, username ve email üzerinde
+     *
+     * Büyük/küçük harfe duyarsızdır. Sonuçlar önce tam kelime eşleşmesi,
+     * sonra prefix, sonra substring eşleşmesi sırasıyla gelir. Varsayılan
+     * implementasyon tüm kullanıcıları tarar; arama indeksi olan
+     * implementasyonlar bu metodu override etmelidir.
+     *
+     * @param query Aranan metin
+     * @param limit En fazla sonuç sayısı
+     * @return List<User> - Eşleşen kullanıcılar (en iyi eşleşme önce)
+     */
+    default List<User> searchUsers(String query, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        try (Stream<User> users = streamAll()) {
+            return users.filter(user -> UserSearchIndex.matchRank(user, query) >= 0)
+                    .sorted(UserSearchIndex.byRank(query))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Zaman sıralı sorgular
+    //
+    // Varsayılan implementasyonlar tüm kullanıcıları tarar. createdAt /
+    // updatedAt için sıralı indeksi olan implementasyonlar (UserTimeIndex)
+    // bu metodları override etmelidir; o zaman maliyet sonuç boyutuyla
+    // orantılı olur. Zamanlar son save anındaki değerlerdir.
+    // ---------------------------------------------------------------
+
+    /**
+     * Belirli bir zaman aralığında oluşturulan kullanıcıları getirir
+     *
+     * @param from Başlangıç (dahil)
+     * @param to   Bitiş (hariç)
+     * @return List<User> - createdAt'e göre artan sırada
+     */
+    default List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        UserTimeIndex.checkRange(from, to);
+        try (Stream<User> users = streamAll()) {
+            return users.filter(user -> UserTimeIndex.isBetween(user.getCreatedAt(), from, to))
+                    .sorted(UserTimeIndex.BY_CREATED_AT)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Belirli bir zaman aralığında güncellenen kullanıcıları getirir
+     * (ör. "son bir saatte güncellenenler")
+     *
+     * @param from Başlangıç (dahil)
+     * @param to   Bitiş (hariç)
+     * @return List<User> - updatedAt'e göre artan sırada
+     */
+    default List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        UserTimeIndex.checkRange(from, to);
+        try (Stream<User> users = streamAll()) {
+            return users.filter(user -> UserTimeIndex.isBetween(user.getUpdatedAt(), from, to))
+                    .sorted(UserTimeIndex.BY_UPDATED_AT)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * En son kaydolan kullanıcıları getirir (ör. "en yeni 100 kayıt")
+     *
+     * @param limit En fazla sonuç sayısı
+     * @return List<User> - createdAt'e göre azalan sırada (en yeni önce)
+     */
+    default List<User> findNewest(int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        try (Stream<User> users = streamAll()) {
+            return users.filter(user -> user.getCreatedAt() != null)
+                    .sorted(UserTimeIndex.BY_CREATED_AT.reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * En son güncellenen kullanıcıları getirir
+     *
+     * @param limit En fazla sonuç sayısı
+     * @return List<User> - updatedAt'e göre azalan sırada (en yeni önce)
+     */
+    default List<User> findRecentlyUpdated(int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        try (Stream<User> users = streamAll()) {
+            return users.filter(user -> user.getUpdatedAt() != null)
+                    .sorted(UserTimeIndex.BY_UPDATED_AT.reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Toplu (batch) işlemler
+    //
+    // Varsayılan implementasyonlar tekil metodları döngüde çağırır.
+    // Veri kaynağı toplu işlemi destekliyorsa (multi-row statement, tek
+    // commit, tek kilit) implementasyon bu metodları override etmelidir.
+    // ---------------------------------------------------------------
+
+    /**
+     * Optimistic locking ile günceller (compare-and-set)
+     *
+     * Kullanıcı sadece saklanan sürümü hâlâ expectedVersion ise kaydedilir
+     * ve sürümü expectedVersion + 1 olur. Arada başka biri kaydettiyse veya
+     * kullanıcı silindiyse hiçbir şey yazılmaz ve OptimisticLockException
+     * fırlatılır. Okuma ile kayıt arasında kilit tutulmaz; değişiklik
+     * repository'nin sakladığı nesneye değil kopyasına (User.copy())
+     * uygulanmalıdır.
+     *
+     * Varsayılan implementasyon kontrol + kaydı repository nesnesi üzerinde
+     * senkronize yapar - sadece diğer saveIfVersion çağrılarına karşı
+     * atomiktir. Kendi yazma kilidi olan implementasyonlar kontrolü o kilit
+     * altında yapmak için override eder.
+     *
+     * @param user            Güncellenecek kullanıcı (ID'si dolu olmalı)
+     * @param expectedVersion Kullanıcı okunduğundaki sürüm
+     * @return User - Kaydedilen kullanıcı (yeni sürümüyle)
+     * @throws OptimisticLockException Sürüm uyuşmazsa veya kullanıcı silinmişse
+     */
+    default User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
+        }
+        synchronized (this) {
+            long currentVersion = findById(user.getId()).map(User::getVersion).orElse(-1L);
+            if (currentVersion != expectedVersion) {
+                throw new OptimisticLockException(user.getId(), expectedVersion, currentVersion);
+            }
+            return save(user);
+        }
+    }
+
+    /**
+     * Birden fazla kullanıcıyı kaydeder (yeni ekleme veya güncelleme)
+     *
+     * @param users Kaydedilecek kullanıcılar
+     * @return List<User> - Kaydedilen kullanıcılar (aynı sırada, ID atanmış haliyle)
+     */
+    default List<User> saveAll(Collection<User> users) {
+        List<User> saved = new ArrayList<>(users.size());
+        for (User user : users) {
+            saved.add(save(user));
+        }
+        return saved;
+    }
+
+    /**
+     * Verilen ID'lere sahip kullanıcıları getirir
+     *
+     * @param ids Kullanıcı ID'leri
+     * @return List<User> - Bulunan kullanıcılar (ID sırasıyla, bulunamayanlar atlanır)
+     */
+    default List<User> findAllById(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            findById(id).ifPresent(users::add);
+        }
+        return users;
+    }
+
+    /**
+     * Verilen ID'lere sahip kullanıcıları siler
+     *
+     * @param ids Silinecek kullanıcıların ID'leri
+     * @return int - Silinen kullanıcı sayısı
+     */
+    default int deleteAllById(Collection<Long> ids) {
+        int deleted = 0;
+        for (Long id : ids) {
+            if (deleteById(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
 }
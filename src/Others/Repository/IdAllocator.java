@@ -0,0 +1,41 @@
+package Others.Repository;
+
+/**
+ * ID Allocator (Strategy)
+ *
+ * Yeni kayıtlara id veren strateji. Repository'ler ve servisler id'yi
+ * kendi sayaçlarından değil, kendilerine verilen allocator'dan alır.
+ *
+ * Implementasyonlar:
+ * - AtomicIdAllocator    : tek paylaşılan sayaç (1, 2, 3, ... - boşluksuz)
+ * - HiLoIdAllocator      : thread başına ayrılan id blokları; sayaç blok
+ *                          başına bir kez artırılır, high-water mark dosyaya
+ *                          yazılarak yeniden başlatmada id tekrarı önlenir
+ * - SnowflakeIdGenerator : zaman sıralı 64-bit id (zaman | worker | sıra)
+ *
+ * Tüm implementasyonlar thread-safe'tir ve aynı id'yi iki kez vermez.
+ * Sıralılık ve boşluksuzluk sadece AtomicIdAllocator'da garantilidir.
+ */
+public interface IdAllocator {
+
+    /**
+     * Yeni, daha önce verilmemiş bir id döndürür
+     */
+    long nextId();
+
+    /**
+     * Bundan sonra verilecek id'lerin en az minNextId olmasını sağlar
+     *
+     * Mevcut verilerle açılışta (recovery, import) çağrılır. Değer zaten
+     * daha büyükse bir şey yapılmaz.
+     */
+    void advanceTo(long minNextId);
+
+    /**
+     * Şimdiye kadar verilmiş tüm id'lerden büyük bir değer
+     *
+     * Snapshot'a yazılıp açılışta advanceTo ile geri verilir. Blok ayıran
+     * allocator'larda henüz kullanılmamış ayrılmış id'leri de kapsar.
+     */
+    long highWaterMark();
+}
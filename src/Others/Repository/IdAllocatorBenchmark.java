@@ -0,0 +1,136 @@
+package Others.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * IdAllocator benchmark'ı - çok thread'li id üretimi
+ *
+ * Her allocator için thread sayısı artırılarak saniyedeki id sayısı
+ * ölçülür:
+ *
+ * - atomic          : tek AtomicLong.getAndIncrement (tüm thread'ler aynı cache line'da)
+ * - hilo            : thread başına 1024'lük blok, kalıcılık yok
+ * - hilo (persisted): aynı, high-water mark geçici dosyaya yazılır
+ * - snowflake       : zaman | worker | sıra, tek state üzerinde CAS
+ *
+ * Ardından her allocator 32+ thread ile üretilen id'lerde tekrar olup
+ * olmadığı için kontrol edilir ve kalıcı HiLo'nun yeniden açıldığında
+ * önceki id'lerin üstünden devam ettiği gösterilir.
+ *
+ * Kullanım: java Others.Repository.IdAllocatorBenchmark [threads] [iterationMs]
+ *   ör. java Others.Repository.IdAllocatorBenchmark 1,8,32,64 1000
+ */
+public class IdAllocatorBenchmark {
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int UNIQUENESS_IDS_PER_THREAD = 100_000;
+
+    // Thread başına ayrı cache line'a düşen sonuç hücreleri (paylaşılan sink yarış yaratır)
+    private static final int SINK_STRIDE = 16;
+    private static volatile long blackhole;
+
+    public static void main(String[] args) throws IOException {
+        int[] threadCounts = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 8, 32, 64};
+        long iterationNanos = (args.length > 1 ? Long.parseLong(args[1]) : 1_000) * 1_000_000L;
+        int maxThreads = Math.max(32, Arrays.stream(threadCounts).max().orElse(32));
+
+        Path directory = Files.createTempDirectory("id-allocator-bench");
+        try {
+            Map<String, Supplier<IdAllocator>> allocators = new LinkedHashMap<>();
+            allocators.put("atomic", AtomicIdAllocator::new);
+            allocators.put("hilo", () -> new HiLoIdAllocator(BLOCK_SIZE));
+            allocators.put("hilo (persisted)", () -> new HiLoIdAllocator(directory.resolve("hilo-" + System.nanoTime()), BLOCK_SIZE));
+            allocators.put("snowflake", () -> new SnowflakeIdGenerator(1));
+
+            System.out.println("=== IdAllocator Benchmark ===");
+            System.out.println("CPUs: " + Runtime.getRuntime().availableProcessors() + ", iteration: " +
+                    iterationNanos / 1_000_000 + "ms (1 warm-up + 1 measured)\n");
+            System.out.printf("%-18s %8s %18s %10s%n", "Allocator", "Threads", "ids/s", "ns/id");
+            for (Map.Entry<String, Supplier<IdAllocator>> entry : allocators.entrySet()) {
+                for (int threads : threadCounts) {
+                    measure(entry.getKey(), entry.getValue().get(), threads, iterationNanos);
+                }
+            }
+
+            System.out.println("\nUniqueness (" + maxThreads + " threads x " + UNIQUENESS_IDS_PER_THREAD + " ids):");
+            for (Map.Entry<String, Supplier<IdAllocator>> entry : allocators.entrySet()) {
+                System.out.printf("  %-18s duplicates: %d%n", entry.getKey(),
+                        countDuplicates(entry.getValue().get(), maxThreads));
+            }
+
+            restartDemo(directory.resolve("restart-mark"));
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private static void measure(String name, IdAllocator allocator, int threads, long iterationNanos) {
+        long[] sinks = new long[threads * SINK_STRIDE];
+        BenchmarkSupport.ThreadOperation operation = (thread, i) -> sinks[thread * SINK_STRIDE] += allocator.nextId();
+
+        BenchmarkSupport.runFor(threads, iterationNanos, operation);
+        long start = System.nanoTime();
+        long ids = BenchmarkSupport.runFor(threads, iterationNanos, operation);
+        long elapsed = System.nanoTime() - start;
+
+        blackhole += Arrays.stream(sinks).sum();
+        String extra = allocator instanceof HiLoIdAllocator && ((HiLoIdAllocator) allocator).getPersistCount() > 0
+                ? "  (" + ((HiLoIdAllocator) allocator).getPersistCount() + " mark writes)"
+                : "";
+        System.out.printf("%-18s %8d %,18.0f %10.1f%s%n", name, threads, ids * 1_000_000_000.0 / elapsed,
+                (double) elapsed * threads / ids, extra);
+    }
+
+    private static long countDuplicates(IdAllocator allocator, int threads) {
+        long[] ids = new long[threads * UNIQUENESS_IDS_PER_THREAD];
+        BenchmarkSupport.runConcurrently(threads, UNIQUENESS_IDS_PER_THREAD,
+                (thread, i) -> ids[thread * UNIQUENESS_IDS_PER_THREAD + i] = allocator.nextId());
+        Arrays.sort(ids);
+        long duplicates = 0;
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1]) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    // Aynı dosyayla açılan yeni allocator öncekinin verdiği id'lerin üstünden başlar
+    private static void restartDemo(Path markFile) {
+        HiLoIdAllocator first = new HiLoIdAllocator(markFile, BLOCK_SIZE);
+        long[] maxIssued = new long[1];
+        BenchmarkSupport.runConcurrently(8, 5_000, (thread, i) -> {
+            long id = first.nextId();
+            synchronized (maxIssued) {
+                maxIssued[0] = Math.max(maxIssued[0], id);
+            }
+        });
+
+        HiLoIdAllocator restarted = new HiLoIdAllocator(markFile, BLOCK_SIZE);
+        long next = restarted.nextId();
+        System.out.println("\nRestart (persisted hilo):");
+        System.out.println("  highest id before restart: " + maxIssued[0]);
+        System.out.println("  first id after restart:    " + next + (next > maxIssued[0] ? " (no reuse)" : " (REUSED!)"));
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package Others.Repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Sıkıştırılmış id bitmap'i (Roaring bitmap benzeri)
+ *
+ * Bir id kümesini (ör. aktif kullanıcılar) bit seti olarak tutar. id'ler
+ * üst bitlerine göre 65536'lık bloklara (chunk) bölünür; her blok
+ * yoğunluğuna göre iki farklı container'dan birinde saklanır:
+ *
+ * - ArrayContainer:  sıralı char[] - en fazla 4096 id (seyrek blok, id başına 2 byte)
+ * - BitmapContainer: long[1024] = 8 KB sabit (yoğun blok, id başına 1 bit)
+ *
+ * 4096 eşiği iki temsilin aynı boyuta (8 KB) geldiği noktadır. Container
+ * eşik geçildiğinde diğer temsile dönüştürülür. Boş bloklar hiç yer tutmaz.
+ *
+ * Maliyetler:
+ * - add / remove / contains: blok bulma O(log bloklar) + container içi O(log 4096) veya O(1)
+ * - cardinality: O(1) (sayaç tutulur)
+ * - forEach / forEachAfter / toArray: sonuç boyutu + blok sayısı ile orantılı, tablo boyutuyla değil
+ *
+ * Thread-safety: Tüm metodlar synchronized'dır. Okuyucular toArray() ile
+ * kilit altında bir kopya alıp kullanıcıları kilit dışında çözmelidir.
+ */
+class IdBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // Blok anahtarı (id >>> 16) -> container, artan sırada
+    private final TreeMap<Long, Container> containers = new TreeMap<>();
+    private long cardinality;
+
+    /**
+     * @return id eklendiyse true, zaten varsa false
+     */
+    synchronized boolean add(long id) {
+        long key = id >>> 16;
+        char low = (char) id;
+        Container container = containers.get(key);
+        if (container == null) {
+            container = new ArrayContainer();
+            containers.put(key, container);
+        }
+        int before = container.cardinality();
+        Container updated = container.add(low);
+        if (updated != container) {
+            containers.put(key, updated);
+        }
+        if (updated.cardinality() == before) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return id silindiyse true, zaten yoksa false
+     */
+    synchronized boolean remove(long id) {
+        long key = id >>> 16;
+        char low = (char) id;
+        Container container = containers.get(key);
+        if (container == null || !container.contains(low)) {
+            return false;
+        }
+        Container updated = container.remove(low);
+        if (updated.cardinality() == 0) {
+            containers.remove(key);
+        } else if (updated != container) {
+            containers.put(key, updated);
+        }
+        cardinality--;
+        return true;
+    }
+
+    /**
+     * id'yi flag değerine göre ekler veya siler
+     */
+    void set(long id, boolean value) {
+        if (value) {
+            add(id);
+        } else {
+            remove(id);
+        }
+    }
+
+    synchronized boolean contains(long id) {
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    synchronized long cardinality() {
+        return cardinality;
+    }
+
+    synchronized void clear() {
+        containers.clear();
+        cardinality = 0;
+    }
+
+    /**
+     * id'leri artan sırada gezer (kilit altında - action kısa tutulmalı)
+     */
+    synchronized void forEach(LongConsumer action) {
+        forEachWhile(id -> {
+            action.accept(id);
+            return true;
+        });
+    }
+
+    /**
+     * id'leri artan sırada gezer, action false dönünce durur (kilit altında)
+     */
+    synchronized void forEachWhile(LongPredicate action) {
+        for (Map.Entry<Long, Container> entry : containers.entrySet()) {
+            if (!entry.getValue().forEachWhile(entry.getKey() << 16, action)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * afterId'den büyük id'leri artan sırada gezer, action false dönünce durur (kilit altında)
+     *
+     * Baştaki bloklar atlanır (TreeMap.tailMap); sadece afterId'nin bloğundaki
+     * küçük id'ler tek tek geçilir. Keyset pagination için.
+     */
+    synchronized void forEachAfter(long afterId, LongPredicate action) {
+        if (afterId < 0) {
+            forEachWhile(action);
+            return;
+        }
+        long firstKey = afterId >>> 16;
+        for (Map.Entry<Long, Container> entry : containers.tailMap(firstKey, true).entrySet()) {
+            LongPredicate visit = entry.getKey() == firstKey ? id -> id <= afterId || action.test(id) : action;
+            if (!entry.getValue().forEachWhile(entry.getKey() << 16, visit)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * id'lerin artan sıralı kopyası
+     */
+    synchronized long[] toArray() {
+        long[] ids = new long[(int) cardinality];
+        int[] position = {0};
+        forEach(id -> ids[position[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * Container'ların yaklaşık bellek kullanımı (byte)
+     */
+    synchronized long sizeInBytes() {
+        long bytes = 0;
+        for (Container container : containers.values()) {
+            bytes += container.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Artan sırada gelen id'lerden bitmap kurar (toplu yükleme)
+     *
+     * Son blok ve container'ı hatırlar; id başına TreeMap araması yapılmaz
+     * ve container'a hep sondan eklenir. Tek thread'den kullanılır.
+     */
+    static final class SortedBuilder {
+        private final IdBitmap bitmap = new IdBitmap();
+        private long lastId;
+        private long currentKey;
+        private Container current;
+
+        /**
+         * @param id Son eklenenden büyük olmalı (son id'nin tekrarı yok sayılır)
+         */
+        void add(long id) {
+            if (current != null && id <= lastId) {
+                if (id == lastId) {
+                    return;
+                }
+                throw new IllegalArgumentException("Ids must be added in ascending order: " + id + " after " + lastId);
+            }
+            long key = id >>> 16;
+            if (current == null || key != currentKey) {
+                current = new ArrayContainer();
+                currentKey = key;
+                bitmap.containers.put(key, current);
+            }
+            Container updated = current.add((char) id);
+            if (updated != current) {
+                bitmap.containers.put(key, updated);
+                current = updated;
+            }
+            bitmap.cardinality++;
+            lastId = id;
+        }
+
+        IdBitmap build() {
+            return bitmap;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Container'lar - add/remove gerekirse dönüştürülmüş yeni container döner.
+    // add zaten var olan değeri tekrar eklemez.
+    // ---------------------------------------------------------------
+
+    private interface Container {
+        boolean contains(char value);
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        int cardinality();
+
+        boolean forEachWhile(long base, LongPredicate action);
+
+        long sizeInBytes();
+    }
+
+    /**
+     * Seyrek blok - sıralı char dizisi
+     */
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            // id'ler çoğunlukla artan sırada gelir - sona ekleme ikili arama gerektirmez
+            int search = size == 0 || value > values[size - 1] ? -size - 1 : Arrays.binarySearch(values, 0, size, value);
+            if (search >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            int index = -search - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_MAX_SIZE));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return this;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public boolean forEachWhile(long base, LongPredicate action) {
+            for (int i = 0; i < size; i++) {
+                if (!action.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 2L * values.length;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Yoğun blok - 65536 bit
+     */
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            long word = words[value >>> 6];
+            long updated = word | (1L << value);
+            if (updated != word) {
+                words[value >>> 6] = updated;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            words[value >>> 6] &= ~(1L << value);
+            cardinality--;
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean forEachWhile(long base, LongPredicate action) {
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    if (!action.test(base | ((long) word << 6) | Long.numberOfTrailingZeros(bits))) {
+                        return false;
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 8L * BITMAP_WORDS;
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            forEachWhile(0, value -> {
+                array.add((char) value);
+                return true;
+            });
+            return array;
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package Others.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * In-Memory Repository Implementation
@@ -17,31 +24,152 @@ import java.util.stream.Collectors;
  * 4. Development ortamında (kolay setup)
  *
  * Dikkat:
- * - Veriler uygulama kapanınca kaybolur (persistent değil)
+ * - Varsayılan modda veriler uygulama kapanınca kaybolur (persistent değil)
  * - Thread-safe implementasyon için ConcurrentHashMap kullanılır
+ * - username ve email benzersiz indekslenir (UserKeyIndex), aramalar O(1)'dir
+ * - Aktif kullanıcı id'leri sıkıştırılmış bitmap'te tutulur (IdBitmap);
+ *   findAllActive ve countActive tüm tabloyu taramaz
+ * - fullName/username/email için arama indeksi (UserSearchIndex) tutulur;
+ *   searchUsers prefix için trie, substring için trigram kullanır
+ * - createdAt/updatedAt için skip list indeksi (UserTimeIndex) tutulur;
+ *   zaman aralığı ve "en yeni K" sorguları sadece sonucu gezer
+ * - id'ler ayrıca sıralı bir skip list'te tutulur; findPage sadece sayfayı gezer
+ * - bulkLoad boş repository'ye toplu yükleme yapar (UserBulkTransfer import'u);
+ *   indeksler satır satır değil, sonda bir kez kurulur
+ *
+ * Kalıcılık modu (isteğe bağlı - dizin verilerek açılır):
+ * - save / deleteById / deleteAll önce write-ahead log'a yazılır (group commit fsync)
+ * - Arka plandaki thread periyodik olarak snapshot alır ve eski log'u siler
+ * - Açılışta son snapshot yüklenir, ardından log'un kalanı replay edilir
+ * - Değişiklik bellekte hemen görünür, metod ise kayıt fsync edildikten sonra döner
+ *
+ * Sınıf final'dır: constructor recovery callback'lerini ve snapshot
+ * görevini kaydeder; alt sınıf alanları henüz atanmamışken çalışabilirlerdi.
  */
-public class InMemoryUserRepository implements IUserRepository {
+public final class InMemoryUserRepository implements IUserRepository, AutoCloseable {
+
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MS = 60_000;
 
     // Thread-safe map - birden fazla thread aynı anda erişebilir
     private final Map<Long, User> storage = new ConcurrentHashMap<>();
 
-    // Auto-increment ID için atomic counter
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    // username/email -> id benzersiz indeksleri
+    private final UserKeyIndex keyIndex = new UserKeyIndex();
+
+    // Aktif kullanıcıların id'leri - son kaydedilen active değerini yansıtır
+    private final IdBitmap activeIds = new IdBitmap();
+
+    // Type-ahead arama indeksi
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+
+    // createdAt/updatedAt sıralı indeksi
+    private final UserTimeIndex timeIndex = new UserTimeIndex();
+
+    // id'lerin sıralı indeksi - keyset pagination için (storage sırasız)
+    private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+
+    // Yazmalar (storage + indeksler) tek kilit altında atomik yapılır, okumalar kilitsizdir
+    private final Object writeLock = new Object();
+
+    // Yeni kullanıcılara id veren strateji (varsayılan: tek AtomicLong)
+    private final IdAllocator idAllocator;
+
+    // Kalıcılık modu - sadece dizin verildiğinde dolu (aksi halde null)
+    private final Path dataDirectory;
+    private final UserWriteAheadLog wal;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final Object snapshotLock = new Object();
+    private long lastRecoveryMs;
 
     /**
      * Constructor - İsteğe bağlı olarak başlangıç verileri eklenebilir
      */
     public InMemoryUserRepository() {
+        this(new AtomicIdAllocator());
+    }
+
+    /**
+     * Constructor - Özel id stratejisi ile (ör. çok thread'li kayıt için HiLoIdAllocator)
+     */
+    public InMemoryUserRepository(IdAllocator idAllocator) {
         // Boş başlatma
+        this.idAllocator = idAllocator;
+        this.dataDirectory = null;
+        this.wal = null;
+        this.snapshotScheduler = null;
     }
 
     /**
      * Constructor - Başlangıç verileri ile oluşturma
      */
     public InMemoryUserRepository(List<User> initialData) {
+        this();
         initialData.forEach(this::save);
     }
 
+    /**
+     * Constructor - Kalıcılık modu (varsayılan snapshot aralığı: 60 sn)
+     *
+     * @param dataDirectory Snapshot ve write-ahead log dosyalarının dizini
+     */
+    public InMemoryUserRepository(Path dataDirectory) {
+        this(dataDirectory, DEFAULT_SNAPSHOT_INTERVAL_MS);
+    }
+
+    /**
+     * Constructor - Kalıcılık modu
+     *
+     * Son snapshot'ı yükler, log'un kalanını replay eder ve yeni bir log
+     * segmenti açar.
+     *
+     * @param dataDirectory      Snapshot ve write-ahead log dosyalarının dizini
+     * @param snapshotIntervalMs Periyodik snapshot aralığı (0 veya negatif: sadece manuel snapshot())
+     */
+    public InMemoryUserRepository(Path dataDirectory, long snapshotIntervalMs) {
+        this(dataDirectory, snapshotIntervalMs, new AtomicIdAllocator());
+    }
+
+    /**
+     * Constructor - Kalıcılık modu, özel id stratejisi ile
+     *
+     * Recovery sonrası allocator, snapshot'taki ve log'daki en büyük id'nin
+     * ötesine ilerletilir.
+     *
+     * @param dataDirectory      Snapshot ve write-ahead log dosyalarının dizini
+     * @param snapshotIntervalMs Periyodik snapshot aralığı (0 veya negatif: sadece manuel snapshot())
+     * @param idAllocator        Yeni kullanıcılara id veren strateji
+     */
+    public InMemoryUserRepository(Path dataDirectory, long snapshotIntervalMs, IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+        this.dataDirectory = dataDirectory;
+        try {
+            long start = System.nanoTime();
+            UserWriteAheadLog.Recovery recovery = UserWriteAheadLog.recover(
+                    dataDirectory, this::applySave, this::applyDelete, this::applyDeleteAll);
+            long maxId = storage.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+            idAllocator.advanceTo(Math.max(recovery.nextId, maxId + 1));
+            this.wal = new UserWriteAheadLog(dataDirectory, recovery.nextGeneration);
+            lastRecoveryMs = (System.nanoTime() - start) / 1_000_000;
+            log("Recovered " + storage.size() + " users (" + recovery.replayedRecords +
+                    " records) from " + dataDirectory + " in " + lastRecoveryMs + "ms");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover user store from " + dataDirectory, e);
+        }
+
+        // Zamanlayıcı en son başlatılır - görev tüm alanlar atandıktan sonra kaydedilir
+        if (snapshotIntervalMs > 0) {
+            this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "user-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot,
+                    snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotScheduler = null;
+        }
+    }
+
     @Override
     public Optional<User> findById(Long id) {
         log("Finding user by ID: " + id);
@@ -51,17 +179,13 @@ public class InMemoryUserRepository implements IUserRepository {
     @Override
     public Optional<User> findByUsername(String username) {
         log("Finding user by username: " + username);
-        return storage.values().stream()
-                .filter(user -> user.getUsername().equals(username))
-                .findFirst();
+        return keyIndex.idByUsername(username).map(storage::get);
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
         log("Finding user by email: " + email);
-        return storage.values().stream()
-                .filter(user -> user.getEmail().equals(email))
-                .findFirst();
+        return keyIndex.idByEmail(email).map(storage::get);
     }
 
     @Override
@@ -73,30 +197,143 @@ public class InMemoryUserRepository implements IUserRepository {
     @Override
     public List<User> findAllActive() {
         log("Finding all active users");
-        return storage.values().stream()
-                .filter(User::isActive)
-                .collect(Collectors.toList());
+        long[] ids = activeIds.toArray();
+        List<User> users = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            User user = storage.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        log("Streaming all users");
+        return storage.values().stream();
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        log("Searching users: " + query);
+        List<User> users = new ArrayList<>();
+        for (Long id : searchIndex.search(query, limit)) {
+            User user = storage.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        log("Finding users created between " + from + " and " + to);
+        return lookupAll(timeIndex.createdBetween(from, to));
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        log("Finding users updated between " + from + " and " + to);
+        return lookupAll(timeIndex.updatedBetween(from, to));
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        log("Finding " + limit + " newest users");
+        return lookupAll(timeIndex.newestCreated(limit));
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        log("Finding " + limit + " recently updated users");
+        return lookupAll(timeIndex.newestUpdated(limit));
+    }
+
+    /**
+     * Sayfa sıralı id indeksinden okunur: afterId'ye O(log n) ile
+     * konumlanılır, sadece sayfadaki limit id gezilir
+     */
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        log("Finding page after ID " + afterId + " (limit " + limit + ")");
+        List<User> page = new ArrayList<>(limit);
+        for (Long id : orderedIds.tailSet(afterId, false)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            User user = storage.get(id);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
     }
 
     @Override
     public User save(User user) {
-        if (user.getId() == null) {
-            // Yeni kayıt - ID ata
-            user.setId(idGenerator.getAndIncrement());
-            log("Creating new user with ID: " + user.getId());
-        } else {
-            // Güncelleme
-            log("Updating user with ID: " + user.getId());
+        long ticket;
+        synchronized (writeLock) {
+            // Benzersizlik ihlali varsa ID atanmadan önce reddet
+            keyIndex.checkUnique(user);
+
+            if (user.getId() == null) {
+                // Yeni kayıt - ID ata
+                user.setId(idAllocator.nextId());
+                log("Creating new user with ID: " + user.getId());
+            } else {
+                // Güncelleme
+                log("Updating user with ID: " + user.getId());
+            }
+            user.setVersion(storedVersion(user.getId()) + 1);
+
+            ticket = logSave(user);
+            applySave(user);
         }
+        awaitDurable(ticket);
+        return user;
+    }
 
-        storage.put(user.getId(), user);
+    /**
+     * Sürüm kontrolü save ile aynı kısa yazma kilidi içinde yapılır;
+     * çağıranın okuma-değiştirme adımı boyunca kilit tutulmaz
+     */
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
+        }
+        log("Updating user with ID: " + user.getId() + " (expected version " + expectedVersion + ")");
+        long ticket;
+        synchronized (writeLock) {
+            long currentVersion = storage.containsKey(user.getId()) ? storedVersion(user.getId()) : -1;
+            if (currentVersion != expectedVersion) {
+                throw new OptimisticLockException(user.getId(), expectedVersion, currentVersion);
+            }
+            keyIndex.checkUnique(user);
+            user.setVersion(expectedVersion + 1);
+            ticket = logSave(user);
+            applySave(user);
+        }
+        awaitDurable(ticket);
         return user;
     }
 
     @Override
     public boolean deleteById(Long id) {
         log("Deleting user by ID: " + id);
-        return storage.remove(id) != null;
+        long ticket;
+        boolean removed;
+        synchronized (writeLock) {
+            if (!storage.containsKey(id)) {
+                return false;
+            }
+            ticket = logChange(UserWriteAheadLog.encodeDelete(id));
+            removed = applyDelete(id);
+        }
+        awaitDurable(ticket);
+        return removed;
     }
 
     @Override
@@ -114,8 +351,7 @@ public class InMemoryUserRepository implements IUserRepository {
 
     @Override
     public boolean existsByUsername(String username) {
-        return storage.values().stream()
-                .anyMatch(user -> user.getUsername().equals(username));
+        return keyIndex.containsUsername(username);
     }
 
     @Override
@@ -123,10 +359,267 @@ public class InMemoryUserRepository implements IUserRepository {
         return storage.size();
     }
 
+    @Override
+    public long countActive() {
+        return activeIds.cardinality();
+    }
+
     @Override
     public void deleteAll() {
         log("Deleting all users");
+        long ticket;
+        synchronized (writeLock) {
+            ticket = logChange(UserWriteAheadLog.encodeDeleteAll());
+            applyDeleteAll();
+        }
+        awaitDurable(ticket);
+    }
+
+    /**
+     * Toplu kayıt - tek kilit, tek geçiş
+     *
+     * Tüm batch önce benzersizlik için kontrol edilir (ya hepsi ya hiçbiri),
+     * sonra tek seferde uygulanır. Kalıcılık modunda tüm kayıtlar aynı
+     * group commit'e girer.
+     */
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        log("Saving batch of " + users.size() + " users");
+        long ticket = 0;
+        synchronized (writeLock) {
+            keyIndex.checkUnique(users);
+            for (User user : users) {
+                if (user.getId() == null) {
+                    user.setId(idAllocator.nextId());
+                }
+                user.setVersion(storedVersion(user.getId()) + 1);
+                ticket = logSave(user);
+                applySave(user);
+            }
+        }
+        awaitDurable(ticket);
+        return new ArrayList<>(users);
+    }
+
+    /**
+     * Toplu yükleme (import) - boş repository'ye, satır başına maliyet olmadan
+     *
+     * Kullanıcılar id ve sürümleri korunarak doğrudan storage'a yazılır.
+     * İndeksler satır satır güncellenmez, yükleme sonunda bir kez kurulur.
+     * username/email veya id çakışmasında hiçbir şey yüklenmez. Kalıcılık
+     * modunda kayıtlar log'a tek tek yazılmaz; yükleme bitince snapshot alınır.
+     *
+     * @throws IllegalStateException    Repository boş değilse veya username/email çakışıyorsa
+     * @throws IllegalArgumentException id'si olmayan veya tekrarlanan kullanıcı varsa
+     */
+    public void bulkLoad(Collection<User> users) {
+        log("Bulk loading " + users.size() + " users");
+        synchronized (writeLock) {
+            if (!storage.isEmpty()) {
+                throw new IllegalStateException("Bulk load requires an empty repository");
+            }
+            long maxId = 0;
+            try {
+                for (User user : users) {
+                    if (user.getId() == null) {
+                        throw new IllegalArgumentException("Bulk load requires user IDs");
+                    }
+                    if (storage.putIfAbsent(user.getId(), user) != null) {
+                        throw new IllegalArgumentException("Duplicate user ID in bulk load: " + user.getId());
+                    }
+                    maxId = Math.max(maxId, user.getId());
+                }
+                keyIndex.indexAll(users);
+            } catch (RuntimeException e) {
+                applyDeleteAll();
+                throw e;
+            }
+            for (User user : users) {
+                if (user.isActive()) {
+                    activeIds.add(user.getId());
+                }
+            }
+            searchIndex.indexAll(users);
+            timeIndex.indexAll(users);
+            for (User user : users) {
+                orderedIds.add(user.getId());
+            }
+            idAllocator.advanceTo(maxId + 1);
+        }
+        if (wal != null) {
+            snapshot();
+        }
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        log("Finding " + ids.size() + " users by ID");
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = storage.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        log("Deleting " + ids.size() + " users by ID");
+        long ticket = 0;
+        int deleted = 0;
+        synchronized (writeLock) {
+            for (Long id : ids) {
+                if (storage.containsKey(id)) {
+                    ticket = logChange(UserWriteAheadLog.encodeDelete(id));
+                    applyDelete(id);
+                    deleted++;
+                }
+            }
+        }
+        awaitDurable(ticket);
+        return deleted;
+    }
+
+    /**
+     * Tüm kullanıcıların snapshot'ını alır ve snapshot'ın kapsadığı log'u siler
+     *
+     * Yazma kilidi sadece kullanıcı listesi kopyalanıp log segmenti
+     * değiştirilirken tutulur; snapshot dosyası kilit dışında yazılır.
+     */
+    public void snapshot() {
+        if (wal == null) {
+            throw new IllegalStateException("Durability is not enabled for this repository");
+        }
+        synchronized (snapshotLock) {
+            List<User> users;
+            long nextId;
+            long generation;
+            try {
+                synchronized (writeLock) {
+                    users = new ArrayList<>(storage.values());
+                    nextId = idAllocator.highWaterMark();
+                    generation = wal.rotate();
+                }
+                UserWriteAheadLog.writeSnapshot(dataDirectory, generation, nextId, users);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write snapshot to " + dataDirectory, e);
+            }
+            log("Snapshot written: " + users.size() + " users, log truncated before segment " + generation);
+        }
+    }
+
+    /**
+     * Log'u kapatır (bekleyen kayıtlar fsync edilir) ve snapshot thread'ini durdurur
+     */
+    @Override
+    public void close() {
+        if (wal == null) {
+            return;
+        }
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+            try {
+                snapshotScheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close write-ahead log in " + dataDirectory, e);
+        }
+        log("Closed durable store " + dataDirectory);
+    }
+
+    /**
+     * Son açılıştaki recovery süresi (ms) - kalıcılık modu kapalıysa 0
+     */
+    public long getLastRecoveryMs() {
+        return lastRecoveryMs;
+    }
+
+    /**
+     * Log'a eklenen kayıt sayısı ve yapılan fsync sayısı - group commit oranını gösterir
+     */
+    public long getLoggedRecords() {
+        return wal == null ? 0 : wal.getAppendedRecords();
+    }
+
+    public long getLogSyncCount() {
+        return wal == null ? 0 : wal.getSyncCount();
+    }
+
+    // Saklanan sürüm (kayıt yoksa 0) - yazma kilidi altında çağrılır
+    private long storedVersion(Long id) {
+        User stored = storage.get(id);
+        return stored == null ? 0 : stored.getVersion();
+    }
+
+    // Değişikliği storage ve indekslere uygular (save ve recovery ortak yolu)
+    private void applySave(User user) {
+        storage.put(user.getId(), user);
+        keyIndex.index(user);
+        activeIds.set(user.getId(), user.isActive());
+        searchIndex.index(user);
+        timeIndex.index(user);
+        orderedIds.add(user.getId());
+    }
+
+    private boolean applyDelete(Long id) {
+        keyIndex.remove(id);
+        activeIds.remove(id);
+        searchIndex.remove(id);
+        timeIndex.remove(id);
+        orderedIds.remove(id);
+        return storage.remove(id) != null;
+    }
+
+    private void applyDeleteAll() {
         storage.clear();
+        keyIndex.clear();
+        activeIds.clear();
+        searchIndex.clear();
+        timeIndex.clear();
+        orderedIds.clear();
+    }
+
+    // İndeksten gelen id'leri kullanıcılara çevirir (arada silinenler atlanır)
+    private List<User> lookupAll(List<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = storage.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    // Kalıcılık modunda kaydı log'a ekler; dönen ticket awaitDurable ile beklenir
+    private long logChange(byte[] record) {
+        return wal == null ? 0 : wal.append(record);
+    }
+
+    // Save kaydı sadece kalıcılık modunda kodlanır (bellek modunda encode maliyeti yok)
+    private long logSave(User user) {
+        return wal == null ? 0 : wal.append(UserWriteAheadLog.encodeSave(user));
+    }
+
+    private void awaitDurable(long ticket) {
+        if (wal != null) {
+            wal.awaitDurable(ticket);
+        }
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log("Snapshot failed: " + e.getMessage());
+        }
     }
 
     /**
@@ -142,8 +635,12 @@ public class InMemoryUserRepository implements IUserRepository {
     public void printStatus() {
         System.out.println("\n=== Repository Status ===");
         System.out.println("Total users: " + count());
-        System.out.println("Active users: " + findAllActive().size());
-        System.out.println("Next ID: " + idGenerator.get());
+        System.out.println("Active users: " + countActive() + " (bitmap " + activeIds.sizeInBytes() + " bytes)");
+        System.out.println("Next ID: " + idAllocator.highWaterMark());
+        if (wal != null) {
+            System.out.println("Data directory: " + dataDirectory);
+            System.out.println("Logged records: " + getLoggedRecords() + " (fsyncs: " + getLogSyncCount() + ")");
+        }
         System.out.println("========================\n");
     }
 }
@@ -0,0 +1,643 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Instrumented Repository (Decorator)
+ *
+ * Herhangi bir IUserRepository'yi sarar ve her metod için ayrı ölçüm tutar:
+ * - Gecikme histogramı (LatencyHistogram - log-linear kovalar, p50/p99/p999)
+ * - Çağrı sayısı ve throughput (ops/s)
+ * - Hata sayısı (delegate'in fırlattığı RuntimeException'lar; hata süresi
+ *   de histograma girer)
+ *
+ * Kullanım:
+ *   InstrumentedUserRepository repo = new InstrumentedUserRepository(new DatabaseUserRepository());
+ *   UserService service = new UserService(repo);
+ *   ...
+ *   repo.snapshot().get("findById").getP99Nanos();
+ *   repo.startPeriodicDump(10_000);   // 10 sn'de bir tablo yazdırır
+ *
+ * Varsayılan olarak her çağrının süresi ölçülür: kayıt maliyeti çağrı
+ * başına iki System.nanoTime() ve bir histogram kaydıdır (~95 ns); kilit
+ * veya allocation yoktur. Her metodun ölçümü ayrı bir alanda tutulduğu
+ * için kayıt sırasında map araması da yapılmaz.
+ *
+ * nanoTime'ın pahalı olduğu ortamlarda (bazı VM'lerde ~40 ns) sampleEvery
+ * ile sadece her N çağrıdan birinin süresi ölçülebilir. Çağrı ve hata
+ * sayıları yine her çağrıda tam sayılır; ortalama, percentile'lar ve max
+ * ise örneklerden gelen tahminlerdir - nadir uç değerler kaçabilir.
+ * MethodStats.isSampled() ve tablo çıktısındaki "~" bunu belirtir.
+ *
+ * Not: streamAll sadece Stream'in açılma süresini ölçer, tüketilmesini değil.
+ */
+public class InstrumentedUserRepository implements IUserRepository, AutoCloseable {
+
+    // Ölçülmeyen (örneklemeye girmeyen) çağrının start değeri
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final IUserRepository delegate;
+    private final int sampleEvery;
+
+    // Metod adı -> ölçüm, interface'teki sırayla
+    private final Map<String, MethodMetrics> metrics = new LinkedHashMap<>();
+
+    private final MethodMetrics findById = register("findById");
+    private final MethodMetrics findByUsername = register("findByUsername");
+    private final MethodMetrics findByEmail = register("findByEmail");
+    private final MethodMetrics findAll = register("findAll");
+    private final MethodMetrics findAllActive = register("findAllActive");
+    private final MethodMetrics save = register("save");
+    private final MethodMetrics deleteById = register("deleteById");
+    private final MethodMetrics delete = register("delete");
+    private final MethodMetrics existsById = register("existsById");
+    private final MethodMetrics existsByUsername = register("existsByUsername");
+    private final MethodMetrics count = register("count");
+    private final MethodMetrics deleteAll = register("deleteAll");
+    private final MethodMetrics countActive = register("countActive");
+    private final MethodMetrics streamAll = register("streamAll");
+    private final MethodMetrics findPage = register("findPage");
+    private final MethodMetrics searchUsers = register("searchUsers");
+    private final MethodMetrics saveIfVersion = register("saveIfVersion");
+    private final MethodMetrics saveAll = register("saveAll");
+    private final MethodMetrics findAllById = register("findAllById");
+    private final MethodMetrics deleteAllById = register("deleteAllById");
+    private final MethodMetrics findCreatedBetween = register("findCreatedBetween");
+    private final MethodMetrics findUpdatedBetween = register("findUpdatedBetween");
+    private final MethodMetrics findNewest = register("findNewest");
+    private final MethodMetrics findRecentlyUpdated = register("findRecentlyUpdated");
+
+    // Throughput bu andan (veya son reset'ten) itibaren hesaplanır
+    private volatile long startNanos = System.nanoTime();
+
+    private ScheduledExecutorService dumpScheduler;
+
+    /**
+     * Constructor - her çağrının süresi ölçülür
+     */
+    public InstrumentedUserRepository(IUserRepository delegate) {
+        this(delegate, 1);
+    }
+
+    /**
+     * @param delegate    Ölçülecek repository
+     * @param sampleEvery Ortalama her kaç çağrıdan birinin süresi ölçülür (1 = hepsi)
+     */
+    public InstrumentedUserRepository(IUserRepository delegate, int sampleEvery) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be at least 1");
+        }
+        this.delegate = delegate;
+        this.sampleEvery = sampleEvery;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        long start = findById.start();
+        try {
+            return delegate.findById(id);
+        } catch (RuntimeException e) {
+            findById.errors.increment();
+            throw e;
+        } finally {
+            findById.stop(start);
+        }
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        long start = findByUsername.start();
+        try {
+            return delegate.findByUsername(username);
+        } catch (RuntimeException e) {
+            findByUsername.errors.increment();
+            throw e;
+        } finally {
+            findByUsername.stop(start);
+        }
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        long start = findByEmail.start();
+        try {
+            return delegate.findByEmail(email);
+        } catch (RuntimeException e) {
+            findByEmail.errors.increment();
+            throw e;
+        } finally {
+            findByEmail.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        long start = findAll.start();
+        try {
+            return delegate.findAll();
+        } catch (RuntimeException e) {
+            findAll.errors.increment();
+            throw e;
+        } finally {
+            findAll.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        long start = findAllActive.start();
+        try {
+            return delegate.findAllActive();
+        } catch (RuntimeException e) {
+            findAllActive.errors.increment();
+            throw e;
+        } finally {
+            findAllActive.stop(start);
+        }
+    }
+
+    @Override
+    public User save(User user) {
+        long start = save.start();
+        try {
+            return delegate.save(user);
+        } catch (RuntimeException e) {
+            save.errors.increment();
+            throw e;
+        } finally {
+            save.stop(start);
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        long start = deleteById.start();
+        try {
+            return delegate.deleteById(id);
+        } catch (RuntimeException e) {
+            deleteById.errors.increment();
+            throw e;
+        } finally {
+            deleteById.stop(start);
+        }
+    }
+
+    @Override
+    public boolean delete(User user) {
+        long start = delete.start();
+        try {
+            return delegate.delete(user);
+        } catch (RuntimeException e) {
+            delete.errors.increment();
+            throw e;
+        } finally {
+            delete.stop(start);
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        long start = existsById.start();
+        try {
+            return delegate.existsById(id);
+        } catch (RuntimeException e) {
+            existsById.errors.increment();
+            throw e;
+        } finally {
+            existsById.stop(start);
+        }
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        long start = existsByUsername.start();
+        try {
+            return delegate.existsByUsername(username);
+        } catch (RuntimeException e) {
+            existsByUsername.errors.increment();
+            throw e;
+        } finally {
+            existsByUsername.stop(start);
+        }
+    }
+
+    @Override
+    public long count() {
+        long start = count.start();
+        try {
+            return delegate.count();
+        } catch (RuntimeException e) {
+            count.errors.increment();
+            throw e;
+        } finally {
+            count.stop(start);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        long start = deleteAll.start();
+        try {
+            delegate.deleteAll();
+        } catch (RuntimeException e) {
+            deleteAll.errors.increment();
+            throw e;
+        } finally {
+            deleteAll.stop(start);
+        }
+    }
+
+    @Override
+    public long countActive() {
+        long start = countActive.start();
+        try {
+            return delegate.countActive();
+        } catch (RuntimeException e) {
+            countActive.errors.increment();
+            throw e;
+        } finally {
+            countActive.stop(start);
+        }
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        long start = streamAll.start();
+        try {
+            return delegate.streamAll();
+        } catch (RuntimeException e) {
+            streamAll.errors.increment();
+            throw e;
+        } finally {
+            streamAll.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        long start = findPage.start();
+        try {
+            return delegate.findPage(afterId, limit);
+        } catch (RuntimeException e) {
+            findPage.errors.increment();
+            throw e;
+        } finally {
+            findPage.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        long start = searchUsers.start();
+        try {
+            return delegate.searchUsers(query, limit);
+        } catch (RuntimeException e) {
+            searchUsers.errors.increment();
+            throw e;
+        } finally {
+            searchUsers.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        long start = findCreatedBetween.start();
+        try {
+            return delegate.findCreatedBetween(from, to);
+        } catch (RuntimeException e) {
+            findCreatedBetween.errors.increment();
+            throw e;
+        } finally {
+            findCreatedBetween.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        long start = findUpdatedBetween.start();
+        try {
+            return delegate.findUpdatedBetween(from, to);
+        } catch (RuntimeException e) {
+            findUpdatedBetween.errors.increment();
+            throw e;
+        } finally {
+            findUpdatedBetween.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findNewest(int limit) {
+        long start = findNewest.start();
+        try {
+            return delegate.findNewest(limit);
+        } catch (RuntimeException e) {
+            findNewest.errors.increment();
+            throw e;
+        } finally {
+            findNewest.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        long start = findRecentlyUpdated.start();
+        try {
+            return delegate.findRecentlyUpdated(limit);
+        } catch (RuntimeException e) {
+            findRecentlyUpdated.errors.increment();
+            throw e;
+        } finally {
+            findRecentlyUpdated.stop(start);
+        }
+    }
+
+    /**
+     * OptimisticLockException'lar da hata olarak sayılır - çakışma oranını gösterir
+     */
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        long start = saveIfVersion.start();
+        try {
+            return delegate.saveIfVersion(user, expectedVersion);
+        } catch (RuntimeException e) {
+            saveIfVersion.errors.increment();
+            throw e;
+        } finally {
+            saveIfVersion.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> saveAll(Collection<User> users) {
+        long start = saveAll.start();
+        try {
+            return delegate.saveAll(users);
+        } catch (RuntimeException e) {
+            saveAll.errors.increment();
+            throw e;
+        } finally {
+            saveAll.stop(start);
+        }
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        long start = findAllById.start();
+        try {
+            return delegate.findAllById(ids);
+        } catch (RuntimeException e) {
+            findAllById.errors.increment();
+            throw e;
+        } finally {
+            findAllById.stop(start);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        long start = deleteAllById.start();
+        try {
+            return delegate.deleteAllById(ids);
+        } catch (RuntimeException e) {
+            deleteAllById.errors.increment();
+            throw e;
+        } finally {
+            deleteAllById.stop(start);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Snapshot ve raporlama
+    // ---------------------------------------------------------------
+
+    /**
+     * Tüm metodların anlık istatistikleri (interface sırasıyla, çağrılmamışlar dahil)
+     */
+    public Map<String, MethodStats> snapshot() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Map<String, MethodStats> stats = new LinkedHashMap<>();
+        for (MethodMetrics metric : metrics.values()) {
+            stats.put(metric.name, new MethodStats(metric.name, metric.histogram.snapshot(),
+                    metric.calls.sum(), metric.errors.sum(), elapsedNanos, sampleEvery));
+        }
+        return stats;
+    }
+
+    /**
+     * Tek bir metodun istatistikleri
+     *
+     * @throws IllegalArgumentException Bilinmeyen metod adı
+     */
+    public MethodStats snapshot(String method) {
+        MethodMetrics metric = metrics.get(method);
+        if (metric == null) {
+            throw new IllegalArgumentException("Unknown repository method: " + method);
+        }
+        return new MethodStats(method, metric.histogram.snapshot(), metric.calls.sum(),
+                metric.errors.sum(), System.nanoTime() - startNanos, sampleEvery);
+    }
+
+    /**
+     * Tüm sayaçları ve histogramları sıfırlar (ör. warm-up sonrası)
+     */
+    public void reset() {
+        for (MethodMetrics metric : metrics.values()) {
+            metric.histogram.reset();
+            metric.calls.reset();
+            metric.errors.reset();
+        }
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Çağrılmış metodların tablo halinde özeti (süreler mikrosaniye)
+     *
+     * Örnekleme açıksa süre kolonları "~" ile işaretlenir (tahmin).
+     */
+    public String formatSnapshot() {
+        String estimate = sampleEvery > 1 ? "~" : "";
+        StringBuilder text = new StringBuilder();
+        if (sampleEvery > 1) {
+            text.append("~ sampled 1 in ").append(sampleEvery)
+                    .append(" calls: mean, percentiles and max are estimates\n");
+        }
+        text.append(String.format("%-17s %10s %7s %11s %9s %9s %9s %9s %9s%n",
+                "method", "calls", "errors", "ops/s", estimate + "mean µs", estimate + "p50 µs",
+                estimate + "p99 µs", estimate + "p999 µs", estimate + "max µs"));
+        for (MethodStats stats : snapshot().values()) {
+            if (stats.getCalls() == 0) {
+                continue;
+            }
+            text.append(String.format("%-17s %,10d %,7d %,11.0f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    stats.getMethod(), stats.getCalls(), stats.getErrors(), stats.getThroughput(),
+                    stats.getMeanNanos() / 1000.0, stats.getP50Nanos() / 1000.0, stats.getP99Nanos() / 1000.0,
+                    stats.getP999Nanos() / 1000.0, stats.getMaxNanos() / 1000.0));
+        }
+        return text.toString();
+    }
+
+    /**
+     * formatSnapshot tablosunu periyodik olarak System.out'a yazar
+     *
+     * @param intervalMs Yazdırma aralığı
+     */
+    public synchronized void startPeriodicDump(long intervalMs) {
+        if (dumpScheduler != null) {
+            throw new IllegalStateException("Periodic dump is already running");
+        }
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "repository-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpScheduler.scheduleAtFixedRate(this::printMetrics, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Periyodik yazdırmayı durdurur (delegate kapatılmaz)
+     */
+    @Override
+    public synchronized void close() {
+        if (dumpScheduler != null) {
+            dumpScheduler.shutdownNow();
+            dumpScheduler = null;
+        }
+    }
+
+    public void printMetrics() {
+        System.out.print("\n=== Repository Metrics (" + delegate.getClass().getSimpleName() + ") ===\n" +
+                formatSnapshot() + "\n");
+    }
+
+    private MethodMetrics register(String name) {
+        MethodMetrics metric = new MethodMetrics(name);
+        metrics.put(name, metric);
+        return metric;
+    }
+
+    private final class MethodMetrics {
+        final String name;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        MethodMetrics(String name) {
+            this.name = name;
+        }
+
+        // Örneklemeye giren çağrıda başlangıç zamanı, diğerlerinde NOT_SAMPLED
+        long start() {
+            if (sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0) {
+                return System.nanoTime();
+            }
+            return NOT_SAMPLED;
+        }
+
+        void stop(long startNanos) {
+            calls.increment();
+            if (startNanos != NOT_SAMPLED) {
+                histogram.record(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * Bir metodun değişmez istatistik kopyası
+     */
+    public static final class MethodStats {
+        private final String method;
+        private final LatencyHistogram.Snapshot histogram;
+        private final long calls;
+        private final long errors;
+        private final long elapsedNanos;
+        private final int sampleEvery;
+
+        private MethodStats(String method, LatencyHistogram.Snapshot histogram, long calls, long errors,
+                            long elapsedNanos, int sampleEvery) {
+            this.method = method;
+            this.histogram = histogram;
+            this.calls = calls;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.sampleEvery = sampleEvery;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        // Başarılı + hatalı tüm çağrılar
+        public long getCalls() {
+            return calls;
+        }
+
+        // Süresi ölçülen çağrılar (percentile'ların dayandığı örnek sayısı)
+        public long getSampledCalls() {
+            return histogram.getCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        // true ise ortalama, percentile'lar ve max örneklerden tahmindir (sampleEvery > 1)
+        public boolean isSampled() {
+            return sampleEvery > 1;
+        }
+
+        public int getSampleEvery() {
+            return sampleEvery;
+        }
+
+        // Ölçüm başlangıcından (veya reset'ten) bu yana saniyedeki çağrı
+        public double getThroughput() {
+            return elapsedNanos <= 0 ? 0 : getCalls() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public double getMeanNanos() {
+            return histogram.getMeanNanos();
+        }
+
+        public long getP50Nanos() {
+            return histogram.valueAtPercentile(50);
+        }
+
+        public long getP99Nanos() {
+            return histogram.valueAtPercentile(99);
+        }
+
+        public long getP999Nanos() {
+            return histogram.valueAtPercentile(99.9);
+        }
+
+        public long getMaxNanos() {
+            return histogram.getMaxNanos();
+        }
+
+        /**
+         * @param percentile 0-100 arası (ör. 99.99)
+         */
+        public long getPercentileNanos(double percentile) {
+            return histogram.valueAtPercentile(percentile);
+        }
+
+        @Override
+        public String toString() {
+            String estimate = isSampled() ? "~" : "";
+            return method + "{calls=" + getCalls() + ", errors=" + errors +
+                    ", p50=" + estimate + getP50Nanos() + "ns, p99=" + estimate + getP99Nanos() +
+                    "ns, p999=" + estimate + getP999Nanos() + "ns" +
+                    (isSampled() ? ", sampled 1/" + sampleEvery : "") + "}";
+        }
+    }
+}
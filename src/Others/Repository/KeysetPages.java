@@ -0,0 +1,61 @@
+package Others.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset pagination yardımcısı
+ *
+ * Sırasız bir kaynaktan (hash tablosu) "afterId'den büyük en küçük limit
+ * kayıt" sayfasını seçer. Tüm kayıtları sıralamak yerine limit boyutlu bir
+ * max-heap kullanır: O(n log limit) zaman, O(limit) bellek. Kaynak listeye
+ * kopyalanmaz.
+ *
+ * Sıralı bir indeksi olan kaynaklar (örn. primary key üzerinde B-tree /
+ * skip list) bu yardımcıya ihtiyaç duymaz, doğrudan aralık okuması yapar.
+ */
+final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    /**
+     * @param source  Sırasız kayıtlar
+     * @param key     Kaydın sıralama anahtarı (id)
+     * @param afterId Bu anahtardan büyük kayıtlar seçilir (hariç)
+     * @param limit   Sayfa boyutu
+     * @return Anahtara göre artan sırada en fazla limit kayıt
+     */
+    static <T> List<T> firstAfter(Iterator<T> source, ToLongFunction<T> key, long afterId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Page limit cannot be negative: " + limit);
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+
+        Comparator<T> byKey = Comparator.comparingLong(key);
+        PriorityQueue<T> largestOnTop = new PriorityQueue<>(limit, byKey.reversed());
+        while (source.hasNext()) {
+            T item = source.next();
+            long itemKey = key.applyAsLong(item);
+            if (itemKey <= afterId) {
+                continue;
+            }
+            if (largestOnTop.size() < limit) {
+                largestOnTop.add(item);
+            } else if (itemKey < key.applyAsLong(largestOnTop.peek())) {
+                largestOnTop.poll();
+                largestOnTop.add(item);
+            }
+        }
+
+        List<T> page = new ArrayList<>(largestOnTop);
+        page.sort(byKey);
+        return page;
+    }
+}
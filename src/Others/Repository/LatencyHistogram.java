@@ -0,0 +1,151 @@
+package Others.Repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear gecikme histogramı (HdrHistogram benzeri)
+ *
+ * Değerler (nanosaniye) ikinin kuvvetlerine göre üstel bloklara, her blok
+ * da 32 eşit alt kovaya bölünür. Böylece 1 ns'den ~18 dakikaya kadar her
+ * değer en fazla ~%3 bağıl hatayla sabit 1152 kovada tutulur:
+ *
+ * - 0..31 ns      : her değerin kendi kovası (tam)
+ * - [2^k, 2^(k+1)): 32 kova, her biri 2^(k-5) ns genişliğinde
+ *
+ * Kova indeksi numberOfLeadingZeros + kaydırma ile bulunur (döngü ve
+ * bölme yok). Kayıt: bir atomik kova artışı + max kontrolü; kilit ve
+ * allocation yoktur.
+ *
+ * Percentile'lar kovanın üst sınırı olarak raporlanır (gerçek değer en
+ * fazla bu kadardır). Ortalama, kayıt yolunu hafif tutmak için ayrı bir
+ * toplam yerine kova orta noktalarından hesaplanır.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    // Bu değerden büyük gecikmeler son kovaya yazılır (~18 dakika)
+    private static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        buckets.incrementAndGet(bucketIndex(value));
+        // Max nadiren değişir - CAS sadece yeni max'ta yapılır
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Kovaların tutarlı bir kopyası üzerinden istatistik
+     *
+     * Kayıtlar devam ederken alınabilir; kopya sırasında eklenen değerler
+     * bir sonraki snapshot'a kalabilir.
+     */
+    Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, maxNanos.get());
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        maxNanos.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        // (value >>> shift) 32..63 aralığındadır: üstteki 1 biti + 5 bit alt kova
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long lowestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+    }
+
+    // Kovanın içerdiği en büyük değer
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long mantissa = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Histogramın değişmez kopyası
+     */
+    static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.maxNanos = maxNanos;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getMaxNanos() {
+            return maxNanos;
+        }
+
+        // Kova orta noktalarının ağırlıklı ortalaması (~%1.5 hata)
+        double getMeanNanos() {
+            if (count == 0) {
+                return 0;
+            }
+            double total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    total += counts[i] * ((lowestValueInBucket(i) + highestValueInBucket(i)) / 2.0);
+                }
+            }
+            return total / count;
+        }
+
+        /**
+         * @param percentile 0-100 arası (ör. 99.9)
+         * @return değerlerin percentile kadarının altında kaldığı gecikme (ns)
+         */
+        long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueInBucket(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
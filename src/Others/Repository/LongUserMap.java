@@ -0,0 +1,247 @@
+package Others.Repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Primitive long anahtarlı, open-addressing (linear probing) hash tablosu
+ *
+ * ConcurrentHashMap<Long, User> her kayıt için bir Node, bir boxed Long ve
+ * bir pointer harcar. Bu tablo anahtarları doğrudan long[] içinde, değerleri
+ * User[] içinde tutar: kayıt başına ek nesne yoktur.
+ *
+ * Eşzamanlılık:
+ * - Okumalar kilitsizdir. Tablo volatile bir referansla yayınlanır, slotlar
+ *   VarHandle acquire/release ile okunup yazılır (önce değer, sonra anahtar).
+ * - Yazmalar tek bir monitor altında yapılır.
+ * - Silinen slotun anahtarı yerinde kalır, değeri null olur (tombstone).
+ *   Böylece kilitsiz okuyucunun probe zinciri asla kopmaz. Tombstone'lar
+ *   bir sonraki rehash'te temizlenir.
+ *
+ * 0 anahtarı "boş slot" işareti olduğu için ayrı bir alanda tutulur.
+ */
+class LongUserMap {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(User[].class);
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+    private static final float MAX_FILL = 0.7f;
+
+    private volatile Table table;
+    private volatile User zeroKeyValue;
+    private volatile int size;
+
+    // Dolu slot sayısı (canlı kayıtlar + tombstone'lar), sadece yazma kilidi altında
+    private int usedSlots;
+
+    LongUserMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongUserMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    User get(long key) {
+        if (key == EMPTY) {
+            return zeroKeyValue;
+        }
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long k = (long) KEYS.getAcquire(t.keys, index);
+            if (k == EMPTY) {
+                return null;
+            }
+            if (k == key) {
+                return (User) VALUES.getAcquire(t.values, index);
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    synchronized User put(long key, User value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        if (key == EMPTY) {
+            User previous = zeroKeyValue;
+            zeroKeyValue = value;
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long k = t.keys[index];
+            if (k == key) {
+                User previous = t.values[index];
+                VALUES.setRelease(t.values, index, value);
+                if (previous == null) {
+                    size++;
+                }
+                return previous;
+            }
+            if (k == EMPTY) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Yeni slot - önce değer, sonra anahtar yayınlanır
+        VALUES.setRelease(t.values, index, value);
+        KEYS.setRelease(t.keys, index, key);
+        usedSlots++;
+        size++;
+
+        if (usedSlots > t.keys.length * MAX_FILL) {
+            rehash();
+        }
+        return null;
+    }
+
+    synchronized User remove(long key) {
+        if (key == EMPTY) {
+            User previous = zeroKeyValue;
+            zeroKeyValue = null;
+            if (previous != null) {
+                size--;
+            }
+            return previous;
+        }
+
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long k = t.keys[index];
+            if (k == EMPTY) {
+                return null;
+            }
+            if (k == key) {
+                User previous = t.values[index];
+                if (previous != null) {
+                    // Anahtar tombstone olarak kalır
+                    VALUES.setRelease(t.values, index, null);
+                    size--;
+                }
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    synchronized void clear() {
+        table = new Table(MIN_CAPACITY);
+        zeroKeyValue = null;
+        usedSlots = 0;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Canlı değerleri gezer. Eşzamanlı yazmalara karşı zayıf tutarlıdır
+     * (ConcurrentHashMap iterator'ları gibi).
+     */
+    void forEachValue(Consumer<User> action) {
+        User zero = zeroKeyValue;
+        if (zero != null) {
+            action.accept(zero);
+        }
+        Table t = table;
+        for (int i = 0; i < t.values.length; i++) {
+            User value = (User) VALUES.getAcquire(t.values, i);
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Canlı değerlerin lazy stream'i - o anki tablo üzerinde, kopyalamadan
+     */
+    Stream<User> values() {
+        User zero = zeroKeyValue;
+        Table t = table;
+        Stream<User> slots = IntStream.range(0, t.values.length)
+                .mapToObj(i -> (User) VALUES.getAcquire(t.values, i))
+                .filter(value -> value != null);
+        return zero == null ? slots : Stream.concat(Stream.of(zero), slots);
+    }
+
+    int capacity() {
+        return table.keys.length;
+    }
+
+    /**
+     * Canlı kayıtları yeni bir tabloya taşır, tombstone'ları atar.
+     * Yeni kapasite canlı kayıt sayısının iki katına göre seçilir: çoğunlukla
+     * ekleme yapılıyorsa tablo büyür, çoğunlukla silme yapıldıysa küçülür.
+     */
+    private void rehash() {
+        Table old = table;
+        int liveInTable = size - (zeroKeyValue != null ? 1 : 0);
+        Table fresh = new Table(capacityFor(Math.max(liveInTable * 2, MIN_CAPACITY)));
+
+        int mask = fresh.keys.length - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            User value = old.values[i];
+            if (value == null) {
+                continue;
+            }
+            long key = old.keys[i];
+            int index = hash(key) & mask;
+            while (fresh.keys[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            fresh.keys[index] = key;
+            fresh.values[index] = value;
+        }
+
+        usedSlots = liveInTable;
+        // volatile yazma - yeni tablo tamamen doldurulduktan sonra yayınlanır
+        table = fresh;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_FILL) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Fibonacci hashing - ardışık id'leri tabloya dağıtır
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final User[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new User[capacity];
+        }
+    }
+}
@@ -0,0 +1,602 @@
+package Others.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Memory-Mapped File Repository Implementation
+ *
+ * Kullanıcıları FileChannel.map ile belleğe eşlenmiş bir dosyada, sabit
+ * boyutlu kayıtlar halinde saklar. Değişken uzunluklu string'ler
+ * (username, email, fullName) ayrı bir "string heap" dosyasına yazılır;
+ * kayıt sadece (offset, length) referansını tutar.
+ *
+ * Dosyalar:
+ * - users.dat   : [header 64 byte][kayıt 64 byte]*
+ * - strings.dat : [header 16 byte][UTF-8 byte'lar]*
+ *
+ * Kayıt düzeni (64 byte):
+ *   0  id              long
+ *   8  flags           int   (bit0 = LIVE, bit1 = ACTIVE)
+ *   12 createdAt nano  int
+ *   16 createdAt sec   long  (UTC epoch second)
+ *   24 updatedAt sec   long
+ *   32 updatedAt nano  int
+ *   36 username        int offset, int length (-1 = null)
+ *   44 email           int offset, int length
+ *   52 fullName        int offset, int length
+ *   60 version         int   (unsigned, optimistic locking sürümü)
+ *
+ * Avantajları:
+ * - Restart'ta yeniden import yok: dosya map edilir, sadece sabit boyutlu
+ *   kayıtlar taranıp id -> slot ve username/email indeksleri kurulur
+ * - Okumalar doğrudan map edilmiş bellekten yapılır (ara kopya yok);
+ *   existsById, existsByUsername ve count hiç User nesnesi üretmez
+ *
+ * Dikkat:
+ * - Yazmalar page cache'e gider; diske kalıcılık için flush() veya close() çağrılmalı
+ * - Güncellenen string'lerin eski halleri heap'te kalır (compaction yok)
+ * - Dönen User nesneleri kopyadır; değişiklik için save() çağrılmalıdır
+ */
+public class MappedFileUserRepository implements IUserRepository, AutoCloseable {
+
+    private static final int DATA_MAGIC = 0x55535253;   // "USRS"
+    private static final int HEAP_MAGIC = 0x53545248;   // "STRH"
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int DATA_HEADER_SIZE = 64;
+    private static final int HEAP_HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 64;
+
+    // Header alanları
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_RECORD_COUNT = 8;
+    private static final int H_NEXT_ID = 16;
+    private static final int H_HEAP_END = 8;
+
+    // Kayıt alanları
+    private static final int R_ID = 0;
+    private static final int R_FLAGS = 8;
+    private static final int R_CREATED_NANO = 12;
+    private static final int R_CREATED_SEC = 16;
+    private static final int R_UPDATED_SEC = 24;
+    private static final int R_UPDATED_NANO = 32;
+    private static final int R_USERNAME = 36;
+    private static final int R_EMAIL = 44;
+    private static final int R_FULL_NAME = 52;
+    private static final int R_VERSION = 60;
+
+    private static final int FLAG_LIVE = 1;
+    private static final int FLAG_ACTIVE = 2;
+
+    private static final int INITIAL_RECORDS = 1024;
+    private static final int INITIAL_HEAP_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final FileChannel dataChannel;
+    private final FileChannel heapChannel;
+    private MappedByteBuffer data;
+    private MappedByteBuffer heap;
+
+    // id -> kayıt slotu (id sıralı - keyset pagination aralık okuması yapar)
+    // ve silinmiş (yeniden kullanılabilir) slotlar
+    private final ConcurrentNavigableMap<Long, Integer> slotById = new ConcurrentSkipListMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // username/email -> id benzersiz indeksleri
+    private final UserKeyIndex keyIndex = new UserKeyIndex();
+
+    // Okumalar paylaşımlı, yazmalar ve remap işlemleri özel kilit alır
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor - Dizindeki dosyaları açar, yoksa oluşturur
+     *
+     * @param directory users.dat ve strings.dat dosyalarının bulunduğu dizin
+     */
+    public MappedFileUserRepository(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.dataChannel = FileChannel.open(directory.resolve("users.dat"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.heapChannel = FileChannel.open(directory.resolve("strings.dat"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            boolean fresh = dataChannel.size() == 0;
+            data = map(dataChannel, Math.max(dataChannel.size(),
+                    DATA_HEADER_SIZE + (long) INITIAL_RECORDS * RECORD_SIZE));
+            heap = map(heapChannel, Math.max(heapChannel.size(), INITIAL_HEAP_BYTES));
+
+            if (fresh) {
+                initializeHeaders();
+            } else {
+                verifyHeaders();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open user store in " + directory, e);
+        }
+
+        long start = System.nanoTime();
+        int live = loadIndexes();
+        log("Opened " + directory + " with " + live + " users in " +
+                (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        log("Finding user by ID: " + id);
+        lock.readLock().lock();
+        try {
+            Integer slot = id == null ? null : slotById.get(id);
+            return slot == null ? Optional.empty() : Optional.of(readUser(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        log("Finding user by username: " + username);
+        return keyIndex.idByUsername(username).flatMap(this::readById);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        log("Finding user by email: " + email);
+        return keyIndex.idByEmail(email).flatMap(this::readById);
+    }
+
+    @Override
+    public List<User> findAll() {
+        log("Finding all users");
+        return scan(false);
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        log("Finding all active users");
+        return scan(true);
+    }
+
+    /**
+     * Kayıt slotlarını sırayla okur; her kullanıcı tüketildiği anda decode edilir
+     */
+    @Override
+    public Stream<User> streamAll() {
+        log("Streaming all users");
+        int recordCount;
+        lock.readLock().lock();
+        try {
+            recordCount = data.getInt(H_RECORD_COUNT);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IntStream.range(0, recordCount)
+                .mapToObj(this::readLiveSlot)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Sayfa sıralı id -> slot map'inden okunur, sadece sayfadaki kayıtlar decode edilir
+     */
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        log("Finding page after ID " + afterId + " (limit " + limit + ")");
+        List<User> page = new ArrayList<>(limit);
+        for (Long id : slotById.tailMap(afterId, false).keySet()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            readById(id).ifPresent(page::add);
+        }
+        return page;
+    }
+
+    @Override
+    public User save(User user) {
+        lock.writeLock().lock();
+        try {
+            keyIndex.checkUnique(user);
+
+            Integer slot = null;
+            if (user.getId() == null) {
+                long id = data.getLong(H_NEXT_ID);
+                data.putLong(H_NEXT_ID, id + 1);
+                user.setId(id);
+                log("Creating new user with ID: " + id);
+            } else {
+                slot = slotById.get(user.getId());
+                if (user.getId() >= data.getLong(H_NEXT_ID)) {
+                    data.putLong(H_NEXT_ID, user.getId() + 1);
+                }
+                log((slot == null ? "Inserting" : "Updating") + " user with ID: " + user.getId());
+            }
+
+            boolean existing = slot != null;
+            if (!existing) {
+                slot = allocateSlot();
+                user.setVersion(1);
+            } else {
+                user.setVersion(readVersion(slot) + 1);
+            }
+            writeUser(slot, user, existing);
+            slotById.put(user.getId(), slot);
+            keyIndex.index(user);
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
+        }
+        log("Updating user with ID: " + user.getId() + " (expected version " + expectedVersion + ")");
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(user.getId());
+            long currentVersion = slot == null ? -1 : readVersion(slot);
+            if (currentVersion != expectedVersion) {
+                throw new OptimisticLockException(user.getId(), expectedVersion, currentVersion);
+            }
+            keyIndex.checkUnique(user);
+            user.setVersion(expectedVersion + 1);
+            writeUser(slot, user, true);
+            keyIndex.index(user);
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        log("Deleting user by ID: " + id);
+        lock.writeLock().lock();
+        try {
+            Integer slot = id == null ? null : slotById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            keyIndex.remove(id);
+            data.putInt(recordOffset(slot) + R_FLAGS, 0);
+            freeSlots.push(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && slotById.containsKey(id);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return keyIndex.containsUsername(username);
+    }
+
+    @Override
+    public long count() {
+        return slotById.size();
+    }
+
+    @Override
+    public void deleteAll() {
+        log("Deleting all users");
+        lock.writeLock().lock();
+        try {
+            // nextId korunur - silinen id'ler tekrar verilmez
+            data.putInt(H_RECORD_COUNT, 0);
+            heap.putLong(H_HEAP_END, HEAP_HEADER_SIZE);
+            slotById.clear();
+            freeSlots.clear();
+            keyIndex.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Map edilmiş sayfaları diske yazar
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            data.force();
+            heap.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            dataChannel.close();
+            heapChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close user store in " + directory, e);
+        }
+        log("Closed " + directory);
+    }
+
+    // ---------------------------------------------------------------
+    // Kayıt okuma / yazma
+    // ---------------------------------------------------------------
+
+    private Optional<User> readById(Long id) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            return slot == null ? Optional.empty() : Optional.of(readUser(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private User readLiveSlot(int slot) {
+        lock.readLock().lock();
+        try {
+            if (slot >= data.getInt(H_RECORD_COUNT)
+                    || (data.getInt(recordOffset(slot) + R_FLAGS) & FLAG_LIVE) == 0) {
+                return null;
+            }
+            return readUser(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<User> scan(boolean activeOnly) {
+        lock.readLock().lock();
+        try {
+            int recordCount = data.getInt(H_RECORD_COUNT);
+            List<User> users = new ArrayList<>();
+            for (int slot = 0; slot < recordCount; slot++) {
+                int flags = data.getInt(recordOffset(slot) + R_FLAGS);
+                if ((flags & FLAG_LIVE) == 0 || (activeOnly && (flags & FLAG_ACTIVE) == 0)) {
+                    continue;
+                }
+                users.add(readUser(slot));
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private User readUser(int slot) {
+        int base = recordOffset(slot);
+        User user = new User(data.getLong(base + R_ID),
+                readString(base + R_USERNAME),
+                readString(base + R_EMAIL),
+                readString(base + R_FULL_NAME));
+        user.setActive((data.getInt(base + R_FLAGS) & FLAG_ACTIVE) != 0);
+        user.setCreatedAt(readTime(base + R_CREATED_SEC, base + R_CREATED_NANO));
+        user.setUpdatedAt(readTime(base + R_UPDATED_SEC, base + R_UPDATED_NANO));
+        user.setVersion(readVersion(slot));
+        return user;
+    }
+
+    private long readVersion(int slot) {
+        return Integer.toUnsignedLong(data.getInt(recordOffset(slot) + R_VERSION));
+    }
+
+    /**
+     * @param existing Slot bu kullanıcının canlı kaydı mı - sadece o zaman
+     *                 eski string referansları geçerlidir. Yeni ayrılan
+     *                 slot'un flag'ine bakılmaz: deleteAll sonrası kayıt
+     *                 sayısının ötesindeki slot'lar eski LIVE flag'ini ve
+     *                 artık geçersiz heap referanslarını taşır
+     */
+    private void writeUser(int slot, User user, boolean existing) {
+        int base = recordOffset(slot);
+
+        // Değişmeyen string'ler heap'e tekrar yazılmaz
+        writeString(base + R_USERNAME, user.getUsername(), existing);
+        writeString(base + R_EMAIL, user.getEmail(), existing);
+        writeString(base + R_FULL_NAME, user.getFullName(), existing);
+
+        data.putLong(base + R_ID, user.getId());
+        writeTime(base + R_CREATED_SEC, base + R_CREATED_NANO, user.getCreatedAt());
+        writeTime(base + R_UPDATED_SEC, base + R_UPDATED_NANO, user.getUpdatedAt());
+        data.putInt(base + R_VERSION, (int) user.getVersion());
+        // flags en son yazılır - kayıt ancak tamamlandığında LIVE olur
+        data.putInt(base + R_FLAGS, FLAG_LIVE | (user.isActive() ? FLAG_ACTIVE : 0));
+    }
+
+    private String readString(int refOffset) {
+        int length = data.getInt(refOffset + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        heap.get(data.getInt(refOffset), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeString(int refOffset, String value, boolean existing) {
+        if (value == null) {
+            data.putInt(refOffset, 0);
+            data.putInt(refOffset + 4, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (existing && sameBytes(refOffset, bytes)) {
+            return;
+        }
+
+        long end = heap.getLong(H_HEAP_END);
+        long newEnd = end + bytes.length;
+        if (newEnd > Integer.MAX_VALUE) {
+            throw new IllegalStateException("String heap is full: " + directory);
+        }
+        ensureHeapCapacity(newEnd);
+        heap.put((int) end, bytes);
+        heap.putLong(H_HEAP_END, newEnd);
+
+        data.putInt(refOffset, (int) end);
+        data.putInt(refOffset + 4, bytes.length);
+    }
+
+    private boolean sameBytes(int refOffset, byte[] bytes) {
+        if (data.getInt(refOffset + 4) != bytes.length) {
+            return false;
+        }
+        int offset = data.getInt(refOffset);
+        for (int i = 0; i < bytes.length; i++) {
+            if (heap.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LocalDateTime readTime(int secOffset, int nanoOffset) {
+        return LocalDateTime.ofEpochSecond(data.getLong(secOffset), data.getInt(nanoOffset), ZoneOffset.UTC);
+    }
+
+    private void writeTime(int secOffset, int nanoOffset, LocalDateTime time) {
+        data.putLong(secOffset, time.toEpochSecond(ZoneOffset.UTC));
+        data.putInt(nanoOffset, time.getNano());
+    }
+
+    // ---------------------------------------------------------------
+    // Slot ve dosya yönetimi
+    // ---------------------------------------------------------------
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        int slot = data.getInt(H_RECORD_COUNT);
+        long needed = DATA_HEADER_SIZE + (long) (slot + 1) * RECORD_SIZE;
+        if (needed > data.capacity()) {
+            data = remap(dataChannel, data, needed);
+        }
+        // deleteAll sonrası slot eski bir kaydın LIVE flag'ini taşıyabilir
+        data.putInt(recordOffset(slot) + R_FLAGS, 0);
+        data.putInt(H_RECORD_COUNT, slot + 1);
+        return slot;
+    }
+
+    private void ensureHeapCapacity(long needed) {
+        if (needed > heap.capacity()) {
+            heap = remap(heapChannel, heap, needed);
+        }
+    }
+
+    /**
+     * Dosyayı en az iki katına büyütüp yeniden map eder
+     */
+    private MappedByteBuffer remap(FileChannel channel, MappedByteBuffer current, long needed) {
+        long size = Math.min(Math.max((long) current.capacity() * 2, needed), Integer.MAX_VALUE);
+        if (size < needed) {
+            throw new IllegalStateException("User store is full: " + directory);
+        }
+        try {
+            current.force();
+            return map(channel, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow user store in " + directory, e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static int recordOffset(int slot) {
+        return DATA_HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private void initializeHeaders() {
+        data.putInt(H_MAGIC, DATA_MAGIC);
+        data.putInt(H_VERSION, FORMAT_VERSION);
+        data.putInt(H_RECORD_COUNT, 0);
+        data.putLong(H_NEXT_ID, 1);
+
+        heap.putInt(H_MAGIC, HEAP_MAGIC);
+        heap.putInt(H_VERSION, FORMAT_VERSION);
+        heap.putLong(H_HEAP_END, HEAP_HEADER_SIZE);
+    }
+
+    private void verifyHeaders() {
+        if (data.getInt(H_MAGIC) != DATA_MAGIC || heap.getInt(H_MAGIC) != HEAP_MAGIC) {
+            throw new IllegalStateException("Not a user store: " + directory);
+        }
+        if (data.getInt(H_VERSION) != FORMAT_VERSION || heap.getInt(H_VERSION) != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported user store version in " + directory);
+        }
+    }
+
+    /**
+     * Açılışta kayıtları tarar: id -> slot, boş slotlar ve username/email indeksleri
+     */
+    private int loadIndexes() {
+        int recordCount = data.getInt(H_RECORD_COUNT);
+        for (int slot = 0; slot < recordCount; slot++) {
+            int base = recordOffset(slot);
+            if ((data.getInt(base + R_FLAGS) & FLAG_LIVE) == 0) {
+                freeSlots.push(slot);
+                continue;
+            }
+            long id = data.getLong(base + R_ID);
+            slotById.put(id, slot);
+
+            User keys = new User(id, readString(base + R_USERNAME), readString(base + R_EMAIL), null);
+            keyIndex.index(keys);
+        }
+        return slotById.size();
+    }
+
+    /**
+     * Debug amaçlı loglama
+     */
+    private void log(String message) {
+        System.out.println("[MappedFileRepository] " + message);
+    }
+
+    /**
+     * Repository'nin mevcut durumunu gösterir
+     */
+    public void printStatus() {
+        System.out.println("\n=== Mapped File Repository Status ===");
+        System.out.println("Directory: " + directory);
+        System.out.println("Total users: " + count());
+        System.out.println("Record slots: " + data.getInt(H_RECORD_COUNT) + " (free: " + freeSlots.size() + ")");
+        System.out.println("String heap: " + heap.getLong(H_HEAP_END) + " bytes");
+        System.out.println("Next ID: " + data.getLong(H_NEXT_ID));
+        System.out.println("=====================================\n");
+    }
+}
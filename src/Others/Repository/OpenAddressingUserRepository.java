@@ -0,0 +1,251 @@
+package Others.Repository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Primitive long anahtarlı In-Memory Repository Implementation
+ *
+ * InMemoryUserRepository ile aynı davranışı gösterir, ancak kullanıcıları
+ * ConcurrentHashMap<Long, User> yerine LongUserMap'te (open-addressing,
+ * long[] anahtarlar) saklar.
+ *
+ * Ne zaman tercih edilir?
+ * - On milyonlarca kullanıcı bellekte tutulacaksa
+ * - Kayıt başına Node + boxed Long maliyeti ve GC baskısı sorun oluyorsa
+ *
+ * İndeksler de kullanıcı başına nesne üretmez:
+ * - username/email benzersiz indeksi: PrimitiveUserKeyIndex (String[] + long[])
+ * - findPage için sıralı id indeksi: IdBitmap (id başına ~2 byte veya 1 bit)
+ *
+ * Dikkat:
+ * - findById, findByUsername ve findByEmail okumaları kilitsizdir,
+ *   yazmalar tek kilit altında yapılır
+ * - username ve email, InMemoryUserRepository'deki gibi benzersiz indekslenir
+ */
+public class OpenAddressingUserRepository implements IUserRepository {
+
+    private static final int STREAM_PAGE_SIZE = 1024;
+
+    private final LongUserMap storage;
+
+    // username/email -> id benzersiz indeksleri
+    private final PrimitiveUserKeyIndex keyIndex = new PrimitiveUserKeyIndex();
+
+    // Keyset pagination için artan sıralı id'ler
+    private final IdBitmap orderedIds = new IdBitmap();
+
+    // Yazmalar (storage + indeksler) tek kilit altında atomik yapılır, okumalar kilitsizdir
+    private final Object writeLock = new Object();
+
+    // Auto-increment ID için atomic counter
+    private final AtomicLong idGenerator = new AtomicLong(1);
+
+    public OpenAddressingUserRepository() {
+        this.storage = new LongUserMap();
+    }
+
+    /**
+     * Constructor - Beklenen kullanıcı sayısı ile (resize maliyetini önler)
+     */
+    public OpenAddressingUserRepository(int expectedSize) {
+        this.storage = new LongUserMap(expectedSize);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        log("Finding user by ID: " + id);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(storage.get(id));
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        log("Finding user by username: " + username);
+        return lookup(keyIndex.idByUsername(username));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        log("Finding user by email: " + email);
+        return lookup(keyIndex.idByEmail(email));
+    }
+
+    @Override
+    public List<User> findAll() {
+        log("Finding all users");
+        List<User> users = new ArrayList<>(storage.size());
+        storage.forEachValue(users::add);
+        return users;
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        log("Finding all active users");
+        List<User> users = new ArrayList<>();
+        storage.forEachValue(user -> {
+            if (user.isActive()) {
+                users.add(user);
+            }
+        });
+        return users;
+    }
+
+    /**
+     * id sırasıyla, STREAM_PAGE_SIZE'lık keyset sayfaları halinde lazy üretilir
+     */
+    @Override
+    public Stream<User> streamAll() {
+        log("Streaming all users");
+        return Stream.iterate(pageAfter(0, STREAM_PAGE_SIZE), page -> !page.isEmpty(),
+                        page -> pageAfter(page.get(page.size() - 1).getId(), STREAM_PAGE_SIZE))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        log("Finding page after ID " + afterId + " (limit " + limit + ")");
+        if (limit < 0) {
+            throw new IllegalArgumentException("Page limit cannot be negative: " + limit);
+        }
+        return pageAfter(afterId, limit);
+    }
+
+    // Bitmap kilidi altında sadece id'ler toplanır, kullanıcılar kilit dışında çözülür
+    private List<User> pageAfter(long afterId, int limit) {
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        long[] ids = new long[limit];
+        int[] count = {0};
+        orderedIds.forEachAfter(afterId, id -> {
+            ids[count[0]++] = id;
+            return count[0] < limit;
+        });
+
+        List<User> page = new ArrayList<>(count[0]);
+        for (int i = 0; i < count[0]; i++) {
+            User user = storage.get(ids[i]);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public User save(User user) {
+        synchronized (writeLock) {
+            // Benzersizlik ihlali varsa ID atanmadan önce reddet
+            keyIndex.checkUnique(user);
+
+            if (user.getId() == null) {
+                // Yeni kayıt - ID ata
+                user.setId(idGenerator.getAndIncrement());
+                log("Creating new user with ID: " + user.getId());
+            } else {
+                // Güncelleme
+                log("Updating user with ID: " + user.getId());
+            }
+            User stored = storage.get(user.getId());
+            user.setVersion((stored == null ? 0 : stored.getVersion()) + 1);
+
+            storage.put(user.getId(), user);
+            keyIndex.index(user);
+            orderedIds.add(user.getId());
+        }
+        return user;
+    }
+
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
+        }
+        log("Updating user with ID: " + user.getId() + " (expected version " + expectedVersion + ")");
+        synchronized (writeLock) {
+            User stored = storage.get(user.getId());
+            long currentVersion = stored == null ? -1 : stored.getVersion();
+            if (currentVersion != expectedVersion) {
+                throw new OptimisticLockException(user.getId(), expectedVersion, currentVersion);
+            }
+            keyIndex.checkUnique(user);
+            user.setVersion(expectedVersion + 1);
+            storage.put(user.getId(), user);
+            keyIndex.index(user);
+        }
+        return user;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        log("Deleting user by ID: " + id);
+        if (id == null) {
+            return false;
+        }
+        synchronized (writeLock) {
+            keyIndex.remove(id);
+            orderedIds.remove(id);
+            return storage.remove(id) != null;
+        }
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && storage.containsKey(id);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return keyIndex.containsUsername(username);
+    }
+
+    private Optional<User> lookup(long id) {
+        return id == PrimitiveUserKeyIndex.NO_ID ? Optional.empty() : Optional.ofNullable(storage.get(id));
+    }
+
+    @Override
+    public long count() {
+        return storage.size();
+    }
+
+    @Override
+    public void deleteAll() {
+        log("Deleting all users");
+        synchronized (writeLock) {
+            storage.clear();
+            keyIndex.clear();
+            orderedIds.clear();
+        }
+    }
+
+    /**
+     * Debug amaçlı loglama
+     */
+    private void log(String message) {
+        System.out.println("[OpenAddressingRepository] " + message);
+    }
+
+    /**
+     * Repository'nin mevcut durumunu gösterir
+     */
+    public void printStatus() {
+        System.out.println("\n=== Repository Status ===");
+        System.out.println("Total users: " + count());
+        System.out.println("Active users: " + findAllActive().size());
+        System.out.println("Table capacity: " + storage.capacity());
+        System.out.println("Next ID: " + idGenerator.get());
+        System.out.println("========================\n");
+    }
+}
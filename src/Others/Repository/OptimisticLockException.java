@@ -0,0 +1,43 @@
+package Others.Repository;
+
+/**
+ * Optimistic locking çakışması
+ *
+ * saveIfVersion çağrısında kullanıcının saklanan sürümü beklenen sürümden
+ * farklıysa (arada başka biri kaydetmişse) veya kullanıcı silinmişse
+ * fırlatılır. Çağıran güncel kaydı tekrar okuyup değişikliği yeniden
+ * uygulamalıdır (bkz. UserService.updateWithRetry).
+ */
+public class OptimisticLockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    /**
+     * @param actualVersion Saklanan sürüm (kullanıcı silinmişse -1)
+     */
+    public OptimisticLockException(Long userId, long expectedVersion, long actualVersion) {
+        super(actualVersion < 0
+                ? "User " + userId + " was deleted (expected version " + expectedVersion + ")"
+                : "User " + userId + " was modified concurrently: expected version " + expectedVersion +
+                  " but found " + actualVersion);
+        this.userId = userId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,116 @@
+package Others.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Optimistic locking benchmark'ı - eşzamanlı güncellemeler
+ *
+ * Her güncelleme bir kullanıcının fullName'indeki sayacı bir artırır ve
+ * sırasında workMicros kadar iş mantığı (doğrulama, hesaplama) simüle eder.
+ * Farklı büyüklükteki "sıcak" kullanıcı kümeleri üzerinde üç yol karşılaştırılır:
+ *
+ * - synchronized: tüm read-modify-save tek monitör altında (iş mantığı dahil)
+ * - optimistic:   UserService.updateWithRetry - kilit sadece saveIfVersion'ın
+ *                 kısa yazma kritik bölgesinde, çakışmada tekrar dener
+ * - unguarded:    kontrol yok (findById + save) - kaybolan güncellemeleri gösterir
+ *
+ * Sonunda sayaçların toplamı yapılan güncelleme sayısıyla karşılaştırılır.
+ *
+ * Kullanım: java Others.Repository.OptimisticLockingBenchmark [threads] [updatesPerThread] [workMicros]
+ */
+public class OptimisticLockingBenchmark {
+
+    private static final int[] HOT_SET_SIZES = {1, 16, 1024};
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int updatesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int workMicros = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        long totalUpdates = (long) threads * updatesPerThread;
+
+        System.out.println("=== Optimistic Locking Benchmark ===");
+        System.out.println("Threads: " + threads + ", updates/thread: " + updatesPerThread +
+                ", work per update: " + workMicros + "µs\n");
+
+        for (int hotUsers : HOT_SET_SIZES) {
+            System.out.println("Hot set: " + hotUsers + " user(s)");
+
+            // 1. Global monitor - iş mantığı da kilit altında sıralanır
+            Scenario locked = new Scenario(hotUsers);
+            Object monitor = new Object();
+            long lockedNanos = locked.run(threads, updatesPerThread, id -> {
+                synchronized (monitor) {
+                    User user = locked.repository.findById(id).orElseThrow().copy();
+                    increment(user, workMicros);
+                    locked.repository.save(user);
+                }
+            });
+            report("synchronized", locked, totalUpdates, lockedNanos, 0);
+
+            // 2. Optimistic - CAS + retry
+            Scenario optimistic = new Scenario(hotUsers);
+            long optimisticNanos = optimistic.run(threads, updatesPerThread,
+                    id -> optimistic.service.updateWithRetry(id, user -> increment(user, workMicros)));
+            report("optimistic", optimistic, totalUpdates, optimisticNanos,
+                    optimistic.service.getConflictRetries());
+
+            // 3. Kontrolsüz - son yazan kazanır
+            Scenario unguarded = new Scenario(hotUsers);
+            long unguardedNanos = unguarded.run(threads, updatesPerThread, id -> {
+                User user = unguarded.repository.findById(id).orElseThrow().copy();
+                increment(user, workMicros);
+                unguarded.repository.save(user);
+            });
+            report("unguarded", unguarded, totalUpdates, unguardedNanos, 0);
+            System.out.println();
+        }
+    }
+
+    private static void report(String name, Scenario scenario, long totalUpdates, long nanos, long retries) {
+        long applied = BenchmarkSupport.quietly(scenario::counterSum);
+        System.out.printf("  %-13s %16s, retries: %,9d, lost updates: %,d%n", name + ":",
+                BenchmarkSupport.opsPerSecond(totalUpdates, nanos), retries, totalUpdates - applied);
+    }
+
+    // fullName = sayaç; iş mantığı süresi kadar spin
+    private static void increment(User user, int workMicros) {
+        long deadline = System.nanoTime() + workMicros * 1_000L;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        user.setFullName(Long.toString(Long.parseLong(user.getFullName()) + 1));
+    }
+
+    /**
+     * Her yol için taze repository + servis ve sıcak kullanıcılar
+     */
+    private static final class Scenario {
+        final InMemoryUserRepository repository = new InMemoryUserRepository();
+        final UserService service;
+        final List<Long> ids = new ArrayList<>();
+
+        Scenario(int hotUsers) {
+            service = BenchmarkSupport.quietly(() -> new UserService(repository));
+            BenchmarkSupport.quietly(() -> {
+                for (int i = 0; i < hotUsers; i++) {
+                    ids.add(repository.save(new User(null, "hot" + i, "hot" + i + "@bench.com", "0")).getId());
+                }
+            });
+        }
+
+        long run(int threads, int updatesPerThread, Consumer<Long> update) {
+            return BenchmarkSupport.quietly(() -> BenchmarkSupport.runConcurrently(threads, updatesPerThread,
+                    (thread, i) -> update.accept(ids.get((thread * 31 + i) % ids.size()))));
+        }
+
+        long counterSum() {
+            long sum = 0;
+            for (Long id : ids) {
+                sum += Long.parseLong(repository.findById(id).orElseThrow().getFullName());
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package Others.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepared statement cache (simülasyon)
+ *
+ * SQL metni "?" yer tutuculu sabit bir şablondur; değerler çalıştırma anında
+ * parametre olarak bağlanır. Aynı şablon için bir kez Statement nesnesi
+ * hazırlanır ve sonraki çağrılarda cache'ten kullanılır. Böylece:
+ * - Sıcak çağrılar (findById gibi) her seferinde yeni SQL metni üretmez
+ * - Gerçek bir veritabanı sorgu planını şablon başına bir kez çıkarır
+ * - Değerler metne gömülmediği için SQL injection riski kalmaz
+ *
+ * Gerçek uygulamada JDBC sürücüsünün statement cache'i (ör. pgjdbc
+ * preparedStatementCacheQueries) bu işi yapar.
+ */
+class PreparedStatementCache {
+
+    private final Map<String, Statement> statements = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Şablon için hazırlanmış statement'ı döner, yoksa hazırlar
+     */
+    Statement prepare(String template) {
+        Statement statement = statements.get(template);
+        if (statement != null) {
+            hits.increment();
+            return statement;
+        }
+        return statements.computeIfAbsent(template, sql -> {
+            misses.increment();
+            return new Statement(sql);
+        });
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Hazırlanmış statement - şablon ve parametre sayısı değişmez
+     */
+    static final class Statement {
+        private final String sql;
+        private final int parameterCount;
+        private final LongAdder executions = new LongAdder();
+
+        private Statement(String sql) {
+            this.sql = sql;
+            int count = 0;
+            for (int i = 0; i < sql.length(); i++) {
+                if (sql.charAt(i) == '?') {
+                    count++;
+                }
+            }
+            this.parameterCount = count;
+        }
+
+        /**
+         * Parametre sayısını doğrular ve çalıştırma sayacını artırır
+         *
+         * @throws IllegalArgumentException parametre sayısı şablonla uyuşmuyorsa
+         */
+        void bind(int parameters) {
+            if (parameters != parameterCount) {
+                throw new IllegalArgumentException("Statement expects " + parameterCount +
+                        " parameters but got " + parameters + ": " + sql);
+            }
+            executions.increment();
+        }
+
+        /**
+         * Batch çalıştırma - satır parametreleri sürücü tarafında toplanır
+         */
+        void bindBatch() {
+            executions.increment();
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        long getExecutions() {
+            return executions.sum();
+        }
+
+        /**
+         * Parametreleri yerine koyarak okunabilir SQL üretir - sadece loglama için
+         */
+        String render(Object... parameters) {
+            StringBuilder rendered = new StringBuilder(sql.length() + 16 * parameters.length);
+            int next = 0;
+            for (int i = 0; i < sql.length(); i++) {
+                char c = sql.charAt(i);
+                if (c == '?' && next < parameters.length) {
+                    appendLiteral(rendered, parameters[next++]);
+                } else {
+                    rendered.append(c);
+                }
+            }
+            return rendered.toString();
+        }
+
+        private static void appendLiteral(StringBuilder out, Object value) {
+            if (value == null) {
+                out.append("NULL");
+            } else if (value instanceof String text) {
+                out.append('\'').append(text.replace("'", "''")).append('\'');
+            } else if (value instanceof Collection<?> values) {
+                out.append("ARRAY[").append(values.size()).append(" values]");
+            } else {
+                out.append(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package Others.Repository;
+
+/**
+ * Username ve email için benzersiz indeks - kayıt başına nesne üretmeden
+ *
+ * UserKeyIndex ile aynı işi yapar, ancak ConcurrentHashMap yerine primitive
+ * tablolar kullanır (OpenAddressingUserRepository için):
+ * - username -> id ve email -> id: StringLongMap (String[] + long[])
+ * - id -> son indekslenen username/email: KeysById (long[] + iki String[])
+ *
+ * Böylece kullanıcı başına Node, boxed Long veya IndexedKeys nesnesi
+ * oluşmaz. User mutable olduğu için (güncellemede aynı nesne değişir) eski
+ * anahtarlar User'dan değil, KeysById'den okunur.
+ *
+ * Thread-safety:
+ * - Okumalar (idByUsername, idByEmail, containsUsername) kilitsizdir
+ * - Yazmalar ve checkUnique repository'nin yazma kilidi altında çağrılmalıdır
+ */
+class PrimitiveUserKeyIndex {
+
+    // idBy... dönüşlerinde "kullanıcı yok" işareti
+    static final long NO_ID = StringLongMap.ABSENT;
+
+    private final StringLongMap usernameIndex = new StringLongMap();
+    private final StringLongMap emailIndex = new StringLongMap();
+    private final KeysById keysById = new KeysById();
+
+    /**
+     * Kaydedilecek kullanıcının anahtarları başka bir kullanıcıda var mı kontrol eder
+     *
+     * @throws IllegalStateException username veya email başka bir id'ye aitse
+     */
+    void checkUnique(User user) {
+        long owner = usernameIndex.get(user.getUsername());
+        if (owner != NO_ID && !isOwner(user, owner)) {
+            throw new IllegalStateException("Username already exists: " + user.getUsername());
+        }
+        owner = emailIndex.get(user.getEmail());
+        if (owner != NO_ID && !isOwner(user, owner)) {
+            throw new IllegalStateException("Email already registered: " + user.getEmail());
+        }
+    }
+
+    /**
+     * Kullanıcıyı indeksler; username/email değiştiyse eski anahtarları kaldırır
+     */
+    void index(User user) {
+        long id = user.getId();
+        int slot = keysById.find(id);
+        if (slot >= 0) {
+            String previousUsername = keysById.usernames[slot];
+            String previousEmail = keysById.emails[slot];
+            if (previousUsername != null && !previousUsername.equals(user.getUsername())) {
+                usernameIndex.remove(previousUsername, id);
+            }
+            if (previousEmail != null && !previousEmail.equals(user.getEmail())) {
+                emailIndex.remove(previousEmail, id);
+            }
+        }
+
+        if (user.getUsername() != null) {
+            usernameIndex.put(user.getUsername(), id);
+        }
+        if (user.getEmail() != null) {
+            emailIndex.put(user.getEmail(), id);
+        }
+        keysById.put(id, user.getUsername(), user.getEmail());
+    }
+
+    /**
+     * Kullanıcının anahtarlarını indeksten kaldırır
+     */
+    void remove(long id) {
+        int slot = keysById.find(id);
+        if (slot < 0) {
+            return;
+        }
+        usernameIndex.remove(keysById.usernames[slot], id);
+        emailIndex.remove(keysById.emails[slot], id);
+        keysById.removeSlot(slot);
+    }
+
+    void clear() {
+        usernameIndex.clear();
+        emailIndex.clear();
+        keysById.clear();
+    }
+
+    /**
+     * @return username'in sahibi, yoksa NO_ID
+     */
+    long idByUsername(String username) {
+        return usernameIndex.get(username);
+    }
+
+    /**
+     * @return email'in sahibi, yoksa NO_ID
+     */
+    long idByEmail(String email) {
+        return emailIndex.get(email);
+    }
+
+    boolean containsUsername(String username) {
+        return usernameIndex.get(username) != NO_ID;
+    }
+
+    private static boolean isOwner(User user, long owner) {
+        return user.getId() != null && user.getId() == owner;
+    }
+
+    /**
+     * id -> indekslenmiş username/email (linear probing, paralel diziler)
+     *
+     * Sadece yazma kilidi altında kullanılır; bu yüzden tombstone yerine
+     * silmede sonraki kayıtlar geri kaydırılır (backward shift). Her iki
+     * anahtarı da null olan kullanıcı saklanmaz - kaldırılacak bir şeyi yoktur.
+     * Boş slot, iki anahtarı da null olan slottur; böylece 0 id'si de saklanabilir.
+     */
+    private static final class KeysById {
+        private static final int MIN_CAPACITY = 16;
+        private static final float MAX_FILL = 0.7f;
+
+        private long[] ids = new long[MIN_CAPACITY];
+        private String[] usernames = new String[MIN_CAPACITY];
+        private String[] emails = new String[MIN_CAPACITY];
+        private int size;
+
+        // id'nin slotu, yoksa -1
+        int find(long id) {
+            int mask = ids.length - 1;
+            int index = hash(id) & mask;
+            while (occupied(index)) {
+                if (ids[index] == id) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        void put(long id, String username, String email) {
+            if (username == null && email == null) {
+                int slot = find(id);
+                if (slot >= 0) {
+                    removeSlot(slot);
+                }
+                return;
+            }
+            int mask = ids.length - 1;
+            int index = hash(id) & mask;
+            while (occupied(index)) {
+                if (ids[index] == id) {
+                    usernames[index] = username;
+                    emails[index] = email;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            ids[index] = id;
+            usernames[index] = username;
+            emails[index] = email;
+            size++;
+            if (size > ids.length * MAX_FILL) {
+                resize(ids.length * 2);
+            }
+        }
+
+        // Slotu boşaltır ve probe zincirini kapatmak için sonraki kayıtları geri kaydırır
+        void removeSlot(int slot) {
+            int mask = ids.length - 1;
+            int hole = slot;
+            int index = (slot + 1) & mask;
+            while (occupied(index)) {
+                int home = hash(ids[index]) & mask;
+                // Kayıt, evi (home) boşluk ile kendisi arasında değilse boşluğa taşınabilir
+                boolean movable = hole <= index ? (home <= hole || home > index) : (home <= hole && home > index);
+                if (movable) {
+                    ids[hole] = ids[index];
+                    usernames[hole] = usernames[index];
+                    emails[hole] = emails[index];
+                    hole = index;
+                }
+                index = (index + 1) & mask;
+            }
+            usernames[hole] = null;
+            emails[hole] = null;
+            size--;
+        }
+
+        void clear() {
+            ids = new long[MIN_CAPACITY];
+            usernames = new String[MIN_CAPACITY];
+            emails = new String[MIN_CAPACITY];
+            size = 0;
+        }
+
+        private boolean occupied(int index) {
+            return usernames[index] != null || emails[index] != null;
+        }
+
+        private void resize(int capacity) {
+            long[] oldIds = ids;
+            String[] oldUsernames = usernames;
+            String[] oldEmails = emails;
+            ids = new long[capacity];
+            usernames = new String[capacity];
+            emails = new String[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldUsernames[i] == null && oldEmails[i] == null) {
+                    continue;
+                }
+                int index = hash(oldIds[i]) & mask;
+                while (occupied(index)) {
+                    index = (index + 1) & mask;
+                }
+                ids[index] = oldIds[i];
+                usernames[index] = oldUsernames[i];
+                emails[index] = oldEmails[i];
+            }
+        }
+
+        // Fibonacci hashing - LongUserMap ile aynı
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package Others.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository Pattern Demonstration
@@ -11,6 +17,7 @@ import java.util.Optional;
  * 2. Database Repository ile çalışma (production)
  * 3. Repository değişimi (InMemory -> Database)
  * 4. Service katmanının repository'den bağımsız olması
+ * 5. Memory-mapped dosya repository'sinin kalıcılığı
  */
 public class RepositoryPatternDemo {
 
@@ -36,6 +43,11 @@ public class RepositoryPatternDemo {
 
         // Scenario 4: Business Logic Test Edilebilirliği
         scenario4_TestableBusinessLogic();
+
+        System.out.println("\n" + "=".repeat(80) + "\n");
+
+        // Scenario 5: Memory-mapped dosyada kalıcılık
+        scenario5_MappedFileRepository();
     }
 
     /**
@@ -216,4 +228,67 @@ public class RepositoryPatternDemo {
         System.out.println("\n💡 All tests executed without real database!");
         System.out.println("   InMemory repository makes testing fast and easy!");
     }
+
+    /**
+     * SENARYO 5: Memory-Mapped File Repository
+     *
+     * Kullanıcılar restart'tan sonra da dosyada durur:
+     * - Repository kapatılıp aynı dizinle yeniden açılır
+     * - deleteAll sonrası yeniden kullanılan kayıt slot'ları eski
+     *   string'leri göstermez
+     */
+    private static void scenario5_MappedFileRepository() {
+        System.out.println("┌────────────────────────────────────────────────┐");
+        System.out.println("│  Scenario 5: Memory-Mapped File Repository    │");
+        System.out.println("└────────────────────────────────────────────────┘\n");
+
+        Path directory;
+        try {
+            directory = Files.createTempDirectory("mapped-users");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            // Test 1: Kullanıcılar yeniden açılışta okunur
+            System.out.println("\n✓ Test 1: Users survive close and reopen");
+            try (MappedFileUserRepository repository = new MappedFileUserRepository(directory)) {
+                new UserService(repository).registerUser("alice", "alice@example.com", "Alice Smith");
+            }
+            try (MappedFileUserRepository reopened = new MappedFileUserRepository(directory)) {
+                if (reopened.findByUsername("alice").isPresent()) {
+                    System.out.println("✓ PASSED: alice found after reopen");
+                } else {
+                    System.out.println("❌ FAILED: alice lost after reopen");
+                }
+
+                // Test 2: deleteAll sonrası yeniden kullanılan slot'lar
+                System.out.println("\n✓ Test 2: Save after deleteAll writes fresh strings");
+                reopened.deleteAll();
+                reopened.save(new User(null, "alice", "alice@example.com", "Alice Smith"));
+                reopened.save(new User(null, "b", "b@y.org", "Bob"));
+                List<User> users = reopened.findAll();
+                boolean intact = users.size() == 2
+                        && users.get(0).getUsername().equals("alice") && users.get(0).getEmail().equals("alice@example.com")
+                        && users.get(1).getUsername().equals("b") && users.get(1).getEmail().equals("b@y.org");
+                if (intact) {
+                    System.out.println("✓ PASSED: " + users);
+                } else {
+                    System.out.println("❌ FAILED: Stale or overwritten strings: " + users);
+                }
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
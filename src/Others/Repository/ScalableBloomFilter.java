@@ -0,0 +1,199 @@
+package Others.Repository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ölçeklenebilir Bloom filter (String anahtarlar)
+ *
+ * Bloom filter bir anahtarın kümede "kesinlikle olmadığını" veya "olabileceğini"
+ * söyler. Yanlış negatif yoktur; yanlış pozitif oranı (false positive rate)
+ * bit sayısı ve hash sayısıyla ayarlanır.
+ *
+ * Sabit boyutlu filtre dolunca yanlış pozitif oranı hızla artar. Burada
+ * filtre katmanlardan (stage) oluşur: son katman kapasitesine ulaşınca
+ * iki kat kapasiteli ve yarı yanlış pozitif oranlı yeni katman eklenir.
+ * Katmanların oranları p·(1-r), p·(1-r)·r, ... (r = 0.5) olduğundan
+ * toplam oran her zaman hedef p'nin altında kalır.
+ *
+ * Hash: anahtar başına bir 64-bit hash (FNV-1a + murmur finalizer),
+ * k indeks double hashing ile türetilir (h + i·step).
+ *
+ * Thread-safety: bitler AtomicLongArray'de tutulur; add ve mightContain
+ * kilitsizdir. Sadece yeni katman ekleme senkronizedir.
+ * Silme desteklenmez (bkz. BloomFilterUserRepository.rebuild).
+ */
+class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final double falsePositiveRate;
+
+    // Katmanlar - yeni katman eklenince dizi kopyalanır (copy-on-write)
+    private volatile Stage[] stages;
+
+    /**
+     * @param expectedInsertions İlk katmanın kapasitesi
+     * @param falsePositiveRate  Hedef toplam yanlış pozitif oranı (0 < p < 1)
+     */
+    ScalableBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.stages = new Stage[]{new Stage(Math.max(expectedInsertions, 64),
+                falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * Filtre anahtar için zaten "olabilir" diyorsa hiçbir şey yapılmaz:
+     * bitler hiç silinmediği için cevap değişmez. Böylece katman kapasitesi
+     * yazma sayısıyla değil, farklı anahtar sayısıyla tükenir (username'i
+     * değişmeyen update'ler filtreyi büyütmez).
+     */
+    void add(String key) {
+        long hash = hash(key);
+        if (mightContain(hash)) {
+            return;
+        }
+        // Anahtar hiçbir katmana eklenmeden dönülmez - aksi halde yanlış negatif olur
+        while (true) {
+            Stage[] current = stages;
+            if (current[current.length - 1].tryAdd(hash)) {
+                return;
+            }
+            grow(current);
+        }
+    }
+
+    /**
+     * @return false ise anahtar kesinlikle eklenmemiştir
+     */
+    boolean mightContain(String key) {
+        return mightContain(hash(key));
+    }
+
+    private boolean mightContain(long hash) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getStageCount() {
+        return stages.length;
+    }
+
+    long getInsertions() {
+        long insertions = 0;
+        for (Stage stage : stages) {
+            insertions += stage.insertionCount();
+        }
+        return insertions;
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += 8L * stage.bits.length();
+        }
+        return bytes;
+    }
+
+    double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    // Dolu katmanın arkasına yenisini ekler (başka thread zaten eklediyse bir şey yapmaz)
+    private synchronized void grow(Stage[] seen) {
+        Stage[] current = stages;
+        if (current != seen) {
+            return;
+        }
+        Stage last = current[current.length - 1];
+        Stage next = new Stage((long) last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = next;
+        stages = grown;
+    }
+
+    // 64-bit FNV-1a, ardından murmur3 fmix64 ile bitler karıştırılır
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Sabit boyutlu tek bir Bloom filter katmanı
+     */
+    private static final class Stage {
+        final int capacity;
+        final double falsePositiveRate;
+        final AtomicLongArray bits;
+        final long bitCount;
+        final int hashCount;
+        final AtomicInteger insertions = new AtomicInteger();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = (int) Math.min(capacity, Integer.MAX_VALUE / 2);
+            this.falsePositiveRate = falsePositiveRate;
+            // m = -n·ln(p) / (ln 2)^2,  k = (m/n)·ln 2
+            long m = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (m + 63) >>> 6);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = 64L * words;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+        }
+
+        // Kapasite dolduysa false döner (anahtar eklenmez)
+        boolean tryAdd(long hash) {
+            if (insertions.getAndIncrement() >= capacity) {
+                insertions.decrementAndGet();
+                return false;
+            }
+            long step = stepOf(hash);
+            for (int i = 0; i < hashCount; i++) {
+                long index = ((hash + i * step) & Long.MAX_VALUE) % bitCount;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long value = bits.get(word);
+                while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+                    value = bits.get(word);
+                }
+            }
+            return true;
+        }
+
+        boolean mightContain(long hash) {
+            long step = stepOf(hash);
+            for (int i = 0; i < hashCount; i++) {
+                long index = ((hash + i * step) & Long.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long insertionCount() {
+            return Math.min(insertions.get(), capacity);
+        }
+
+        // Double hashing adımı: üst 32 bit ile alt 32 bitin yer değiştirmiş hali (tek sayı)
+        private static long stepOf(long hash) {
+            return Long.rotateLeft(hash, 32) | 1;
+        }
+    }
+}
@@ -0,0 +1,608 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Sharded Repository (Composite)
+ *
+ * Kullanıcıları id hash'ine göre N adet iç IUserRepository'ye (shard)
+ * dağıtır. Her shard'ın kendi kilidi ve indeksleri olduğu için yazmalar tek
+ * bir kilitte sıraya girmez; taramalar shard'lar üzerinde paralel çalışır.
+ *
+ * Yönlendirme:
+ * - findById / existsById / deleteById: tek shard (id hash'i)
+ * - findAll / findAllActive / count / countActive / deleteAll: tüm shard'lara
+ *   paralel (scatter-gather), sonuçlar birleştirilir
+ * - findByUsername / findByEmail / existsByUsername: username'in hangi
+ *   shard'da olduğu bilinmediği için tüm shard'lara paralel sorulur
+ * - findPage: her shard'dan ilk limit kayıt alınır, id sırasıyla birleştirilir
+ * - searchUsers: her shard'ın en iyi limit sonucu eşleşme derecesine göre birleştirilir
+ * - findCreatedBetween / findUpdatedBetween / findNewest / findRecentlyUpdated:
+ *   her shard kendi zaman indeksinden cevaplar, sonuçlar zamana göre birleştirilir
+ *
+ * ID üretimi:
+ * İç repository'lerin kendi sayaçları çakışacağı için id'ler burada atanır.
+ * Tek bir AtomicLong üzerinde her kayıtta yarışmamak için her thread
+ * ID_BLOCK_SIZE'lık bloklar ayırır (HiLoIdAllocator). id'ler benzersizdir
+ * ama thread'ler arasında artan sırada olmayabilir.
+ *
+ * Benzersizlik:
+ * Her shard kendi içinde username/email benzersizliğini korur. Shard'lar
+ * arası kontrol save sırasında diğer shard'lara sorularak yapılır; aynı
+ * username/email'i kaydeden eşzamanlı save'ler anahtar kilitleriyle
+ * (lock striping) sıraya sokulur.
+ *
+ * Yeniden dağıtma (reshard):
+ * Shard sayısı değiştiğinde tüm kullanıcılar yeni shard'lara taşınır. Taşıma
+ * sırasında diğer işlemler bekler (stop-the-world). Kullanıcılar sürümleri
+ * korunarak kopyalanır; bu yüzden yeni shard'lar bulkLoad destekleyen
+ * InMemoryUserRepository olmalıdır.
+ */
+public class ShardedUserRepository implements IUserRepository, AutoCloseable {
+
+    private static final int ID_BLOCK_SIZE = 1024;
+    private static final int KEY_LOCK_STRIPES = 64;
+
+    private volatile IUserRepository[] shards;
+
+    // Normal işlemler read lock, reshard write lock alır
+    private final ReentrantReadWriteLock topologyLock = new ReentrantReadWriteLock();
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private final IdAllocator idAllocator = new HiLoIdAllocator(ID_BLOCK_SIZE);
+
+    private final Object[] keyLocks = new Object[KEY_LOCK_STRIPES];
+
+    /**
+     * Constructor - shard'lar factory ile oluşturulur, paralel sorgular için
+     * işlemci sayısı kadar thread'lik havuz kullanılır
+     *
+     * @param shardCount   Shard sayısı
+     * @param shardFactory Shard index'inden yeni bir repository üretir
+     */
+    public ShardedUserRepository(int shardCount, IntFunction<IUserRepository> shardFactory) {
+        this(createShards(shardCount, shardFactory), defaultExecutor(), true);
+    }
+
+    /**
+     * Constructor - Hazır shard'lar ve dışarıdan verilen executor ile
+     * (executor'ın yaşam döngüsü çağırana aittir)
+     */
+    public ShardedUserRepository(List<? extends IUserRepository> shards, ExecutorService executor) {
+        this(shards.toArray(new IUserRepository[0]), executor, false);
+    }
+
+    private ShardedUserRepository(IUserRepository[] shards, ExecutorService executor, boolean ownsExecutor) {
+        if (shards.length == 0) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new Object();
+        }
+
+        // Dolu shard'larla açıldıysa id'ler mevcut en büyük id'den devam eder
+        long maxId = 0;
+        for (long shardMax : scatter(ShardedUserRepository::maxId)) {
+            maxId = Math.max(maxId, shardMax);
+        }
+        idAllocator.advanceTo(maxId + 1);
+    }
+
+    // ---------------------------------------------------------------
+    // Tek shard'a yönlendirilen işlemler
+    // ---------------------------------------------------------------
+
+    @Override
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return read(() -> shardFor(id).findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && read(() -> shardFor(id).existsById(id));
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        if (id == null) {
+            return false;
+        }
+        return read(() -> shardFor(id).deleteById(id));
+    }
+
+    @Override
+    public boolean delete(User user) {
+        if (user == null || user.getId() == null) {
+            return false;
+        }
+        return deleteById(user.getId());
+    }
+
+    @Override
+    public User save(User user) {
+        return read(() -> {
+            if (user.getId() == null) {
+                user.setId(idAllocator.nextId());
+            }
+            return writeUnique(user, target -> target.save(user));
+        });
+    }
+
+    /**
+     * Sürüm kontrolü kullanıcının shard'ında yapılır (tek shard, scatter yok)
+     */
+    @Override
+    public User saveIfVersion(User user, long expectedVersion) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Versioned save requires an existing user ID");
+        }
+        return read(() -> writeUnique(user, target -> target.saveIfVersion(user, expectedVersion)));
+    }
+
+    // Aynı username/email'i kaydeden yazmalar aynı kilitlere düşer
+    private User writeUnique(User user, Function<IUserRepository, User> write) {
+        IUserRepository target = shardFor(user.getId());
+        int first = keyStripe(user.getUsername());
+        int second = keyStripe(user.getEmail());
+        synchronized (keyLocks[Math.min(first, second)]) {
+            synchronized (keyLocks[Math.max(first, second)]) {
+                checkUniqueAcrossShards(user, target);
+                return write.apply(target);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Tüm shard'lara dağıtılan işlemler (scatter-gather)
+    // ---------------------------------------------------------------
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return read(() -> firstPresent(scatter(shard -> shard.findByUsername(username))));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return read(() -> firstPresent(scatter(shard -> shard.findByEmail(email))));
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return read(() -> scatter(shard -> shard.existsByUsername(username)).contains(Boolean.TRUE));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return read(() -> merge(scatter(IUserRepository::findAll)));
+    }
+
+    @Override
+    public List<User> findAllActive() {
+        return read(() -> merge(scatter(IUserRepository::findAllActive)));
+    }
+
+    @Override
+    public long count() {
+        return read(() -> sum(scatter(IUserRepository::count)));
+    }
+
+    @Override
+    public long countActive() {
+        return read(() -> sum(scatter(IUserRepository::countActive)));
+    }
+
+    @Override
+    public void deleteAll() {
+        read(() -> scatter(shard -> {
+            shard.deleteAll();
+            return null;
+        }));
+    }
+
+    /**
+     * Shard'ların stream'leri sırayla, lazy olarak birleştirilir
+     */
+    @Override
+    public Stream<User> streamAll() {
+        return Arrays.stream(shards).flatMap(IUserRepository::streamAll);
+    }
+
+    /**
+     * Her shard en fazla limit kayıt döner; sonuçların ilk limit'i
+     * tüm kullanıcılar içindeki ilk limit'tir
+     */
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return read(() -> {
+            List<User> candidates = merge(scatter(shard -> shard.findPage(afterId, limit)));
+            candidates.sort(Comparator.comparing(User::getId));
+            return new ArrayList<>(candidates.subList(0, Math.min(limit, candidates.size())));
+        });
+    }
+
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return read(() -> {
+            List<User> candidates = merge(scatter(shard -> shard.searchUsers(query, limit)));
+            candidates.sort(UserSearchIndex.byRank(query));
+            return new ArrayList<>(candidates.subList(0, Math.min(limit, candidates.size())));
+        });
+    }
+
+    @Override
+    public List<User> findCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> {
+            List<User> users = merge(scatter(shard -> shard.findCreatedBetween(from, to)));
+            users.sort(UserTimeIndex.BY_CREATED_AT);
+            return users;
+        });
+    }
+
+    @Override
+    public List<User> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> {
+            List<User> users = merge(scatter(shard -> shard.findUpdatedBetween(from, to)));
+            users.sort(UserTimeIndex.BY_UPDATED_AT);
+            return users;
+        });
+    }
+
+    /**
+     * Her shard en yeni limit kaydını döner; birleşimin ilk limit'i genel sonuçtur
+     */
+    @Override
+    public List<User> findNewest(int limit) {
+        return read(() -> {
+            List<User> candidates = merge(scatter(shard -> shard.findNewest(limit)));
+            candidates.sort(UserTimeIndex.BY_CREATED_AT.reversed());
+            return new ArrayList<>(candidates.subList(0, Math.min(limit, candidates.size())));
+        });
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(int limit) {
+        return read(() -> {
+            List<User> candidates = merge(scatter(shard -> shard.findRecentlyUpdated(limit)));
+            candidates.sort(UserTimeIndex.BY_UPDATED_AT.reversed());
+            return new ArrayList<>(candidates.subList(0, Math.min(limit, candidates.size())));
+        });
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return read(() -> {
+            Map<Long, User> found = new HashMap<>();
+            for (List<User> users : scatterGrouped(ids, IUserRepository::findAllById)) {
+                for (User user : users) {
+                    found.put(user.getId(), user);
+                }
+            }
+            // Sonuç, verilen id sırasını korur
+            List<User> users = new ArrayList<>(found.size());
+            for (Long id : ids) {
+                User user = found.get(id);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public int deleteAllById(Collection<Long> ids) {
+        return read(() -> {
+            int deleted = 0;
+            for (Integer count : scatterGrouped(ids, IUserRepository::deleteAllById)) {
+                deleted += count;
+            }
+            return deleted;
+        });
+    }
+
+    // ---------------------------------------------------------------
+    // Yeniden dağıtma
+    // ---------------------------------------------------------------
+
+    /**
+     * Shard sayısını değiştirir ve tüm kullanıcıları yeni shard'lara taşır
+     *
+     * Eski shard'lar okunur, kullanıcıların kopyaları yeni hash'e göre
+     * gruplanıp yeni shard'lara paralel olarak bulkLoad ile yüklenir. save
+     * kullanılmaz: boş shard'da sürüm 1'e dönerdi ve eski sürümü okumuş bir
+     * çağıranın saveIfVersion'ı, sürüm tekrar aynı değere geldiğinde başka
+     * bir satır durumunun üzerine yazabilirdi (ABA). İşlem boyunca diğer
+     * çağrılar bekler. Eski shard'lar AutoCloseable ise kapatılır.
+     *
+     * @param newShardCount Yeni shard sayısı
+     * @param shardFactory  Shard index'inden yeni bir InMemoryUserRepository üretir
+     * @throws IllegalArgumentException Factory sürüm koruyamayan bir repository üretirse
+     */
+    public void reshard(int newShardCount, IntFunction<IUserRepository> shardFactory) {
+        IUserRepository[] fresh = createShards(newShardCount, shardFactory);
+        for (IUserRepository shard : fresh) {
+            if (!(shard instanceof InMemoryUserRepository)) {
+                closeShards(fresh);
+                throw new IllegalArgumentException("Reshard target cannot preserve user versions: " +
+                        shard.getClass().getSimpleName());
+            }
+        }
+
+        topologyLock.writeLock().lock();
+        try {
+            IUserRepository[] old = shards;
+            long start = System.nanoTime();
+
+            List<List<User>> buckets = new ArrayList<>(newShardCount);
+            for (int i = 0; i < newShardCount; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            for (List<User> users : scatter(old, IUserRepository::findAll)) {
+                for (User user : users) {
+                    buckets.get(shardIndex(user.getId(), newShardCount)).add(user.copy());
+                }
+            }
+
+            List<CompletableFuture<?>> writes = new ArrayList<>(newShardCount);
+            for (int i = 0; i < newShardCount; i++) {
+                InMemoryUserRepository target = (InMemoryUserRepository) fresh[i];
+                List<User> bucket = buckets.get(i);
+                writes.add(CompletableFuture.runAsync(() -> target.bulkLoad(bucket), executor));
+            }
+            join(writes);
+
+            shards = fresh;
+            log("Resharded " + old.length + " -> " + newShardCount + " shards in " +
+                    (System.nanoTime() - start) / 1_000_000 + "ms");
+            closeShards(old);
+        } finally {
+            topologyLock.writeLock().unlock();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Shard'ları ve (bu sınıf oluşturduysa) thread havuzunu kapatır
+     */
+    @Override
+    public void close() {
+        closeShards(shards);
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Shard başına kullanıcı sayısı - dağılımın dengesini gösterir
+     */
+    public void printStatus() {
+        List<Long> counts = read(() -> scatter(IUserRepository::count));
+        long total = sum(counts);
+        System.out.println("\n=== Sharded Repository Status ===");
+        System.out.println("Shards: " + counts.size());
+        System.out.println("Total users: " + total);
+        for (int i = 0; i < counts.size(); i++) {
+            System.out.println("  Shard " + i + ": " + counts.get(i) + " users");
+        }
+        System.out.println("=================================\n");
+    }
+
+    // ---------------------------------------------------------------
+    // Yardımcılar
+    // ---------------------------------------------------------------
+
+    private IUserRepository shardFor(long id) {
+        IUserRepository[] current = shards;
+        return current[shardIndex(id, current.length)];
+    }
+
+    // Fibonacci hashing - ardışık id'leri shard'lara dengeli dağıtır
+    private static int shardIndex(long id, int shardCount) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) shardCount);
+    }
+
+    private static int keyStripe(String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), KEY_LOCK_STRIPES);
+    }
+
+    /**
+     * Hedef shard kendi içinde kontrol eder; burada diğer shard'lara bakılır
+     *
+     * @throws IllegalStateException username veya email başka shard'daki bir kullanıcıya aitse
+     */
+    private void checkUniqueAcrossShards(User user, IUserRepository target) {
+        for (IUserRepository shard : shards) {
+            if (shard == target) {
+                continue;
+            }
+            if (user.getUsername() != null) {
+                Optional<User> owner = shard.findByUsername(user.getUsername());
+                if (owner.isPresent() && !owner.get().getId().equals(user.getId())) {
+                    throw new IllegalStateException("Username already exists: " + user.getUsername());
+                }
+            }
+            if (user.getEmail() != null) {
+                Optional<User> owner = shard.findByEmail(user.getEmail());
+                if (owner.isPresent() && !owner.get().getId().equals(user.getId())) {
+                    throw new IllegalStateException("Email already registered: " + user.getEmail());
+                }
+            }
+        }
+    }
+
+    private <T> List<T> scatter(Function<IUserRepository, T> query) {
+        return scatter(shards, query);
+    }
+
+    /**
+     * Sorguyu tüm shard'larda paralel çalıştırır; ilk shard çağıran thread'de
+     * çalışır. Sonuçlar shard sırasıyla döner.
+     */
+    private <T> List<T> scatter(IUserRepository[] targets, Function<IUserRepository, T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(targets.length - 1);
+        for (int i = 1; i < targets.length; i++) {
+            IUserRepository shard = targets[i];
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), executor));
+        }
+
+        List<T> results = new ArrayList<>(targets.length);
+        T local;
+        try {
+            local = query.apply(targets[0]);
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        }
+        results.add(local);
+        results.addAll(join(futures));
+        return results;
+    }
+
+    /**
+     * id'leri shard'lara göre gruplar, her grubu kendi shard'ında paralel çalıştırır
+     */
+    private <T> List<T> scatterGrouped(Collection<Long> ids, BatchQuery<T> query) {
+        IUserRepository[] current = shards;
+        List<List<Long>> groups = new ArrayList<>(current.length);
+        for (int i = 0; i < current.length; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            if (id != null) {
+                groups.get(shardIndex(id, current.length)).add(id);
+            }
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int i = 0; i < current.length; i++) {
+            if (!groups.get(i).isEmpty()) {
+                IUserRepository shard = current[i];
+                List<Long> group = groups.get(i);
+                futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard, group), executor));
+            }
+        }
+        return join(futures);
+    }
+
+    private static <T> List<T> join(List<? extends CompletableFuture<? extends T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<? extends T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                // Shard'ın fırlattığı asıl exception çağırana iletilir
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private <T> T read(Callable<T> operation) {
+        topologyLock.readLock().lock();
+        try {
+            return operation.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
+
+    private static Optional<User> firstPresent(List<Optional<User>> results) {
+        for (Optional<User> result : results) {
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<User> merge(List<List<User>> results) {
+        int size = 0;
+        for (List<User> users : results) {
+            size += users.size();
+        }
+        List<User> merged = new ArrayList<>(size);
+        results.forEach(merged::addAll);
+        return merged;
+    }
+
+    private static long sum(List<Long> values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static long maxId(IUserRepository shard) {
+        try (Stream<User> users = shard.streamAll()) {
+            return users.mapToLong(User::getId).max().orElse(0);
+        }
+    }
+
+    private static IUserRepository[] createShards(int shardCount, IntFunction<IUserRepository> shardFactory) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        IUserRepository[] shards = new IUserRepository[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = shardFactory.apply(i);
+        }
+        return shards;
+    }
+
+    private static void closeShards(IUserRepository[] shards) {
+        for (IUserRepository shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Cannot close shard", e);
+                }
+            }
+        }
+    }
+
+    private static ExecutorService defaultExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "user-shard-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void log(String message) {
+        System.out.println("[ShardedRepository] " + message);
+    }
+
+    @FunctionalInterface
+    private interface BatchQuery<T> {
+        T apply(IUserRepository shard, List<Long> ids);
+    }
+}
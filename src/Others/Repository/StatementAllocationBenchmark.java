@@ -0,0 +1,93 @@
+package Others.Repository;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Prepared statement allocation benchmark'ı
+ *
+ * DatabaseUserRepository eskiden her çağrıda SQL metnini string birleştirme
+ * ile üretiyordu. Artık sabit şablon + bağlanan parametre kullanıyor.
+ * Bu benchmark çağrı başına ayrılan heap byte'ını ölçer
+ * (com.sun.management.ThreadMXBean#getThreadAllocatedBytes).
+ *
+ * Ölçülenler:
+ * 1. Eski yol: sadece SQL metnini birleştirmenin maliyeti
+ * 2. findById / findPage: şablonlu sorgunun uçtan uca maliyeti (loglama kapalı)
+ * 3. findById loglama açık: okunabilir SQL sadece bu durumda üretilir
+ *
+ * Kullanım: java Others.Repository.StatementAllocationBenchmark [iterations]
+ */
+public class StatementAllocationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // JIT'in ölçülen işi silmemesi için sonuçlar buraya toplanır
+    private static long sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        DatabaseUserRepository repository = BenchmarkSupport.quietly(() -> {
+            DatabaseUserRepository database = new DatabaseUserRepository("AllocationDB", false, 0);
+            for (int i = 0; i < 1_000; i++) {
+                database.save(new User(null, "user" + i, "user" + i + "@bench.com", "Bench User " + i));
+            }
+            return database;
+        });
+        DatabaseUserRepository loggingRepository = BenchmarkSupport.quietly(() -> {
+            DatabaseUserRepository database = new DatabaseUserRepository("AllocationLogDB", true, 0);
+            database.save(new User(null, "logged", "logged@bench.com", "Logged User"));
+            return database;
+        });
+
+        System.out.println("=== Statement Allocation Benchmark ===");
+        System.out.println("Iterations: " + iterations + "\n");
+
+        Operation legacyConcat = i -> sink += ("SELECT * FROM users WHERE id = " + (i % 1_000 + 1L)).length();
+        Operation legacyPageConcat = i -> sink += ("SELECT * FROM users WHERE id > " + (i % 1_000) +
+                " ORDER BY id LIMIT " + 20).length();
+        Operation findById = i -> sink += repository.findById(i % 1_000 + 1L).isPresent() ? 1 : 0;
+        Operation findPage = i -> sink += repository.findPage(i % 1_000, 20).size();
+        Operation findByIdLogged = i -> sink += loggingRepository.findById(1L).isPresent() ? 1 : 0;
+
+        report("Legacy SQL concat (findById text)", measure(iterations, legacyConcat));
+        report("Legacy SQL concat (findPage text)", measure(iterations, legacyPageConcat));
+        report("findById, template + cache", measure(iterations, findById));
+        report("findPage, template + cache", measure(iterations / 10, findPage));
+        // Loglar susturulur ama render edilen SQL yine de üretilir
+        report("findById, logging on", BenchmarkSupport.quietly(() -> measure(iterations / 10, findByIdLogged)));
+
+        System.out.println("\n(sink " + sink + ")");
+        BenchmarkSupport.quietly(repository::printDatabaseStats);
+    }
+
+    /**
+     * Isınma turundan sonra çağrı başına ayrılan byte ve süreyi ölçer
+     */
+    private static String measure(int iterations, Operation operation) {
+        for (int i = 0; i < iterations; i++) {
+            operation.run(i);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run(i);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return String.format("%8.1f bytes/op  %8.1f ns/op", (double) bytes / iterations, (double) nanos / iterations);
+    }
+
+    private static void report(String name, String result) {
+        System.out.println(String.format("%-36s %s", name, result));
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int i);
+    }
+}
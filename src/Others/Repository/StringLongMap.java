@@ -0,0 +1,180 @@
+package Others.Repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * String anahtarlı, primitive long değerli open-addressing (linear probing) hash tablosu
+ *
+ * ConcurrentHashMap<String, Long> her kayıt için bir Node ve bir boxed Long
+ * harcar. Bu tablo anahtarları String[] içinde, değerleri long[] içinde
+ * tutar: kayıt başına ek nesne yoktur (String'ler zaten User'a aittir).
+ *
+ * Eşzamanlılık LongUserMap ile aynıdır:
+ * - Okumalar kilitsizdir; slotlar VarHandle acquire/release ile okunup
+ *   yazılır (önce değer, sonra anahtar)
+ * - Yazmalar tek bir monitor altında yapılır
+ * - Silinen slotun anahtarı yerinde kalır, değeri ABSENT olur (tombstone);
+ *   tombstone'lar bir sonraki rehash'te temizlenir
+ */
+class StringLongMap {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // "Değer yok" işareti - get'in boş dönüşü ve tombstone değeri
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final float MAX_FILL = 0.7f;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile int size;
+
+    // Dolu slot sayısı (canlı kayıtlar + tombstone'lar), sadece yazma kilidi altında
+    private int usedSlots;
+
+    /**
+     * @return Anahtarın değeri, yoksa (veya key null ise) ABSENT
+     */
+    long get(String key) {
+        if (key == null) {
+            return ABSENT;
+        }
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            String k = (String) KEYS.getAcquire(t.keys, index);
+            if (k == null) {
+                return ABSENT;
+            }
+            if (k.equals(key)) {
+                return (long) VALUES.getAcquire(t.values, index);
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    synchronized void put(String key, long value) {
+        if (key == null || value == ABSENT) {
+            throw new IllegalArgumentException("Key cannot be null and value cannot be ABSENT");
+        }
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            String k = t.keys[index];
+            if (k == null) {
+                break;
+            }
+            if (k.equals(key)) {
+                if (t.values[index] == ABSENT) {
+                    size++;
+                }
+                VALUES.setRelease(t.values, index, value);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Yeni slot - önce değer, sonra anahtar yayınlanır
+        VALUES.setRelease(t.values, index, value);
+        KEYS.setRelease(t.keys, index, key);
+        usedSlots++;
+        size++;
+
+        if (usedSlots > t.keys.length * MAX_FILL) {
+            rehash();
+        }
+    }
+
+    /**
+     * Anahtar hâlâ expectedValue'ya eşlenmişse kaldırır (ConcurrentHashMap.remove(k, v) gibi)
+     */
+    synchronized boolean remove(String key, long expectedValue) {
+        if (key == null) {
+            return false;
+        }
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            String k = t.keys[index];
+            if (k == null) {
+                return false;
+            }
+            if (k.equals(key)) {
+                if (t.values[index] != expectedValue || expectedValue == ABSENT) {
+                    return false;
+                }
+                // Anahtar tombstone olarak kalır
+                VALUES.setRelease(t.values, index, ABSENT);
+                size--;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    synchronized void clear() {
+        table = new Table(MIN_CAPACITY);
+        usedSlots = 0;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Canlı kayıtları yeni bir tabloya taşır, tombstone'ları atar
+     */
+    private void rehash() {
+        Table old = table;
+        Table fresh = new Table(capacityFor(Math.max(size * 2, MIN_CAPACITY)));
+
+        int mask = fresh.keys.length - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            String key = old.keys[i];
+            if (key == null || old.values[i] == ABSENT) {
+                continue;
+            }
+            int index = hash(key) & mask;
+            while (fresh.keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            fresh.keys[index] = key;
+            fresh.values[index] = old.values[i];
+        }
+
+        usedSlots = size;
+        // volatile yazma - yeni tablo tamamen doldurulduktan sonra yayınlanır
+        table = fresh;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_FILL) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // String.hashCode önbelleklidir; Fibonacci çarpımı benzer anahtarları dağıtır
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+        private final String[] keys;
+        private final long[] values;
+
+        private Table(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new long[capacity];
+        }
+    }
+}
@@ -18,6 +18,9 @@ public class User {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Optimistic locking - her başarılı save'de repository tarafından artırılır (0 = henüz kaydedilmedi)
+    private long version;
+
     // Constructor - Yeni kullanıcı oluşturma
     public User(Long id, String username, String email, String fullName) {
         this.id = id;
@@ -36,6 +39,29 @@ public class User {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Copy constructor - copy() için
+    private User(User other) {
+        this.id = other.id;
+        this.username = other.username;
+        this.email = other.email;
+        this.fullName = other.fullName;
+        this.active = other.active;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+
+    /**
+     * Bağımsız bir kopya döner (sürüm dahil)
+     *
+     * Read-modify-save akışlarında repository'nin sakladığı nesne yerine
+     * kopyası değiştirilir; böylece eşzamanlı okuyucular yarım değişiklik
+     * görmez ve saveIfVersion sürüm çakışmasını yakalayabilir.
+     */
+    public User copy() {
+        return new User(this);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -97,6 +123,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // equals ve hashCode - ID bazlı karşılaştırma
     @Override
     public boolean equals(Object o) {
@@ -122,6 +156,7 @@ public class User {
                 ", active=" + active +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 
@@ -0,0 +1,532 @@
+package Others.Repository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Toplu dışa / içe aktarma (bulk export / import)
+ *
+ * Bir repository'nin tüm içeriğini kompakt, akış (streaming) halinde
+ * okunan bir binary formata yazar ve geri yükler. Dışa aktarma streamAll()
+ * ile yapılır; tüm tablo belleğe kopyalanmaz.
+ *
+ * Format:
+ *   [int magic "UBLK"][int format sürümü]
+ *   { [varint kayıt uzunluğu][kayıt] }*
+ *   [varint 0 = son][varint kayıt sayısı]
+ *
+ * Kayıt:
+ * - id: önceki kaydın id'sine göre fark, zigzag varint (ardışık id'ler 1 byte)
+ * - flags (1 byte): active ve hangi alanların dolu olduğu
+ * - version: varint
+ * - createdAt: önceki kaydın createdAt'ine göre saniye farkı (zigzag) + nano
+ *   updatedAt: aynı kaydın createdAt'ine göre saniye farkı (zigzag) + nano
+ * - username: UTF-8 literal (benzersiz olduğu için sözlüğe alınmaz)
+ * - email: '@' öncesi literal (username ile aynıysa sadece flag), domain sözlük kodlu
+ * - fullName: kelime sayısı + sözlük kodlu kelimeler (ad/soyad tekrar eder)
+ *
+ * Sözlük kodlama: referans 0 ise ardından literal gelir ve sözlüğe eklenir,
+ * n ise sözlüğün (n-1). girdisidir. Sözlük iki tarafta aynı sırayla
+ * kurulduğu için dosyaya ayrıca yazılmaz; sınırsız büyümemesi için
+ * MAX_DICTIONARY_SIZE girdiden sonra yeni değerler hep literal yazılır.
+ *
+ * İçe aktarma:
+ * - InMemoryUserRepository: kayıtlar okunup bulkLoad ile tek seferde
+ *   yüklenir (indeksler sonda bir kez kurulur, id ve sürümler korunur)
+ * - DatabaseUserRepository ve MappedFileUserRepository: IMPORT_BATCH_SIZE'lık
+ *   saveAll batch'leri. Kullanıcılar id'leriyle kaydedilir, sürüm hedefte
+ *   yeniden verilir. Sonrasında id sayacı en büyük id'nin ötesine alınır
+ *   (Database: advanceIdsTo, MappedFile: açık id'li kayıtta kendisi)
+ * - Diğerleri (decorator'lar, OpenAddressing, Sharded) reddedilir: id
+ *   sayaçları dışarıdan ilerletilemez, sonraki insert'ler import edilen
+ *   id'lerle çakışırdı. Import alttaki repository'ye yapılıp sonra
+ *   decorator'larla sarılmalıdır.
+ */
+public final class UserBulkTransfer {
+
+    private static final int MAGIC = 0x55424c4b;   // "UBLK"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int ACTIVE = 1;
+    private static final int HAS_CREATED_AT = 1 << 1;
+    private static final int HAS_UPDATED_AT = 1 << 2;
+    private static final int HAS_USERNAME = 1 << 3;
+    private static final int HAS_EMAIL = 1 << 4;
+    private static final int HAS_FULL_NAME = 1 << 5;
+    // email'de '@' yok - tamamı literal
+    private static final int EMAIL_LITERAL = 1 << 6;
+    // email'in '@' öncesi username ile aynı - tekrar yazılmaz
+    private static final int EMAIL_LOCAL_IS_USERNAME = 1 << 7;
+
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+    static final int IMPORT_BATCH_SIZE = 10_000;
+
+    private UserBulkTransfer() {
+    }
+
+    /**
+     * Repository'nin tüm kullanıcılarını yazar (stream kapatılmaz, flush edilir)
+     *
+     * @return Yazılan kullanıcı sayısı
+     */
+    public static long export(IUserRepository source, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out);
+        try (Stream<User> users = source.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                encoder.write(iterator.next());
+            }
+        }
+        return encoder.finish();
+    }
+
+    /**
+     * Dışa aktarılmış kullanıcıları repository'ye yükler (stream kapatılmaz)
+     *
+     * @return Yüklenen kullanıcı sayısı
+     * @throws IOException Format hatalı veya dosya yarım kalmışsa
+     * @throws IllegalArgumentException Hedefin id sayacı ilerletilemiyorsa
+     */
+    public static long importInto(IUserRepository target, InputStream in) throws IOException {
+        if (!(target instanceof InMemoryUserRepository || target instanceof DatabaseUserRepository
+                || target instanceof MappedFileUserRepository)) {
+            throw new IllegalArgumentException("Cannot import into " + target.getClass().getSimpleName() +
+                    ": its ID counter cannot be advanced past imported IDs");
+        }
+        Decoder decoder = new Decoder(in);
+        if (target instanceof InMemoryUserRepository memory) {
+            List<User> users = readAll(decoder);
+            memory.bulkLoad(users);
+            return users.size();
+        }
+
+        long imported = 0;
+        long maxId = 0;
+        List<User> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        for (User user = decoder.next(); user != null; user = decoder.next()) {
+            batch.add(user);
+            maxId = Math.max(maxId, user.getId());
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                imported += target.saveAll(batch).size();
+                batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += target.saveAll(batch).size();
+        }
+        if (target instanceof DatabaseUserRepository database) {
+            database.advanceIdsTo(maxId + 1);
+        }
+        return imported;
+    }
+
+    /**
+     * Dışa aktarılmış kullanıcıları okur (repository'ye yüklemeden)
+     */
+    public static List<User> readAll(InputStream in) throws IOException {
+        return readAll(new Decoder(in));
+    }
+
+    private static List<User> readAll(Decoder decoder) throws IOException {
+        List<User> users = new ArrayList<>();
+        for (User user = decoder.next(); user != null; user = decoder.next()) {
+            users.add(user);
+        }
+        return users;
+    }
+
+    // ---------------------------------------------------------------
+    // Yazma
+    // ---------------------------------------------------------------
+
+    private static final class Encoder {
+        private final OutputStream out;
+        private final Map<String, Integer> domains = new HashMap<>();
+        private final Map<String, Integer> words = new HashMap<>();
+
+        // Kayıt önce burada kodlanır (uzunluğu öne yazılabilsin diye), sonra çıkış tamponuna eklenir
+        private final ByteSink record = new ByteSink(256);
+        private final ByteSink buffer = new ByteSink(BUFFER_SIZE);
+
+        private long previousId;
+        private long previousCreatedSeconds;
+        private long count;
+
+        Encoder(OutputStream out) throws IOException {
+            this.out = out;
+            buffer.writeInt(MAGIC);
+            buffer.writeInt(FORMAT_VERSION);
+        }
+
+        void write(User user) throws IOException {
+            record.size = 0;
+            String email = user.getEmail();
+            int at = email == null ? -1 : email.lastIndexOf('@');
+
+            int flags = (user.isActive() ? ACTIVE : 0)
+                    | (user.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+                    | (user.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+                    | (user.getUsername() != null ? HAS_USERNAME : 0)
+                    | (email != null ? HAS_EMAIL : 0)
+                    | (email != null && at < 0 ? EMAIL_LITERAL : 0)
+                    | (at >= 0 && user.getUsername() != null && user.getUsername().length() == at
+                        && email.startsWith(user.getUsername()) ? EMAIL_LOCAL_IS_USERNAME : 0)
+                    | (user.getFullName() != null ? HAS_FULL_NAME : 0);
+
+            record.writeSignedVarint(user.getId() - previousId);
+            previousId = user.getId();
+            record.writeByte(flags);
+            record.writeVarint(user.getVersion());
+
+            long createdSeconds = previousCreatedSeconds;
+            if (user.getCreatedAt() != null) {
+                createdSeconds = user.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+                record.writeSignedVarint(createdSeconds - previousCreatedSeconds);
+                record.writeVarint(user.getCreatedAt().getNano());
+                previousCreatedSeconds = createdSeconds;
+            }
+            if (user.getUpdatedAt() != null) {
+                record.writeSignedVarint(user.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) - createdSeconds);
+                record.writeVarint(user.getUpdatedAt().getNano());
+            }
+            if (user.getUsername() != null) {
+                record.writeString(user.getUsername());
+            }
+            if (email != null) {
+                if (at < 0) {
+                    record.writeString(email);
+                } else {
+                    if ((flags & EMAIL_LOCAL_IS_USERNAME) == 0) {
+                        record.writeString(email.substring(0, at));
+                    }
+                    writeReference(domains, email.substring(at + 1));
+                }
+            }
+            if (user.getFullName() != null) {
+                writeFullName(user.getFullName());
+            }
+
+            if (record.size > MAX_RECORD_BYTES) {
+                throw new IllegalArgumentException("User " + user.getId() + " is too large to export: " + record.size + " bytes");
+            }
+            if (buffer.size + record.size + 5 > BUFFER_SIZE) {
+                flushBuffer();
+            }
+            buffer.writeVarint(record.size);
+            buffer.write(record.bytes, 0, record.size);
+            count++;
+        }
+
+        long finish() throws IOException {
+            buffer.writeVarint(0);
+            buffer.writeVarint(count);
+            flushBuffer();
+            out.flush();
+            return count;
+        }
+
+        // Kelimeler tek boşlukla ayrılır; ardışık boşluklar boş kelime olarak birebir korunur
+        private void writeFullName(String fullName) {
+            int wordCount = 1;
+            for (int i = 0; i < fullName.length(); i++) {
+                if (fullName.charAt(i) == ' ') {
+                    wordCount++;
+                }
+            }
+            record.writeVarint(wordCount);
+            int start = 0;
+            for (int i = 0; i <= fullName.length(); i++) {
+                if (i == fullName.length() || fullName.charAt(i) == ' ') {
+                    writeReference(words, fullName.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+
+        private void writeReference(Map<String, Integer> dictionary, String value) {
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                record.writeVarint(index + 1);
+                return;
+            }
+            record.writeVarint(0);
+            record.writeString(value);
+            if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+                dictionary.put(value, dictionary.size());
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buffer.bytes, 0, buffer.size);
+            buffer.size = 0;
+        }
+    }
+
+    /**
+     * Büyüyen byte tamponu - varint ve UTF-8 yazımı
+     */
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        // 7 bitlik gruplar, üst bit "devamı var"
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        // Zigzag: küçük negatif farklar da kısa kodlanır (-1 -> 1, 1 -> 2)
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Okuma
+    // ---------------------------------------------------------------
+
+    /**
+     * Kayıtları kendi tamponundan çözer (byte başına stream çağrısı yok)
+     */
+    private static final class Decoder {
+        private final InputStream in;
+        private final List<String> domains = new ArrayList<>();
+        private final List<String> words = new ArrayList<>();
+
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private long previousId;
+        private long previousCreatedSeconds;
+        private long count;
+        private boolean finished;
+
+        Decoder(InputStream in) throws IOException {
+            this.in = in;
+            require(8);
+            if (readInt() != MAGIC) {
+                throw new IOException("Not a user export stream");
+            }
+            int version = readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported user export format: " + version);
+            }
+        }
+
+        /**
+         * @return Sıradaki kullanıcı, son kayıttan sonra null
+         */
+        User next() throws IOException {
+            if (finished) {
+                return null;
+            }
+            require(1);
+            long length = readVarintFromStream();
+            if (length == 0) {
+                long expected = readVarintFromStream();
+                if (expected != count) {
+                    throw new IOException("Export trailer expects " + expected + " users, read " + count);
+                }
+                finished = true;
+                return null;
+            }
+            if (length > MAX_RECORD_BYTES) {
+                throw new IOException("Corrupt user export: record of " + length + " bytes");
+            }
+            require((int) length);
+            int end = position + (int) length;
+            User user;
+            try {
+                user = decode();
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt user export: record " + (count + 1) + " cannot be decoded", e);
+            }
+            if (position != end) {
+                throw new IOException("Corrupt user export: record " + (count + 1) + " has wrong length");
+            }
+            count++;
+            return user;
+        }
+
+        private User decode() {
+            long id = previousId + readSignedVarint();
+            previousId = id;
+            int flags = buffer[position++] & 0xFF;
+            long version = readVarint();
+
+            LocalDateTime createdAt = null;
+            LocalDateTime updatedAt = null;
+            long createdSeconds = previousCreatedSeconds;
+            if ((flags & HAS_CREATED_AT) != 0) {
+                createdSeconds = previousCreatedSeconds + readSignedVarint();
+                createdAt = LocalDateTime.ofEpochSecond(createdSeconds, (int) readVarint(), ZoneOffset.UTC);
+                previousCreatedSeconds = createdSeconds;
+            }
+            if ((flags & HAS_UPDATED_AT) != 0) {
+                long updatedSeconds = createdSeconds + readSignedVarint();
+                updatedAt = LocalDateTime.ofEpochSecond(updatedSeconds, (int) readVarint(), ZoneOffset.UTC);
+            }
+            String username = (flags & HAS_USERNAME) != 0 ? readString() : null;
+            String email = null;
+            if ((flags & HAS_EMAIL) != 0) {
+                if ((flags & EMAIL_LITERAL) != 0) {
+                    email = readString();
+                } else {
+                    String local = (flags & EMAIL_LOCAL_IS_USERNAME) != 0 ? username : readString();
+                    email = local + '@' + readReference(domains);
+                }
+            }
+            String fullName = (flags & HAS_FULL_NAME) != 0 ? readFullName() : null;
+
+            User user = new User(id, username, email, fullName);
+            user.setActive((flags & ACTIVE) != 0);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            user.setVersion(version);
+            return user;
+        }
+
+        private String readFullName() {
+            int wordCount = (int) readVarint();
+            String first = readReference(words);
+            if (wordCount == 1) {
+                return first;
+            }
+            StringBuilder fullName = new StringBuilder(32).append(first);
+            for (int i = 1; i < wordCount; i++) {
+                fullName.append(' ').append(readReference(words));
+            }
+            return fullName.toString();
+        }
+
+        private String readReference(List<String> dictionary) {
+            int reference = (int) readVarint();
+            if (reference > 0) {
+                return dictionary.get(reference - 1);
+            }
+            String value = readString();
+            if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+                dictionary.add(value);
+            }
+            return value;
+        }
+
+        private String readString() {
+            int length = (int) readVarint();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readSignedVarint() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        // Kayıt uzunluğu ve trailer - varint'in kaç byte olduğu önceden bilinmez
+        private long readVarintFromStream() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                require(1);
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt user export: malformed varint");
+        }
+
+        private int readInt() {
+            int value = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16)
+                    | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        // Tamponda en az bytes kadar okunmamış veri olmasını sağlar
+        private void require(int bytes) throws IOException {
+            if (limit - position >= bytes) {
+                return;
+            }
+            if (bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, bytes);
+            }
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+            while (limit < bytes) {
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    throw new EOFException("Truncated user export after " + count + " users");
+                }
+                limit += read;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package Others.Repository;
+
+/**
+ * Change feed olayı - bir kullanıcıya yapılan tek bir değişiklik
+ *
+ * Kompakt tutulur: kullanıcının kendisi değil, sadece id'si ve sürümü
+ * taşınır. Olayı işleyen (cache, arama indeksi) güncel veriye ihtiyaç
+ * duyarsa id'leri toplayıp findAllById ile tek seferde okur.
+ *
+ * Immutable'dır; ring buffer'a bir kez yazılır, tüm abonelerce paylaşılır.
+ */
+public final class UserChangeEvent {
+
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE,
+        // deleteAll - userId null
+        DELETE_ALL
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Long userId;
+    private final long version;
+    private final long timestampMillis;
+
+    UserChangeEvent(long sequence, Type type, Long userId, long version, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.userId = userId;
+        this.version = version;
+        this.timestampMillis = timestampMillis;
+    }
+
+    /**
+     * Feed içindeki sıra numarası (1'den başlar, artar; başarısız insert'lerin
+     * ayırdığı numaralar atlanır)
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Kaydedilen sürüm (INSERT / UPDATE); DELETE ve DELETE_ALL için 0
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    // İptal edilen ayrılmış numaranın slot'u (UserChangeFeed.cancel) - abonelere verilmez
+    boolean isCancelled() {
+        return type == null;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", userId=" + userId +
+                ", version=" + version +
+                '}';
+    }
+}
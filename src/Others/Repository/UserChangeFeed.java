@@ -0,0 +1,341 @@
+package Others.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Kullanıcı değişiklikleri için sınırlı, kilitsiz ring buffer (change feed)
+ *
+ * Yayıncılar (publish) sıra numarasını tek bir AtomicLong'dan alır ve
+ * olayı numaranın slot'una yazar; kilit yoktur. Numara önceden ayrılıp
+ * (claim) olay sonra yazılabilir; aboneler o numaraya gelince olay
+ * yazılana kadar bekler. Olay kendi sıra numarasını
+ * taşıdığı için okuyucu slot'taki olayın hangi tura ait olduğunu anlar:
+ * - olay.sequence == okunacak sıra : olay hazır
+ * - olay.sequence <  okunacak sıra : henüz yayınlanmamış (beklenir)
+ * - olay.sequence >  okunacak sıra : okuyucu tur bindirilmiş, olaylar kaçırıldı
+ *
+ * Her abonenin kendi imleci (position) vardır; aboneler birbirini
+ * beklemez. İmleç saklanıp subscribe(fromSequence) ile kalınan yerden
+ * devam edilebilir (olaylar hâlâ buffer'daysa).
+ *
+ * Yavaş abone politikası (OverflowPolicy):
+ * - DROP_OLDEST: yayıncı hiç beklemez, en eski olayların üzerine yazar.
+ *   Geride kalan abone kaçırdığı olay sayısını getDroppedEvents() ile
+ *   görür ve tam yeniden senkronizasyon (ör. streamAll) yapmalıdır.
+ * - BLOCK: yayıncı en yavaş abone yer açana kadar bekler (backpressure).
+ *   blockTimeout dolarsa yazma başarısız edilmez; geride kalan abone
+ *   tahliye edilir (evicted) ve o abone için DROP_OLDEST geçerli olur.
+ *   Böylece ölü bir abone yazmaları sonsuza kadar durduramaz.
+ */
+public class UserChangeFeed {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        BLOCK
+    }
+
+    private static final int DEFAULT_CAPACITY = 65_536;
+    private static final long DEFAULT_BLOCK_TIMEOUT_MS = 1_000;
+    private static final long WAIT_PARK_NANOS = 50_000;
+
+    private final AtomicReferenceArray<UserChangeEvent> slots;
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+
+    // Sıradaki yayınlanacak sıra numarası
+    private final AtomicLong nextSequence = new AtomicLong(1);
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // BLOCK: en yavaş abonenin son bilinen imleci - her yayında aboneleri taramamak için
+    private volatile long gatingSequence = 1;
+
+    private final LongAdder blockedPublishes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor - 65536 olay, DROP_OLDEST
+     */
+    public UserChangeFeed() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public UserChangeFeed(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, DEFAULT_BLOCK_TIMEOUT_MS);
+    }
+
+    /**
+     * @param capacity       Buffer'da tutulan olay sayısı (2'nin kuvvetine yuvarlanır)
+     * @param policy         Yavaş abone politikası
+     * @param blockTimeoutMs BLOCK'ta yayıncının en fazla bekleme süresi
+     */
+    public UserChangeFeed(int capacity, OverflowPolicy policy, long blockTimeoutMs) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+    }
+
+    /**
+     * Olayı yayınlar
+     *
+     * @return Olayın sıra numarası
+     */
+    long publish(UserChangeEvent.Type type, Long userId, long version) {
+        long sequence = claim();
+        publish(sequence, type, userId, version);
+        return sequence;
+    }
+
+    /**
+     * Olay için sıra numarası ayırır; olay sonra publish(sequence, ...) ile yazılır
+     *
+     * Sırası yazmadan önce belli olması gereken olaylar için (id'si delegate
+     * yazmasında atanan INSERT). Ayrılan her numara publish veya cancel ile
+     * mutlaka kapatılmalıdır; aksi halde aboneler o numarada bekler.
+     */
+    long claim() {
+        long sequence = nextSequence.getAndIncrement();
+        if (policy == OverflowPolicy.BLOCK) {
+            awaitSlot(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * claim ile ayrılmış numaraya olayı yazar
+     */
+    void publish(long sequence, UserChangeEvent.Type type, Long userId, long version) {
+        write(new UserChangeEvent(sequence, type, userId, version, System.currentTimeMillis()));
+    }
+
+    /**
+     * Ayrılmış numarayı olaysız kapatır (yazma başarısız oldu) - aboneler atlar
+     */
+    void cancel(long sequence) {
+        write(new UserChangeEvent(sequence, null, null, 0, System.currentTimeMillis()));
+    }
+
+    // DROP_OLDEST'te geç yazılan olayın slot'u bu arada daha yeni bir olayla
+    // dolmuş olabilir; o durumda yeni olayın üzerine yazılmaz (olay kaçırılmış sayılır)
+    private void write(UserChangeEvent event) {
+        int index = (int) (event.getSequence() & mask);
+        UserChangeEvent current = slots.get(index);
+        while ((current == null || current.getSequence() < event.getSequence())
+                && !slots.compareAndSet(index, current, event)) {
+            current = slots.get(index);
+        }
+    }
+
+    /**
+     * Bundan sonra yayınlanacak olaylara abone olur
+     */
+    public Subscription subscribe() {
+        return subscribe(nextSequence.get());
+    }
+
+    /**
+     * Verilen sıra numarasından itibaren abone olur (kalınan yerden devam)
+     *
+     * Olaylar artık buffer'da değilse abonelik en eski olaydan başlar ve
+     * aradaki olaylar kaçırılmış sayılır.
+     *
+     * @param fromSequence Okunacak ilk olayın sıra numarası (önceki aboneliğin getPosition()'ı)
+     */
+    public Subscription subscribe(long fromSequence) {
+        long next = nextSequence.get();
+        if (fromSequence < 1 || fromSequence > next) {
+            throw new IllegalArgumentException("Sequence " + fromSequence + " is outside the feed (next " + next + ")");
+        }
+        long oldest = Math.max(1, next - capacity);
+        Subscription subscription = new Subscription(Math.max(fromSequence, oldest));
+        subscription.dropped.add(Math.max(0, oldest - fromSequence));
+        subscriptions.add(subscription);
+        if (subscription.position < gatingSequence) {
+            gatingSequence = subscription.position;
+        }
+        return subscription;
+    }
+
+    /**
+     * Son yayınlanan olayın sıra numarası (henüz olay yoksa 0)
+     */
+    public long getLastSequence() {
+        return nextSequence.get() - 1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * BLOCK: yer açılmasını beklemek zorunda kalan yayın sayısı
+     */
+    public long getBlockedPublishes() {
+        return blockedPublishes.sum();
+    }
+
+    /**
+     * BLOCK: zaman aşımında tahliye edilen abone sayısı
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Slot'un önceki turdaki olayını tüm (tahliye edilmemiş) aboneler okuyana kadar bekler
+    private void awaitSlot(long sequence) {
+        long wrapPoint = sequence - capacity;
+        if (wrapPoint < gatingSequence) {
+            return;
+        }
+        long deadline = 0;
+        while (true) {
+            long minimum = minimumPosition(sequence);
+            gatingSequence = minimum;
+            if (wrapPoint < minimum) {
+                return;
+            }
+            if (deadline == 0) {
+                blockedPublishes.increment();
+                deadline = System.nanoTime() + blockTimeoutNanos;
+            } else if (System.nanoTime() - deadline >= 0) {
+                evictSlowerThan(wrapPoint);
+                return;
+            }
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+    }
+
+    private long minimumPosition(long sequence) {
+        long minimum = sequence;
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.evicted) {
+                minimum = Math.min(minimum, subscription.position);
+            }
+        }
+        return minimum;
+    }
+
+    private void evictSlowerThan(long wrapPoint) {
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.evicted && subscription.position <= wrapPoint) {
+                subscription.evicted = true;
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Bir abonenin okuma imleci
+     *
+     * Tek bir thread tarafından okunmalıdır (poll'lar eşzamanlı çağrılmamalı).
+     */
+    public final class Subscription implements AutoCloseable {
+
+        // Okunacak sıradaki olay
+        private volatile long position;
+        private volatile boolean evicted;
+        private final LongAdder dropped = new LongAdder();
+
+        private Subscription(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Hazır olayları alır, beklemez
+         *
+         * @param maxEvents En fazla olay sayısı
+         * @return Sıra numarasına göre artan olaylar (yoksa boş liste)
+         */
+        public List<UserChangeEvent> poll(int maxEvents) {
+            List<UserChangeEvent> events = new ArrayList<>(Math.min(maxEvents, 256));
+            long next = position;
+            while (events.size() < maxEvents) {
+                UserChangeEvent event = slots.get((int) (next & mask));
+                if (event == null || event.getSequence() < next) {
+                    break;
+                }
+                if (event.getSequence() > next) {
+                    // Tur bindirildi - hâlâ buffer'da olan en eski olaya atla
+                    long oldest = Math.max(next + 1, nextSequence.get() - capacity);
+                    dropped.add(oldest - next);
+                    next = oldest;
+                    continue;
+                }
+                if (!event.isCancelled()) {
+                    events.add(event);
+                }
+                next++;
+            }
+            position = next;
+            return events;
+        }
+
+        /**
+         * Olay gelene veya süre dolana kadar bekler
+         */
+        public List<UserChangeEvent> poll(int maxEvents, long timeout, TimeUnit unit) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            List<UserChangeEvent> events = poll(maxEvents);
+            while (events.isEmpty() && System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(WAIT_PARK_NANOS);
+                events = poll(maxEvents);
+            }
+            return events;
+        }
+
+        /**
+         * Okunacak sıradaki olayın sıra numarası - saklanıp subscribe(position) ile devam edilir
+         */
+        public long getPosition() {
+            return position;
+        }
+
+        /**
+         * Geride kalındığı için kaçırılan olay sayısı (0'dan büyükse tam senkronizasyon gerekir)
+         */
+        public long getDroppedEvents() {
+            return dropped.sum();
+        }
+
+        /**
+         * BLOCK politikasında zaman aşımıyla tahliye edildi mi (artık yayıncıları bekletmez)
+         */
+        public boolean isEvicted() {
+            return evicted;
+        }
+
+        /**
+         * Son yayınlanan olaya göre geride kalınan olay sayısı
+         */
+        public long getLag() {
+            return Math.max(0, nextSequence.get() - position);
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+}
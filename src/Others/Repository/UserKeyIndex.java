@@ -0,0 +1,171 @@
+package Others.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Username ve email için benzersiz (unique) ikincil indeks
+ *
+ * username -> id ve email -> id eşlemelerini tutar. Böylece findByUsername,
+ * findByEmail ve existsByUsername tüm kullanıcıları taramak yerine
+ * sabit zamanda (O(1)) cevap verir.
+ *
+ * User nesneleri mutable olduğu için (updateUser aynı nesneyi değiştirip
+ * save eder), eski değerler User üzerinden okunamaz. Bu yüzden her id için
+ * indekslenmiş son username/email ayrıca saklanır; güncellemede eski
+ * anahtarlar buradan bulunup silinir.
+ *
+ * Thread-safety:
+ * - Okumalar kilitsizdir (ConcurrentHashMap)
+ * - Yazmalar (index/remove/clear) repository'nin yazma kilidi altında çağrılmalıdır
+ */
+class UserKeyIndex {
+
+    private final Map<String, Long> usernameIndex = new ConcurrentHashMap<>();
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
+
+    // id -> en son indekslenen anahtarlar
+    private final Map<Long, IndexedKeys> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Kaydedilecek kullanıcının anahtarları başka bir kullanıcıda var mı kontrol eder
+     *
+     * @throws IllegalStateException username veya email başka bir id'ye aitse
+     */
+    void checkUnique(User user) {
+        Long owner = lookup(usernameIndex, user.getUsername());
+        if (owner != null && !owner.equals(user.getId())) {
+            throw new IllegalStateException("Username already exists: " + user.getUsername());
+        }
+        owner = lookup(emailIndex, user.getEmail());
+        if (owner != null && !owner.equals(user.getId())) {
+            throw new IllegalStateException("Email already registered: " + user.getEmail());
+        }
+    }
+
+    /**
+     * Toplu kayıt için benzersizlik kontrolü: hem indekse hem de batch'in
+     * kendi içine bakar. Böylece batch ya tamamen uygulanır ya hiç uygulanmaz.
+     *
+     * @throws IllegalStateException username veya email çakışıyorsa
+     */
+    void checkUnique(Collection<User> users) {
+        Map<String, User> batchUsernames = new HashMap<>();
+        Map<String, User> batchEmails = new HashMap<>();
+        for (User user : users) {
+            checkUnique(user);
+            if (user.getUsername() != null) {
+                User other = batchUsernames.putIfAbsent(user.getUsername(), user);
+                if (other != null && other != user) {
+                    throw new IllegalStateException("Duplicate username in batch: " + user.getUsername());
+                }
+            }
+            if (user.getEmail() != null) {
+                User other = batchEmails.putIfAbsent(user.getEmail(), user);
+                if (other != null && other != user) {
+                    throw new IllegalStateException("Duplicate email in batch: " + user.getEmail());
+                }
+            }
+        }
+    }
+
+    /**
+     * Kullanıcıyı indeksler; username/email değiştiyse eski anahtarları kaldırır
+     */
+    void index(User user) {
+        Long id = user.getId();
+        IndexedKeys previous = keysById.get(id);
+
+        if (previous != null) {
+            if (previous.username != null && !previous.username.equals(user.getUsername())) {
+                usernameIndex.remove(previous.username, id);
+            }
+            if (previous.email != null && !previous.email.equals(user.getEmail())) {
+                emailIndex.remove(previous.email, id);
+            }
+        }
+
+        if (user.getUsername() != null) {
+            usernameIndex.put(user.getUsername(), id);
+        }
+        if (user.getEmail() != null) {
+            emailIndex.put(user.getEmail(), id);
+        }
+        keysById.put(id, new IndexedKeys(user.getUsername(), user.getEmail()));
+    }
+
+    /**
+     * Boş indekse toplu ekleme (import) - benzersizlik kontrolü ve ekleme
+     * tek putIfAbsent ile yapılır, ayrı batch map'leri kurulmaz
+     *
+     * @throws IllegalStateException username veya email çakışıyorsa (indeks
+     *         yarım kalır; çağıran clear() ile geri almalıdır)
+     */
+    void indexAll(Collection<User> users) {
+        for (User user : users) {
+            Long id = user.getId();
+            if (user.getUsername() != null && usernameIndex.putIfAbsent(user.getUsername(), id) != null) {
+                throw new IllegalStateException("Username already exists: " + user.getUsername());
+            }
+            if (user.getEmail() != null && emailIndex.putIfAbsent(user.getEmail(), id) != null) {
+                throw new IllegalStateException("Email already registered: " + user.getEmail());
+            }
+            keysById.put(id, new IndexedKeys(user.getUsername(), user.getEmail()));
+        }
+    }
+
+    /**
+     * Kullanıcının anahtarlarını indeksten kaldırır
+     */
+    void remove(Long id) {
+        IndexedKeys previous = keysById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        if (previous.username != null) {
+            usernameIndex.remove(previous.username, id);
+        }
+        if (previous.email != null) {
+            emailIndex.remove(previous.email, id);
+        }
+    }
+
+    void clear() {
+        usernameIndex.clear();
+        emailIndex.clear();
+        keysById.clear();
+    }
+
+    Optional<Long> idByUsername(String username) {
+        return Optional.ofNullable(lookup(usernameIndex, username));
+    }
+
+    Optional<Long> idByEmail(String email) {
+        return Optional.ofNullable(lookup(emailIndex, email));
+    }
+
+    boolean containsUsername(String username) {
+        return lookup(usernameIndex, username) != null;
+    }
+
+    // ConcurrentHashMap null anahtar kabul etmez
+    private static Long lookup(Map<String, Long> index, String key) {
+        return key == null ? null : index.get(key);
+    }
+
+    /**
+     * Bir kullanıcı için indekslenmiş anahtarların değişmez kopyası
+     */
+    private static final class IndexedKeys {
+        private final String username;
+        private final String email;
+
+        private IndexedKeys(String username, String email) {
+            this.username = username;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,618 @@
+package Others.Repository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Type-ahead arama indeksi (fullName, username, email)
+ *
+ * İki yapıdan oluşur:
+ * - Prefix için radix trie (sıkıştırılmış trie): fullName'in kelimeleri,
+ *   username ve email terim olarak eklenir. Tek çocuklu zincirler tek kenarda
+ *   birleştirildiği için milyonlarca terimde bile düğüm sayısı küçük kalır.
+ * - Substring için trigram indeksi: her alanın 3 karakterlik parçaları ->
+ *   id bitmap'i (IdBitmap). Sorgunun tüm trigram'larını içeren id'ler
+ *   adaydır; adaylar gerçek metinle doğrulanır (trigram eşleşmesi yanlış
+ *   pozitif verebilir).
+ *
+ * Sıralama: önce tam terim eşleşmesi, sonra prefix, sonra substring eşleşmesi.
+ * Arama büyük/küçük harfe duyarsızdır.
+ *
+ * Kullanıcı nesneleri mutable olduğu için her id'nin indekslenmiş son metni
+ * ayrıca saklanır; güncellemede eski terimler buradan bulunup silinir.
+ *
+ * Thread-safety: Aramalar read lock, index/remove/clear write lock alır.
+ */
+class UserSearchIndex {
+
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_SUBSTRING = 2;
+    private static final int NO_MATCH = -1;
+
+    private final RadixTrie trie = new RadixTrie();
+    private final Map<Long, IdBitmap> trigrams = new HashMap<>();
+
+    // id -> indekslenmiş son alanlar (küçük harfe çevrilmiş)
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Kullanıcıyı indeksler; alanlar değiştiyse eski terimleri kaldırır
+     */
+    void index(User user) {
+        Document document = Document.of(user);
+        lock.writeLock().lock();
+        try {
+            indexLocked(user.getId(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Toplu yükleme (import) - kilit bir kez alınır
+     *
+     * Boş indekste kullanıcılar id sırasıyla işlenir; her trigram'ın bitmap'i
+     * sondan eklenerek kurulur (IdBitmap.SortedBuilder). id başına bitmap
+     * araması, Set<Long> ve kutulanmış anahtar yoktur. İndeks boş değilse
+     * kullanıcılar tek tek indekslenir.
+     */
+    void indexAll(Collection<User> users) {
+        lock.writeLock().lock();
+        try {
+            if (!documents.isEmpty()) {
+                for (User user : users) {
+                    indexLocked(user.getId(), Document.of(user));
+                }
+                return;
+            }
+            List<User> byId = new ArrayList<>(users);
+            byId.sort(Comparator.comparing(User::getId));
+            PostingTable postings = new PostingTable();
+            for (User user : byId) {
+                long id = user.getId();
+                Document document = Document.of(user);
+                documents.put(id, document);
+                for (String term : document.terms()) {
+                    trie.insert(term, id);
+                }
+                document.forEachTrigram(trigram -> postings.get(trigram).add(id));
+            }
+            postings.forEach((trigram, posting) -> trigrams.put(trigram, posting.build()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            trigrams.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sorguyla eşleşen en fazla limit kullanıcının id'sini sıralı döner
+     */
+    List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            // LinkedHashSet: ilk eklenen (en iyi) sıra korunur, tekrarlar atlanır
+            Set<Long> results = new LinkedHashSet<>();
+            trie.collectPrefixMatches(normalized, limit, results);
+            if (results.size() < limit && normalized.length() >= 3) {
+                collectSubstringMatches(normalized, limit, results);
+            }
+            return new ArrayList<>(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Kullanıcının sorguyla eşleşme derecesi (indeksi olmayan repository'ler
+     * ve shard sonuçlarını birleştirme için ortak sıralama)
+     *
+     * @return 0 = tam terim, 1 = prefix, 2 = substring, -1 = eşleşme yok
+     */
+    static int matchRank(User user, String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return NO_MATCH;
+        }
+        Document document = Document.of(user);
+        int rank = NO_MATCH;
+        for (String term : document.terms()) {
+            if (term.equals(normalized)) {
+                return RANK_EXACT;
+            }
+            if (term.startsWith(normalized)) {
+                rank = RANK_PREFIX;
+            }
+        }
+        if (rank == NO_MATCH && document.contains(normalized)) {
+            rank = RANK_SUBSTRING;
+        }
+        return rank;
+    }
+
+    /**
+     * Kullanıcıları eşleşme derecesi, sonra id sırasıyla karşılaştırır
+     */
+    static Comparator<User> byRank(String query) {
+        return Comparator.<User>comparingInt(user -> matchRank(user, query))
+                .thenComparing(User::getId);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * En küçük posting listesi aday kümesidir; adaylar id sırasıyla gezilir
+     * ve limit eşleşme bulununca durulur (yaygın trigram'larda listenin
+     * tamamı kopyalanmaz). Aday, belgenin kendisiyle kesin olarak kontrol
+     * edilir: gezinme sırasında smallest'ın kilidi tutulur, başka bir
+     * bitmap'in kilidini almak eşzamanlı aramalarla deadlock'a yol açabilir.
+     */
+    private void collectSubstringMatches(String query, int limit, Set<Long> results) {
+        IdBitmap smallest = null;
+        for (long trigram : trigramsOf(query)) {
+            IdBitmap posting = trigrams.get(trigram);
+            if (posting == null) {
+                return;
+            }
+            if (smallest == null || posting.cardinality() < smallest.cardinality()) {
+                smallest = posting;
+            }
+        }
+
+        smallest.forEachWhile(id -> {
+            if (documents.get(id).contains(query)) {
+                results.add(id);
+            }
+            return results.size() < limit;
+        });
+    }
+
+    private void indexLocked(Long id, Document document) {
+        Document previous = documents.get(id);
+        if (document.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        documents.put(id, document);
+        for (String term : document.terms()) {
+            trie.insert(term, id);
+        }
+        for (long trigram : document.trigrams()) {
+            trigrams.computeIfAbsent(trigram, key -> new IdBitmap()).add(id);
+        }
+    }
+
+    private void unindex(Long id, Document document) {
+        for (String term : document.terms()) {
+            trie.remove(term, id);
+        }
+        for (long trigram : document.trigrams()) {
+            IdBitmap posting = trigrams.get(trigram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.cardinality() == 0) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+
+    // 3 karakter tek long'a paketlenir (karakter başına 16 bit). Paket tek bir
+    // sabitle çarpılır (birebir dönüşüm): aksi halde Long.hashCode ilk
+    // karakteri son ikisinin üstüne katlar ve HashMap bucket'ları çakışır.
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> result = new HashSet<>();
+        forEachTrigram(text, result::add);
+        return result;
+    }
+
+    private static void forEachTrigram(String text, LongConsumer action) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long packed = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            action.accept(packed * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    // Regex \s ile aynı karakterler - split("\\s+") her çağrıda Pattern derler
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Toplu yüklemede trigram -> posting builder tablosu (open addressing)
+     *
+     * Trigram anahtarları zaten karıştırılmış (sabitle çarpılmış) long'lardır;
+     * üst bitleri doğrudan slot olur. HashMap<Long, ...> her erişimde
+     * anahtarı kutulardı - toplu yüklemede bu kullanıcı başına onlarca erişimdir.
+     */
+    private static final class PostingTable {
+        private long[] keys = new long[1 << 12];
+        private IdBitmap.SortedBuilder[] values = new IdBitmap.SortedBuilder[1 << 12];
+        private int shift = 64 - 12;
+        private int size;
+
+        IdBitmap.SortedBuilder get(long trigram) {
+            int mask = keys.length - 1;
+            int slot = (int) (trigram >>> shift);
+            while (values[slot] != null) {
+                if (keys[slot] == trigram) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            IdBitmap.SortedBuilder created = new IdBitmap.SortedBuilder();
+            keys[slot] = trigram;
+            values[slot] = created;
+            if (++size > keys.length / 2) {
+                grow();
+            }
+            return created;
+        }
+
+        void forEach(BiConsumer<Long, IdBitmap.SortedBuilder> action) {
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    action.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            IdBitmap.SortedBuilder[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new IdBitmap.SortedBuilder[oldKeys.length * 2];
+            shift--;
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = (int) (oldKeys[i] >>> shift);
+                    while (values[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Bir kullanıcının indekslenen alanları (küçük harf)
+     */
+    private static final class Document {
+        private final String fullName;
+        private final String username;
+        private final String email;
+
+        private Document(String fullName, String username, String email) {
+            this.fullName = fullName;
+            this.username = username;
+            this.email = email;
+        }
+
+        static Document of(User user) {
+            return new Document(normalize(user.getFullName()), normalize(user.getUsername()),
+                    normalize(user.getEmail()));
+        }
+
+        /**
+         * Prefix terimleri: fullName'in kelimeleri, username, email
+         */
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>();
+            int start = 0;
+            for (int i = 0; i <= fullName.length(); i++) {
+                if (i == fullName.length() || isWhitespace(fullName.charAt(i))) {
+                    if (i > start) {
+                        terms.add(fullName.substring(start, i));
+                    }
+                    start = i + 1;
+                }
+            }
+            if (!username.isEmpty()) {
+                terms.add(username);
+            }
+            if (!email.isEmpty()) {
+                terms.add(email);
+            }
+            return terms;
+        }
+
+        Set<Long> trigrams() {
+            Set<Long> result = trigramsOf(fullName);
+            result.addAll(trigramsOf(username));
+            result.addAll(trigramsOf(email));
+            return result;
+        }
+
+        // Tekrarlar ayıklanmaz (toplu yüklemede IdBitmap.SortedBuilder aynı id'yi bir kez ekler)
+        void forEachTrigram(LongConsumer action) {
+            UserSearchIndex.forEachTrigram(fullName, action);
+            UserSearchIndex.forEachTrigram(username, action);
+            UserSearchIndex.forEachTrigram(email, action);
+        }
+
+        boolean contains(String query) {
+            return fullName.contains(query) || username.contains(query) || email.contains(query);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Document other)) return false;
+            return fullName.equals(other.fullName) && username.equals(other.username) && email.equals(other.email);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fullName, username, email);
+        }
+    }
+
+    /**
+     * Radix trie - kenarlar karakter dizisi taşır, terim sonu düğümünde id'ler tutulur
+     */
+    private static final class RadixTrie {
+        private Node root = new Node("");
+
+        void clear() {
+            root = new Node("");
+        }
+
+        void insert(String term, long id) {
+            Node node = root;
+            int position = 0;
+            while (position < term.length()) {
+                int index = node.childIndex(term.charAt(position));
+                if (index < 0) {
+                    Node leaf = new Node(term.substring(position));
+                    leaf.addId(id);
+                    node.insertChild(-index - 1, leaf);
+                    return;
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, term, position);
+                if (common < child.label.length()) {
+                    // Kenarı böl: ortak kısım yeni ara düğüm olur
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children = new Node[]{child};
+                    node.children[index] = middle;
+                    child = middle;
+                }
+                node = child;
+                position += common;
+            }
+            node.addId(id);
+        }
+
+        void remove(String term, long id) {
+            remove(root, null, -1, term, 0, id);
+        }
+
+        // Boşalan düğümü siler, tek çocuklu ara düğümü çocuğuyla birleştirir
+        private void remove(Node node, Node parent, int indexInParent, String term, int position, long id) {
+            if (position == term.length()) {
+                node.removeId(id);
+            } else {
+                int index = node.childIndex(term.charAt(position));
+                if (index < 0) {
+                    return;
+                }
+                Node child = node.children[index];
+                if (!term.startsWith(child.label, position)) {
+                    return;
+                }
+                remove(child, node, index, term, position + child.label.length(), id);
+            }
+
+            if (parent == null) {
+                return;
+            }
+            if (node.isEmpty() && node.children.length == 0) {
+                parent.removeChild(indexInParent);
+            } else if (node.isEmpty() && node.children.length == 1) {
+                Node only = node.children[0];
+                only.label = node.label + only.label;
+                parent.children[indexInParent] = only;
+            }
+        }
+
+        /**
+         * Prefix'le başlayan terimlerin id'lerini DFS (önce kısa terim) ile toplar
+         */
+        void collectPrefixMatches(String prefix, int limit, Set<Long> results) {
+            Node node = root;
+            int position = 0;
+            while (position < prefix.length()) {
+                int index = node.childIndex(prefix.charAt(position));
+                if (index < 0) {
+                    return;
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, prefix, position);
+                if (position + common == prefix.length()) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return;
+                }
+                node = child;
+                position += common;
+            }
+
+            // Prefix tam bir terimse önce o terimin sahipleri (tam eşleşme) gelir
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty() && results.size() < limit) {
+                Node current = stack.pop();
+                current.collectIds(limit, results);
+                for (int i = current.children.length - 1; i >= 0; i--) {
+                    stack.push(current.children[i]);
+                }
+            }
+        }
+
+        private static int commonPrefix(String label, String term, int offset) {
+            int max = Math.min(label.length(), term.length() - offset);
+            int i = 0;
+            while (i < max && label.charAt(i) == term.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final long[] NO_IDS = new long[0];
+
+        // Bu sayıyı aşan id listeleri (ör. "mehmet" gibi yaygın isimler)
+        // bitmap'e taşınır; silme doğrusal tarama gerektirmez
+        private static final int MAX_ARRAY_IDS = 64;
+
+        private String label;
+        // İlk karakterlerine göre sıralı - ikili arama ile bulunur
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+        private int idCount;
+        private IdBitmap manyIds;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void removeChild(int index) {
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        // Aynı id aynı terime iki kez eklenmez (Document.terms() bir Set'tir)
+        void addId(long id) {
+            if (manyIds != null) {
+                manyIds.add(id);
+                return;
+            }
+            if (idCount == MAX_ARRAY_IDS) {
+                manyIds = new IdBitmap();
+                for (int i = 0; i < idCount; i++) {
+                    manyIds.add(ids[i]);
+                }
+                manyIds.add(id);
+                ids = NO_IDS;
+                idCount = 0;
+                return;
+            }
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(2, idCount * 2));
+            }
+            ids[idCount++] = id;
+        }
+
+        boolean isEmpty() {
+            return manyIds == null ? idCount == 0 : manyIds.cardinality() == 0;
+        }
+
+        void collectIds(int limit, Set<Long> results) {
+            if (manyIds != null) {
+                manyIds.forEachWhile(id -> {
+                    results.add(id);
+                    return results.size() < limit;
+                });
+                return;
+            }
+            for (int i = 0; i < idCount && results.size() < limit; i++) {
+                results.add(ids[i]);
+            }
+        }
+
+        void removeId(long id) {
+            if (manyIds != null) {
+                manyIds.remove(id);
+                return;
+            }
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--idCount];
+                    if (idCount == 0) {
+                        ids = NO_IDS;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package Others.Repository;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Service Layer (Business Logic Layer)
@@ -21,9 +25,15 @@ import java.util.Optional;
  */
 public class UserService {
 
+    // Sürüm çakışmasında bir güncellemenin en fazla deneme sayısı
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+
     // Interface'e bağımlılık (implementasyona değil!)
     private final IUserRepository userRepository;
 
+    // Sürüm çakışması nedeniyle tekrarlanan güncelleme denemeleri
+    private final LongAdder conflictRetries = new LongAdder();
+
     /**
      * Constructor - Dependency Injection
      *
@@ -48,25 +58,7 @@ public class UserService {
     public User registerUser(String username, String email, String fullName) {
         log("Attempting to register user: " + username);
 
-        // Validation
-        if (username == null || username.trim().isEmpty()) {
-            throw new IllegalArgumentException("Username cannot be empty");
-        }
-
-        if (email == null || !email.contains("@")) {
-            throw new IllegalArgumentException("Invalid email format");
-        }
-
-        // Business Rule: Kullanıcı adı benzersiz olmalı
-        if (userRepository.existsByUsername(username)) {
-            throw new IllegalStateException("Username already exists: " + username);
-        }
-
-        // Business Rule: Email benzersiz olmalı
-        Optional<User> existingUser = userRepository.findByEmail(email);
-        if (existingUser.isPresent()) {
-            throw new IllegalStateException("Email already registered: " + email);
-        }
+        validateNewUser(username, email);
 
         // Yeni kullanıcı oluştur ve kaydet
         User newUser = new User(null, username, email, fullName);
@@ -76,31 +68,61 @@ public class UserService {
         return savedUser;
     }
 
+    /**
+     * Toplu kullanıcı kaydı (bulk import)
+     *
+     * registerUser ile aynı kuralları uygular, ayrıca batch içinde tekrar eden
+     * username/email'leri reddeder. Tüm kontroller geçerse kullanıcılar tek
+     * bir saveAll çağrısıyla (tek statement, tek commit) kaydedilir; herhangi
+     * bir kayıt geçersizse hiçbiri kaydedilmez.
+     *
+     * @param newUsers ID'si atanmamış yeni kullanıcılar
+     * @return Kaydedilen kullanıcılar (ID atanmış haliyle)
+     */
+    public List<User> registerUsers(List<User> newUsers) {
+        log("Attempting to register " + newUsers.size() + " users");
+
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (User user : newUsers) {
+            if (user.getId() != null) {
+                throw new IllegalArgumentException("New user must not have an ID: " + user.getId());
+            }
+            if (user.getUsername() != null && !batchUsernames.add(user.getUsername())) {
+                throw new IllegalStateException("Duplicate username in batch: " + user.getUsername());
+            }
+            if (user.getEmail() != null && !batchEmails.add(user.getEmail())) {
+                throw new IllegalStateException("Duplicate email in batch: " + user.getEmail());
+            }
+            validateNewUser(user.getUsername(), user.getEmail());
+        }
+
+        List<User> savedUsers = userRepository.saveAll(newUsers);
+        log("Registered " + savedUsers.size() + " users");
+        return savedUsers;
+    }
+
     /**
      * Kullanıcı bilgilerini güncelle
      */
     public User updateUser(Long userId, String newEmail, String newFullName) {
         log("Updating user: " + userId);
 
-        // Kullanıcı var mı kontrol et
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
-
-        // Email değişiyorsa, başka kullanıcıda kullanılmıyor mu kontrol et
-        if (newEmail != null && !newEmail.equals(user.getEmail())) {
-            Optional<User> existingUser = userRepository.findByEmail(newEmail);
-            if (existingUser.isPresent() && !existingUser.get().getId().equals(userId)) {
-                throw new IllegalStateException("Email already in use: " + newEmail);
+        User updatedUser = updateWithRetry(userId, user -> {
+            // Email değişiyorsa, başka kullanıcıda kullanılmıyor mu kontrol et
+            if (newEmail != null && !newEmail.equals(user.getEmail())) {
+                Optional<User> existingUser = userRepository.findByEmail(newEmail);
+                if (existingUser.isPresent() && !existingUser.get().getId().equals(userId)) {
+                    throw new IllegalStateException("Email already in use: " + newEmail);
+                }
+                user.setEmail(newEmail);
             }
-            user.setEmail(newEmail);
-        }
-
-        // Full name güncelle
-        if (newFullName != null && !newFullName.trim().isEmpty()) {
-            user.setFullName(newFullName);
-        }
 
-        User updatedUser = userRepository.save(user);
+            // Full name güncelle
+            if (newFullName != null && !newFullName.trim().isEmpty()) {
+                user.setFullName(newFullName);
+            }
+        });
         log("User updated successfully: " + userId);
         return updatedUser;
     }
@@ -111,11 +133,7 @@ public class UserService {
     public void deactivateUser(Long userId) {
         log("Deactivating user: " + userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
-
-        user.deactivate();
-        userRepository.save(user);
+        updateWithRetry(userId, User::deactivate);
 
         log("User deactivated: " + userId);
     }
@@ -126,15 +144,52 @@ public class UserService {
     public void activateUser(Long userId) {
         log("Activating user: " + userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
-
-        user.activate();
-        userRepository.save(user);
+        updateWithRetry(userId, User::activate);
 
         log("User activated: " + userId);
     }
 
+    /**
+     * Optimistic locking ile read-modify-write (çakışmada tekrar dener)
+     *
+     * Kullanıcı okunur, kopyasına değişiklik uygulanır ve saveIfVersion ile
+     * okunan sürüm üzerinden kaydedilir. Arada başka biri kaydettiyse güncel
+     * kayıt tekrar okunup değişiklik yeniden uygulanır. Bu yüzden
+     * modification yan etkisiz ve tekrar çalıştırılabilir olmalıdır.
+     *
+     * @param userId       Güncellenecek kullanıcı
+     * @param modification Kopyaya uygulanacak değişiklik (her denemede tekrar çağrılır)
+     * @return Kaydedilen kullanıcı
+     * @throws OptimisticLockException MAX_UPDATE_ATTEMPTS denemede de çakışma olursa
+     */
+    public User updateWithRetry(Long userId, Consumer<User> modification) {
+        for (int attempt = 1; ; attempt++) {
+            User current = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+            long expectedVersion = current.getVersion();
+            User changed = current.copy();
+            modification.accept(changed);
+            try {
+                return userRepository.saveIfVersion(changed, expectedVersion);
+            } catch (OptimisticLockException e) {
+                if (e.getActualVersion() < 0 || attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                conflictRetries.increment();
+                log("Version conflict on user " + userId + " (attempt " + attempt + "), retrying");
+                // Çakışan yazarların aynı anda tekrar denemesini dağıt
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Sürüm çakışması nedeniyle tekrarlanan deneme sayısı
+     */
+    public long getConflictRetries() {
+        return conflictRetries.sum();
+    }
+
     /**
      * Kullanıcıyı tamamen sil (hard delete)
      */
@@ -186,6 +241,31 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Admin listesi için keyset pagination
+     *
+     * @param afterId Önceki sayfanın son ID'si (ilk sayfa için 0)
+     * @param limit   Sayfa boyutu
+     */
+    public List<User> getUsersPage(long afterId, int limit) {
+        log("Fetching users page after ID " + afterId);
+        return userRepository.findPage(afterId, limit);
+    }
+
+    /**
+     * Type-ahead arama (fullName, username, email)
+     *
+     * @param query Aranan metin (en az bir karakter)
+     * @param limit En fazla sonuç sayısı
+     */
+    public List<User> searchUsers(String query, int limit) {
+        log("Searching users: " + query);
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        return userRepository.searchUsers(query, limit);
+    }
+
     /**
      * Kullanıcı sayısını getir
      */
@@ -193,6 +273,13 @@ public class UserService {
         return userRepository.count();
     }
 
+    /**
+     * Aktif kullanıcı sayısını getir
+     */
+    public long getActiveUserCount() {
+        return userRepository.countActive();
+    }
+
     /**
      * Kullanıcının email'ini doğrula
      */
@@ -205,6 +292,37 @@ public class UserService {
         return isValid;
     }
 
+    /**
+     * Yeni kullanıcı kuralları: format doğrulama + username/email benzersizliği
+     */
+    private void validateNewUser(String username, String email) {
+        validateFormat(username, email);
+
+        // Business Rule: Kullanıcı adı benzersiz olmalı
+        if (userRepository.existsByUsername(username)) {
+            throw new IllegalStateException("Username already exists: " + username);
+        }
+
+        // Business Rule: Email benzersiz olmalı
+        Optional<User> existingUser = userRepository.findByEmail(email);
+        if (existingUser.isPresent()) {
+            throw new IllegalStateException("Email already registered: " + email);
+        }
+    }
+
+    /**
+     * Username ve email format doğrulaması (AsyncUserService ile ortak)
+     */
+    static void validateFormat(String username, String email) {
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be empty");
+        }
+
+        if (email == null || !email.contains("@")) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+    }
+
     /**
      * Service loglama
      */
@@ -216,10 +334,14 @@ public class UserService {
      * İstatistikleri yazdır
      */
     public void printStatistics() {
+        // Sayımlar repository'den gelir - kullanıcılar listeye kopyalanmaz
+        long total = userRepository.count();
+        long active = userRepository.countActive();
+
         System.out.println("\n=== User Service Statistics ===");
-        System.out.println("Total users: " + userRepository.count());
-        System.out.println("Active users: " + userRepository.findAllActive().size());
-        System.out.println("Inactive users: " + (userRepository.count() - userRepository.findAllActive().size()));
+        System.out.println("Total users: " + total);
+        System.out.println("Active users: " + active);
+        System.out.println("Inactive users: " + (total - active));
         System.out.println("================================\n");
     }
 }
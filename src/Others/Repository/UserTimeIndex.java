@@ -0,0 +1,254 @@
+package Others.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * createdAt ve updatedAt için zaman sıralı ikincil indeks
+ *
+ * Her zaman kolonu için (zaman, id) çiftlerinden oluşan bir
+ * ConcurrentSkipListSet tutulur. Aralık sorgusu skip list'te başlangıç
+ * noktasına O(log n) iner ve sadece aralıktaki kayıtları gezer; "en yeni
+ * K" sorgusu ters sırada ilk K kaydı alır. Maliyet tablo boyutuyla değil
+ * sonuç boyutuyla orantılıdır.
+ *
+ * User nesneleri mutable olduğu için her id'nin indekslenmiş son zamanları
+ * ayrıca saklanır; güncellemede eski kayıt buradan bulunup silinir. İndeks
+ * son save anındaki değerleri yansıtır.
+ *
+ * Thread-safety:
+ * - Okumalar kilitsizdir (skip list iterator'ları zayıf tutarlıdır)
+ * - Aynı id'nin index/remove işlemleri ConcurrentHashMap.compute ile
+ *   sıraya girer; repository'nin ayrıca kilit tutması gerekmez
+ * - Okuma sırasında taşınan bir kullanıcı hem eski hem yeni konumda
+ *   görülebilir; sadece id'nin güncel konumu sonuca alınır (tekrar yok)
+ */
+class UserTimeIndex {
+
+    /**
+     * updatedAt'e göre artan sıra (eşitlikte id)
+     */
+    static final Comparator<User> BY_UPDATED_AT =
+            Comparator.comparing(User::getUpdatedAt).thenComparing(User::getId);
+
+    /**
+     * createdAt'e göre artan sıra (eşitlikte id)
+     */
+    static final Comparator<User> BY_CREATED_AT =
+            Comparator.comparing(User::getCreatedAt).thenComparing(User::getId);
+
+    private final NavigableSet<Key> byCreatedAt = new ConcurrentSkipListSet<>();
+    private final NavigableSet<Key> byUpdatedAt = new ConcurrentSkipListSet<>();
+
+    // id -> indekslenmiş son zamanlar
+    private final Map<Long, Stamps> stampsById = new ConcurrentHashMap<>();
+
+    /**
+     * Kullanıcıyı indeksler; zamanları değiştiyse eski kayıtları kaldırır
+     */
+    void index(User user) {
+        Key created = Key.of(user.getCreatedAt(), user.getId());
+        Key updated = Key.of(user.getUpdatedAt(), user.getId());
+        stampsById.compute(user.getId(), (id, previous) -> {
+            // Yeni konum önce eklenir - okuyucu kullanıcıyı hiçbir an kaybetmez
+            move(byCreatedAt, previous == null ? null : previous.created, created);
+            move(byUpdatedAt, previous == null ? null : previous.updated, updated);
+            return new Stamps(created, updated);
+        });
+    }
+
+    /**
+     * Toplu yükleme (import) - boş indekste anahtarlar önce sıralanır ve
+     * skip list'e artan sırada eklenir; id başına compute yapılmaz.
+     * İndeks boş değilse kullanıcılar tek tek indekslenir.
+     */
+    void indexAll(Collection<User> users) {
+        if (!stampsById.isEmpty()) {
+            users.forEach(this::index);
+            return;
+        }
+        List<Key> created = new ArrayList<>(users.size());
+        List<Key> updated = new ArrayList<>(users.size());
+        for (User user : users) {
+            Stamps stamps = new Stamps(Key.of(user.getCreatedAt(), user.getId()), Key.of(user.getUpdatedAt(), user.getId()));
+            stampsById.put(user.getId(), stamps);
+            if (stamps.created != null) {
+                created.add(stamps.created);
+            }
+            if (stamps.updated != null) {
+                updated.add(stamps.updated);
+            }
+        }
+        created.sort(null);
+        updated.sort(null);
+        byCreatedAt.addAll(created);
+        byUpdatedAt.addAll(updated);
+    }
+
+    void remove(Long id) {
+        stampsById.computeIfPresent(id, (key, previous) -> {
+            unlink(byCreatedAt, previous.created);
+            unlink(byUpdatedAt, previous.updated);
+            return null;
+        });
+    }
+
+    void clear() {
+        stampsById.clear();
+        byCreatedAt.clear();
+        byUpdatedAt.clear();
+    }
+
+    /**
+     * from <= createdAt < to olan id'ler (createdAt'e göre artan)
+     */
+    List<Long> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return between(byCreatedAt, from, to, stamps -> stamps.created);
+    }
+
+    /**
+     * from <= updatedAt < to olan id'ler (updatedAt'e göre artan)
+     */
+    List<Long> updatedBetween(LocalDateTime from, LocalDateTime to) {
+        return between(byUpdatedAt, from, to, stamps -> stamps.updated);
+    }
+
+    /**
+     * En son oluşturulan limit kullanıcının id'leri (en yeni önce)
+     */
+    List<Long> newestCreated(int limit) {
+        return newest(byCreatedAt, limit, stamps -> stamps.created);
+    }
+
+    /**
+     * En son güncellenen limit kullanıcının id'leri (en yeni önce)
+     */
+    List<Long> newestUpdated(int limit) {
+        return newest(byUpdatedAt, limit, stamps -> stamps.updated);
+    }
+
+    int size() {
+        return stampsById.size();
+    }
+
+    /**
+     * Aralık parametrelerini doğrular (from dahil, to hariç)
+     *
+     * @throws IllegalArgumentException Sınırlardan biri null ise
+     */
+    static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Time range bounds cannot be null");
+        }
+    }
+
+    static boolean isBetween(LocalDateTime time, LocalDateTime from, LocalDateTime to) {
+        return time != null && !time.isBefore(from) && time.isBefore(to);
+    }
+
+    private List<Long> between(NavigableSet<Key> index, LocalDateTime from, LocalDateTime to,
+                               Function<Stamps, Key> current) {
+        checkRange(from, to);
+        List<Long> ids = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return ids;
+        }
+        for (Key key : index.subSet(new Key(from, Long.MIN_VALUE), true, new Key(to, Long.MIN_VALUE), false)) {
+            if (isCurrent(key, current)) {
+                ids.add(key.id);
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> newest(NavigableSet<Key> index, int limit, Function<Stamps, Key> current) {
+        List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        Iterator<Key> keys = index.descendingIterator();
+        while (ids.size() < limit && keys.hasNext()) {
+            Key key = keys.next();
+            if (isCurrent(key, current)) {
+                ids.add(key.id);
+            }
+        }
+        return ids;
+    }
+
+    // Eşzamanlı taşımada görülen eski konum atlanır
+    private boolean isCurrent(Key key, Function<Stamps, Key> current) {
+        Stamps stamps = stampsById.get(key.id);
+        return stamps != null && key.equals(current.apply(stamps));
+    }
+
+    private static void move(NavigableSet<Key> index, Key previous, Key next) {
+        if (next != null) {
+            index.add(next);
+        }
+        if (previous != null && !previous.equals(next)) {
+            index.remove(previous);
+        }
+    }
+
+    private static void unlink(NavigableSet<Key> index, Key key) {
+        if (key != null) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * İndekslenmiş son zamanlar (null: o kolon boş)
+     */
+    private static final class Stamps {
+        final Key created;
+        final Key updated;
+
+        Stamps(Key created, Key updated) {
+            this.created = created;
+            this.updated = updated;
+        }
+    }
+
+    /**
+     * Skip list anahtarı - önce zaman, eşitlikte id
+     */
+    private static final class Key implements Comparable<Key> {
+        final LocalDateTime time;
+        final long id;
+
+        Key(LocalDateTime time, long id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        static Key of(LocalDateTime time, Long id) {
+            return time == null ? null : new Key(time, id);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return id == other.id && time.equals(other.time);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id) * 31 + time.hashCode();
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package Others.Repository;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Write-Ahead Log + Snapshot (InMemoryUserRepository için kalıcılık katmanı)
+ *
+ * Dizin yapısı:
+ * - wal-<generation>.log : değişiklik kayıtları (save / delete / deleteAll)
+ * - snapshot.bin         : belirli bir generation'a kadar tüm kullanıcıların tam kopyası
+ *
+ * Kayıt formatı: [int length][int crc32][payload]
+ * Yarım yazılmış (torn) son kayıt, recovery sırasında CRC ile tespit edilip atılır.
+ *
+ * Group Commit:
+ * - append() kaydı sadece bellekteki tampona ekler ve bir "ticket" döner
+ * - Ayrı bir flusher thread'i tamponu dosyaya yazar ve tek bir fsync yapar
+ * - awaitDurable(ticket) o kayıt diske inene kadar bekler
+ * - fsync sürerken gelen kayıtlar bir sonraki fsync'e toplanır; böylece
+ *   eşzamanlı yazarlar fsync maliyetini paylaşır
+ *
+ * Snapshot:
+ * - rotate() yeni bir log segmenti açar; snapshot eski segmentlerin yerini alır
+ * - Snapshot yazıldıktan sonra eski segmentler silinir (log truncate)
+ */
+class UserWriteAheadLog implements AutoCloseable {
+
+    static final byte DELETE = 2;
+    static final byte DELETE_ALL = 3;
+    static final byte SAVE = 4;             // 1: sürüm alanı olmayan format 1 kaydıydı, tekrar kullanılmaz
+
+    private static final int SNAPSHOT_MAGIC = 0x55534e50;   // "USNP"
+    private static final int FORMAT_VERSION = 2;             // 2: kullanıcı kaydı sürüm alanı içerir
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private long generation;
+
+    private long appendedSequence;
+    private long durableSequence;
+    private long syncCount;
+    private IOException failure;
+    private boolean closed;
+
+    private final Thread flusher;
+
+    /**
+     * Yeni bir log segmentiyle başlar. Recovery bu constructor'dan önce
+     * recover() ile yapılmalıdır.
+     */
+    UserWriteAheadLog(Path directory, long generation) throws IOException {
+        this.directory = directory;
+        this.generation = generation;
+        this.channel = openSegment(generation);
+
+        this.flusher = new Thread(this::flushLoop, "user-wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // ---------------------------------------------------------------
+    // Yazma tarafı
+    // ---------------------------------------------------------------
+
+    /**
+     * Kaydı tampona ekler; dönen ticket awaitDurable() ile beklenebilir
+     */
+    long append(byte[] payload) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            writeFrame(pending, payload);
+            appendedSequence++;
+            hasWork.signal();
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Verilen ticket'a kadar olan tüm kayıtlar fsync edilene kadar bekler
+     */
+    void awaitDurable(long ticket) {
+        lock.lock();
+        try {
+            while (durableSequence < ticket && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bekleyen kayıtları eski segmente yazar ve yeni bir segment açar.
+     * Çağıran, rotate sırasında yeni append yapılmamasını sağlamalıdır.
+     *
+     * @return yeni segmentin generation numarası
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            awaitDurable(appendedSequence);
+            channel.close();
+            generation++;
+            channel = openSegment(generation);
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            FileChannel target;
+            long batchSequence;
+
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed) {
+                    hasWork.awaitUninterruptibly();
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = new ByteArrayOutputStream();
+                target = channel;
+                batchSequence = appendedSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            // Dosya yazma ve fsync kilit dışında - bu sırada yeni kayıtlar birikir
+            IOException error = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                target.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSequence = batchSequence;
+                    syncCount++;
+                }
+                durable.signalAll();
+                if (failure != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    long getAppendedRecords() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getSyncCount() {
+        lock.lock();
+        try {
+            return syncCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Snapshot
+    // ---------------------------------------------------------------
+
+    /**
+     * Snapshot'ı geçici dosyaya yazar, fsync eder ve atomik olarak yerine koyar.
+     * Ardından snapshot'ın kapsadığı eski log segmentlerini siler.
+     *
+     * @param generation snapshot'tan sonra replay edilecek ilk segment
+     */
+    static void writeSnapshot(Path directory, long generation, long nextId, Collection<User> users) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(generation);
+            out.writeLong(nextId);
+            out.writeInt(users.size());
+            for (User user : users) {
+                writeUser(out, user);
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (long segment : listSegments(directory)) {
+            if (segment < generation) {
+                Files.deleteIfExists(segmentPath(directory, segment));
+            }
+        }
+    }
+
+    /**
+     * Son snapshot'ı yükler ve sonrasındaki log kayıtlarını sırayla uygular
+     *
+     * @return kurtarma sonucu (bir sonraki segment ve id bilgisi)
+     */
+    static Recovery recover(Path directory, Consumer<User> onSave, Consumer<Long> onDelete, Runnable onDeleteAll)
+            throws IOException {
+        Files.createDirectories(directory);
+        long firstGeneration = 0;
+        long nextId = 1;
+        long records = 0;
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IllegalStateException("Unsupported snapshot: " + snapshot);
+                }
+                firstGeneration = in.readLong();
+                nextId = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    onSave.accept(readUser(in));
+                }
+                records += count;
+            }
+        }
+
+        long lastGeneration = firstGeneration - 1;
+        for (long segment : listSegments(directory)) {
+            if (segment < firstGeneration) {
+                continue;
+            }
+            records += replaySegment(segmentPath(directory, segment), onSave, onDelete, onDeleteAll);
+            lastGeneration = segment;
+        }
+        return new Recovery(Math.max(lastGeneration + 1, firstGeneration), nextId, records);
+    }
+
+    private static long replaySegment(Path path, Consumer<User> onSave, Consumer<Long> onDelete,
+                                      Runnable onDeleteAll) throws IOException {
+        long applied = 0;
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                byte[] payload = readFrame(in);
+                if (payload == null) {
+                    break;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = record.readByte();
+                if (type == SAVE) {
+                    onSave.accept(readUser(record));
+                } else if (type == DELETE) {
+                    onDelete.accept(record.readLong());
+                } else if (type == DELETE_ALL) {
+                    onDeleteAll.run();
+                } else {
+                    throw new IllegalStateException("Unknown log record type " + type + " in " + path);
+                }
+                validBytes += 8 + payload.length;
+                applied++;
+            }
+        }
+
+        // Yarım kalmış kuyruğu kes - sonraki açılışta tekrar okunmasın
+        if (validBytes < Files.size(path)) {
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                file.truncate(validBytes);
+            }
+        }
+        return applied;
+    }
+
+    // ---------------------------------------------------------------
+    // Kayıt kodlama
+    // ---------------------------------------------------------------
+
+    static byte[] encodeSave(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SAVE);
+            writeUser(out, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] encodeDelete(long id) {
+        return ByteBuffer.allocate(9).put(DELETE).putLong(id).array();
+    }
+
+    static byte[] encodeDeleteAll() {
+        return new byte[]{DELETE_ALL};
+    }
+
+    private static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeLong(user.getId());
+        out.writeBoolean(user.isActive());
+        writeTime(out, user.getCreatedAt());
+        writeTime(out, user.getUpdatedAt());
+        writeNullableString(out, user.getUsername());
+        writeNullableString(out, user.getEmail());
+        writeNullableString(out, user.getFullName());
+        out.writeLong(user.getVersion());
+    }
+
+    private static User readUser(DataInput in) throws IOException {
+        long id = in.readLong();
+        boolean active = in.readBoolean();
+        LocalDateTime createdAt = readTime(in);
+        LocalDateTime updatedAt = readTime(in);
+        User user = new User(id, readNullableString(in), readNullableString(in), readNullableString(in));
+        user.setActive(active);
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(updatedAt);
+        user.setVersion(in.readLong());
+        return user;
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeFrame(ByteArrayOutputStream out, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        out.writeBytes(ByteBuffer.allocate(8).putInt(payload.length).putInt((int) crc.getValue()).array());
+        out.writeBytes(payload);
+    }
+
+    /**
+     * Bir sonraki kaydı okur; dosya sonu veya bozuk/yarım kayıtta null döner
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int length;
+        int checksum;
+        try {
+            length = in.readInt();
+            checksum = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0 || length > (1 << 20)) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == checksum ? payload : null;
+    }
+
+    // ---------------------------------------------------------------
+    // Segment dosyaları
+    // ---------------------------------------------------------------
+
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentPath(directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve("wal-" + segment + ".log");
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "wal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(4, name.length() - 4)));
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Recovery sonucu
+     */
+    static final class Recovery {
+        final long nextGeneration;
+        final long nextId;
+        final long replayedRecords;
+
+        private Recovery(long nextGeneration, long nextId, long replayedRecords) {
+            this.nextGeneration = nextGeneration;
+            this.nextId = nextId;
+            this.replayedRecords = replayedRecords;
+        }
+    }
+}
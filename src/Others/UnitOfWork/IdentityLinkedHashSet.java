@@ -0,0 +1,139 @@
+package Others.UnitOfWork;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Insertion-ordered set that compares elements by reference (==)
+ *
+ * Combines an IdentityHashMap (element -> node) with a doubly linked list
+ * of nodes, so add, remove and contains are O(1) and iteration follows
+ * insertion order - like LinkedHashSet, but with identity semantics.
+ *
+ * Identity matters for change tracking: entities are mutable and their
+ * equals/hashCode usually depend on the id, which may be unassigned (null)
+ * or change before commit. Two distinct instances with the same id are
+ * two tracked objects, and an entity is still found after its id changes.
+ *
+ * Not thread-safe; iterators are fail-fast.
+ */
+class IdentityLinkedHashSet<E> extends AbstractSet<E> {
+
+    private final Map<E, Node<E>> index = new IdentityHashMap<>();
+
+    // Sentinel: head.next is the oldest element, head.previous the newest
+    private final Node<E> head = new Node<>(null);
+    private int modCount;
+
+    IdentityLinkedHashSet() {
+        head.next = head;
+        head.previous = head;
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (index.containsKey(element)) {
+            return false;
+        }
+        Node<E> node = new Node<>(element);
+        node.previous = head.previous;
+        node.next = head;
+        head.previous.next = node;
+        head.previous = node;
+        index.put(element, node);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        Node<E> node = index.remove(element);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return index.containsKey(element);
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        head.next = head;
+        head.previous = head;
+        modCount++;
+    }
+
+    /**
+     * Iterates in insertion order
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private Node<E> next = head.next;
+            private Node<E> last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != head;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == head) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = next.next;
+                return last.value;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                index.remove(last.value);
+                unlink(last);
+                last = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    private void unlink(Node<E> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        modCount++;
+    }
+
+    private static final class Node<E> {
+        private final E value;
+        private Node<E> previous;
+        private Node<E> next;
+
+        private Node(E value) {
+            this.value = value;
+        }
+    }
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
  * Represents a customer order in the system.
  * This entity will be tracked by the Unit of Work.
  */
-public class Order {
+public class Order implements Snapshotable {
+    private static final String[] COLUMNS = {"product_id", "quantity", "total_amount", "order_date", "status"};
+
     private Long id;
     private Long productId;
     private int quantity;
@@ -77,6 +79,16 @@ public class Order {
         this.status = status;
     }
 
+    @Override
+    public String[] columnNames() {
+        return COLUMNS;
+    }
+
+    @Override
+    public Object[] columnValues() {
+        return new Object[]{productId, quantity, totalAmount, orderDate, status};
+    }
+
     @Override
     public String toString() {
         return "Order{" +
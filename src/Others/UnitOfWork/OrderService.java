@@ -1,6 +1,7 @@
 package Others.UnitOfWork;
 
-import java.util.concurrent.atomic.AtomicLong;
+import Others.Repository.AtomicIdAllocator;
+import Others.Repository.IdAllocator;
 
 /**
  * Order Service - Business Logic Layer
@@ -12,20 +13,31 @@ import java.util.concurrent.atomic.AtomicLong;
  * - Uses UnitOfWork to coordinate multiple changes
  * - All changes are atomic (all succeed or all fail)
  * - Business logic doesn't directly interact with database
+ * - Products are managed by the UoW (added or attached), so changing them
+ *   is enough - commit() writes only the changed columns
  */
 public class OrderService {
 
     private UnitOfWork unitOfWork;
     private ProductRepository productRepository;
-    private AtomicLong orderIdGenerator;
+    private IdAllocator orderIdAllocator;
 
     /**
      * Constructor - Dependency Injection
      */
     public OrderService(UnitOfWork unitOfWork, ProductRepository productRepository) {
+        this(unitOfWork, productRepository, new AtomicIdAllocator());
+    }
+
+    /**
+     * Constructor - with a custom order id strategy
+     * (e.g. HiLoIdAllocator with a mark file so ids survive restarts)
+     */
+    public OrderService(UnitOfWork unitOfWork, ProductRepository productRepository,
+                        IdAllocator orderIdAllocator) {
         this.unitOfWork = unitOfWork;
         this.productRepository = productRepository;
-        this.orderIdGenerator = new AtomicLong(1);
+        this.orderIdAllocator = orderIdAllocator;
     }
 
     /**
@@ -68,15 +80,14 @@ public class OrderService {
         double totalAmount = product.getPrice() * quantity;
         log("✓ Total amount: $" + totalAmount);
 
-        // 4. Update product stock (register as dirty with UoW)
+        // 4. Update product stock (the UoW finds the change by dirty checking)
         int originalStock = product.getStock();
         product.setStock(originalStock - quantity);
-        productRepository.update(product);
         log("✓ Stock updated: " + originalStock + " → " + product.getStock());
 
         // 5. Create order (register as new with UoW)
         Order order = new Order(
-                orderIdGenerator.getAndIncrement(),
+                orderIdAllocator.nextId(),
                 productId,
                 quantity,
                 totalAmount
@@ -119,7 +130,6 @@ public class OrderService {
         // 2. Restore stock
         int originalStock = product.getStock();
         product.setStock(originalStock + order.getQuantity());
-        productRepository.update(product);
         log("✓ Stock restored: " + originalStock + " → " + product.getStock());
 
         // 3. Delete order
@@ -150,7 +160,6 @@ public class OrderService {
 
         double oldPrice = product.getPrice();
         product.setPrice(newPrice);
-        productRepository.update(product);
 
         log("Price updated: $" + oldPrice + " → $" + newPrice);
 
@@ -198,16 +207,15 @@ public class OrderService {
                 );
             }
 
-            // Update stock
+            // Update stock (found by dirty checking at commit)
             product.setStock(product.getStock() - quantity);
-            productRepository.update(product);
 
             // Create order
             double totalAmount = product.getPrice() * quantity;
             grandTotal += totalAmount;
 
             Order order = new Order(
-                    orderIdGenerator.getAndIncrement(),
+                    orderIdAllocator.nextId(),
                     productId,
                     quantity,
                     totalAmount
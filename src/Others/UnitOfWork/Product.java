@@ -6,7 +6,9 @@ package Others.UnitOfWork;
  * Domain model representing a product in an e-commerce system.
  * This entity will be tracked by the Unit of Work.
  */
-public class Product {
+public class Product implements Snapshotable {
+    private static final String[] COLUMNS = {"name", "price", "stock"};
+
     private Long id;
     private String name;
     private double price;
@@ -55,6 +57,16 @@ public class Product {
         this.stock = stock;
     }
 
+    @Override
+    public String[] columnNames() {
+        return COLUMNS;
+    }
+
+    @Override
+    public Object[] columnValues() {
+        return new Object[]{name, price, stock};
+    }
+
     @Override
     public String toString() {
         return "Product{" +
@@ -46,10 +46,29 @@ public class ProductRepository {
         log("Added product to repository: " + product.getName());
     }
 
+    /**
+     * Attach a product that already exists in the database (e.g. read by a query)
+     *
+     * The UoW snapshots it; later changes are written at commit without
+     * calling update(), and only the changed columns are updated.
+     */
+    public void attach(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+
+        unitOfWork.registerClean(product);
+        inMemoryStorage.put(product.getId(), product);
+
+        log("Attached product to repository: " + product.getName());
+    }
+
     /**
      * Update an existing product
      *
-     * Registers the product as dirty with UoW
+     * Registers the product as dirty with UoW. Optional for attached
+     * products and for added products after their commit - the UoW detects
+     * their changes itself - but harmless: an unchanged product is not written.
      */
     public void update(Product product) {
         if (product == null) {
@@ -0,0 +1,25 @@
+package Others.UnitOfWork;
+
+/**
+ * Entity whose persistent columns the Unit of Work can snapshot
+ *
+ * The Unit of Work copies columnValues() when the entity is loaded
+ * (registerClean) and after each commit that writes it, and compares the
+ * copy with the current values at the next commit: only entities that
+ * really changed are updated, and only their changed columns are written.
+ *
+ * columnNames() and columnValues() must have the same length and order.
+ * The id is not a column here - it identifies the row and is never updated.
+ */
+public interface Snapshotable {
+
+    /**
+     * Column names, in a fixed order (a shared constant, not a new array per call)
+     */
+    String[] columnNames();
+
+    /**
+     * Current column values, in columnNames() order - a fresh array each call
+     */
+    Object[] columnValues();
+}
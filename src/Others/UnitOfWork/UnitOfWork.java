@@ -14,20 +14,69 @@ import java.util.*;
  * 3. Track deleted objects (to be removed)
  * 4. Commit all changes in a single transaction
  * 5. Rollback on failure
+ *
+ * Objects are tracked by identity (==), not equals(): an entity whose id
+ * is not assigned yet or changes before commit is still the same tracked
+ * object.
+ *
+ * Snapshotable entities are dirty-checked automatically once they are
+ * managed: registerClean snapshots their column values when they are
+ * loaded, and every commit that inserts or updates one snapshots the
+ * values it wrote. The next commit compares the snapshot with the current
+ * values. Only entities that changed are updated, with only the changed
+ * columns in the SET clause - registerDirty is optional for them, and
+ * unchanged entities produce no statement.
+ *
+ * Each commit checks every managed entity, so a UoW is meant to live for
+ * one business transaction (a request), not for the whole application.
  */
 public class UnitOfWork {
 
-    // Lists to track different types of changes
-    private List<Object> newObjects = new ArrayList<>();
-    private List<Object> dirtyObjects = new ArrayList<>();
-    private List<Object> deletedObjects = new ArrayList<>();
+    // Tracked changes - identity-based, insertion-ordered sets: registering
+    // and moving an object between states is O(1), and each commit phase
+    // runs in registration order
+    private final Set<Object> newObjects = new IdentityLinkedHashSet<>();
+    private final Set<Object> dirtyObjects = new IdentityLinkedHashSet<>();
+    private final Set<Object> deletedObjects = new IdentityLinkedHashSet<>();
+
+    // Dirty checking - entities with a snapshot of their last persisted
+    // column values, in the order they became managed
+    private final Set<Object> managedObjects = new IdentityLinkedHashSet<>();
+    private final Map<Object, Object[]> snapshots = new IdentityHashMap<>();
 
     // Transaction state
     private boolean isActive = false;
 
+    // Max rows per batched statement (like JDBC addBatch/executeBatch)
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private final int batchSize;
+
+    // Simulated round trips issued by the last commit
+    private int lastCommitRoundTrips;
+
+    /**
+     * Constructor - batches of up to 1000 rows per statement
+     */
+    public UnitOfWork() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize Max rows sent in one batched INSERT/UPDATE/DELETE
+     */
+    public UnitOfWork(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
     /**
      * Register a new object to be inserted
      *
+     * A Snapshotable object is managed after the commit that inserts it:
+     * later changes are found by dirty checking.
+     *
      * @param obj The object to insert
      */
     public void registerNew(Object obj) {
@@ -35,8 +84,7 @@ public class UnitOfWork {
             throw new IllegalArgumentException("Cannot register null object");
         }
 
-        if (!newObjects.contains(obj) && !dirtyObjects.contains(obj)) {
-            newObjects.add(obj);
+        if (!dirtyObjects.contains(obj) && newObjects.add(obj)) {
             log("Registered NEW: " + obj.getClass().getSimpleName() + " - " + obj);
         }
     }
@@ -52,12 +100,31 @@ public class UnitOfWork {
         }
 
         // Don't mark new objects as dirty (they'll be inserted anyway)
-        if (!dirtyObjects.contains(obj) && !newObjects.contains(obj)) {
-            dirtyObjects.add(obj);
+        if (!newObjects.contains(obj) && dirtyObjects.add(obj)) {
             log("Registered DIRTY: " + obj.getClass().getSimpleName() + " - " + obj);
         }
     }
 
+    /**
+     * Register an object loaded from the database for dirty checking
+     *
+     * Its columns are snapshotted now; commit() updates it if any column
+     * differs from the snapshot. Registering a managed entity again keeps
+     * the original snapshot, so changes made in between are not lost.
+     *
+     * @param entity The loaded (persistent) entity
+     */
+    public void registerClean(Snapshotable entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Cannot register null object");
+        }
+
+        if (!newObjects.contains(entity) && !deletedObjects.contains(entity) && managedObjects.add(entity)) {
+            snapshots.put(entity, entity.columnValues());
+            log("Registered CLEAN: " + entity.getClass().getSimpleName() + " - " + entity);
+        }
+    }
+
     /**
      * Register an object to be deleted
      *
@@ -72,8 +139,7 @@ public class UnitOfWork {
         newObjects.remove(obj);
         dirtyObjects.remove(obj);
 
-        if (!deletedObjects.contains(obj)) {
-            deletedObjects.add(obj);
+        if (deletedObjects.add(obj)) {
             log("Registered DELETED: " + obj.getClass().getSimpleName() + " - " + obj);
         }
     }
@@ -83,49 +149,75 @@ public class UnitOfWork {
      *
      * This is where all tracked changes are persisted to the database.
      * Either all changes succeed or all fail (atomicity).
+     *
+     * Each phase groups its objects by table and sends one batched
+     * statement per table (split every batchSize rows), so the number of
+     * round trips depends on the tables touched, not on the row count.
+     * Tables are processed in the order they were first registered, rows
+     * in registration order.
+     *
+     * Updates are found by diffing managed entities against their
+     * snapshots (explicitly registered dirty objects first). UPDATEs are
+     * batched per statement, i.e. per table and set of changed columns.
      */
     public void commit() {
+        List<RowUpdate> updates = collectUpdates();
+
         log("\n" + "═".repeat(60));
         log("COMMIT STARTED");
         log("═".repeat(60));
         log("Changes to commit:");
         log("  - New objects:     " + newObjects.size());
-        log("  - Dirty objects:   " + dirtyObjects.size());
+        log("  - Dirty objects:   " + updates.size() + " (of " + dirtyObjects.size() + " registered, " +
+                managedObjects.size() + " managed)");
         log("  - Deleted objects: " + deletedObjects.size());
         log("─".repeat(60));
 
         try {
             beginTransaction();
+            int roundTrips = 0;
 
             // 1. INSERT new objects
             if (!newObjects.isEmpty()) {
                 log("\n[Phase 1: INSERT Operations]");
-                for (Object obj : newObjects) {
-                    insertObject(obj);
+                for (Map.Entry<String, List<Object>> table : groupByTable(newObjects).entrySet()) {
+                    for (List<Object> batch : batches(table.getValue())) {
+                        insertBatch(table.getKey(), batch);
+                        roundTrips++;
+                    }
                 }
             }
 
-            // 2. UPDATE dirty objects
-            if (!dirtyObjects.isEmpty()) {
+            // 2. UPDATE changed objects - only the changed columns
+            if (!updates.isEmpty()) {
                 log("\n[Phase 2: UPDATE Operations]");
-                for (Object obj : dirtyObjects) {
-                    updateObject(obj);
+                for (Map.Entry<String, List<RowUpdate>> statement : groupByStatement(updates).entrySet()) {
+                    for (List<RowUpdate> batch : batches(statement.getValue())) {
+                        updateBatch(statement.getKey(), batch);
+                        roundTrips++;
+                    }
                 }
             }
 
             // 3. DELETE deleted objects
             if (!deletedObjects.isEmpty()) {
                 log("\n[Phase 3: DELETE Operations]");
-                for (Object obj : deletedObjects) {
-                    deleteObject(obj);
+                for (Map.Entry<String, List<Object>> table : groupByTable(deletedObjects).entrySet()) {
+                    for (List<Object> batch : batches(table.getValue())) {
+                        deleteBatch(table.getKey(), batch);
+                        roundTrips++;
+                    }
                 }
             }
 
             commitTransaction();
+            int rows = newObjects.size() + updates.size() + deletedObjects.size();
+            takeSnapshots(updates);
             clear();
+            lastCommitRoundTrips = roundTrips;
 
             log("─".repeat(60));
-            log("✓ COMMIT SUCCESSFUL - All changes persisted");
+            log("✓ COMMIT SUCCESSFUL - All changes persisted (" + rows + " rows in " + roundTrips + " batched statements)");
             log("═".repeat(60) + "\n");
 
         } catch (Exception e) {
@@ -139,12 +231,17 @@ public class UnitOfWork {
 
     /**
      * Rollback all pending changes
+     *
+     * Managed entities are detached as well: their in-memory changes were
+     * not persisted and must not be picked up by a later commit. Reload
+     * them and call registerClean to track them again.
      */
     public void rollback() {
         log("\n" + "═".repeat(60));
         log("ROLLBACK - Discarding all pending changes");
         log("═".repeat(60) + "\n");
         clear();
+        detachAll();
     }
 
     /**
@@ -156,6 +253,93 @@ public class UnitOfWork {
         deletedObjects.clear();
     }
 
+    /**
+     * Forget all snapshots - no entity is dirty-checked any more
+     */
+    private void detachAll() {
+        managedObjects.clear();
+        snapshots.clear();
+    }
+
+    /**
+     * Find the objects to update: registered dirty objects, then managed
+     * entities that differ from their snapshot
+     */
+    private List<RowUpdate> collectUpdates() {
+        List<RowUpdate> updates = new ArrayList<>();
+        for (Object obj : dirtyObjects) {
+            RowUpdate update = diff(obj);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        for (Object obj : managedObjects) {
+            if (!dirtyObjects.contains(obj) && !newObjects.contains(obj) && !deletedObjects.contains(obj)) {
+                RowUpdate update = diff(obj);
+                if (update != null) {
+                    updates.add(update);
+                }
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Compare an object with its snapshot
+     *
+     * @return The update to send, or null if no column changed. Objects
+     *         without a snapshot are updated in full.
+     */
+    private RowUpdate diff(Object obj) {
+        if (!(obj instanceof Snapshotable entity)) {
+            return new RowUpdate(obj, "UPDATE " + getTableName(obj) + " SET <all columns>", null, null, null);
+        }
+
+        String[] columns = entity.columnNames();
+        Object[] current = entity.columnValues();
+        Object[] previous = snapshots.get(obj);
+        int[] changed = new int[columns.length];
+        int count = 0;
+        for (int i = 0; i < columns.length; i++) {
+            if (previous == null || !Objects.equals(previous[i], current[i])) {
+                changed[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        StringBuilder statement = new StringBuilder("UPDATE ").append(getTableName(obj)).append(" SET ");
+        for (int i = 0; i < count; i++) {
+            statement.append(i == 0 ? "" : ", ").append(columns[changed[i]]).append(" = ?");
+        }
+        return new RowUpdate(obj, statement.toString(), previous, current, Arrays.copyOf(changed, count));
+    }
+
+    /**
+     * After a successful commit the written values become the new snapshots:
+     * inserted and updated Snapshotable entities are managed from now on,
+     * deleted ones are no longer tracked.
+     */
+    private void takeSnapshots(List<RowUpdate> updates) {
+        for (Object obj : newObjects) {
+            if (obj instanceof Snapshotable entity) {
+                managedObjects.add(entity);
+                snapshots.put(entity, entity.columnValues());
+            }
+        }
+        for (RowUpdate update : updates) {
+            if (update.current != null) {
+                managedObjects.add(update.entity);
+                snapshots.put(update.entity, update.current);
+            }
+        }
+        for (Object obj : deletedObjects) {
+            managedObjects.remove(obj);
+            snapshots.remove(obj);
+        }
+    }
+
     /**
      * Begin database transaction (simulated)
      */
@@ -181,33 +365,78 @@ public class UnitOfWork {
         log("\n[DB] ROLLBACK TRANSACTION");
         isActive = false;
         clear();
+        detachAll();
         simulateDelay(50);
     }
 
     /**
-     * Insert object into database (simulated)
+     * Insert a batch of rows into one table - single round trip (simulated)
      */
-    private void insertObject(Object obj) {
-        log("  [DB] INSERT INTO " + getTableName(obj) + ": " + obj);
+    private void insertBatch(String table, List<Object> rows) {
+        log("  [DB] INSERT INTO " + table + " (batch of " + rows.size() + ")");
+        logRows(rows);
         simulateDelay(20);
     }
 
     /**
-     * Update object in database (simulated)
+     * Update a batch of rows with the same SET clause - single round trip (simulated)
      */
-    private void updateObject(Object obj) {
-        log("  [DB] UPDATE " + getTableName(obj) + ": " + obj);
+    private void updateBatch(String statement, List<RowUpdate> rows) {
+        log("  [DB] " + statement + " WHERE id = ? (batch of " + rows.size() + ")");
+        for (RowUpdate row : rows) {
+            log("       " + row.entity + row.describeChanges());
+        }
         simulateDelay(20);
     }
 
     /**
-     * Delete object from database (simulated)
+     * Delete a batch of rows from one table - single round trip (simulated)
      */
-    private void deleteObject(Object obj) {
-        log("  [DB] DELETE FROM " + getTableName(obj) + ": " + obj);
+    private void deleteBatch(String table, List<Object> rows) {
+        log("  [DB] DELETE FROM " + table + " WHERE id IN (batch of " + rows.size() + ")");
+        logRows(rows);
         simulateDelay(20);
     }
 
+    private void logRows(List<Object> rows) {
+        for (Object row : rows) {
+            log("       " + row);
+        }
+    }
+
+    /**
+     * Group objects by table, keeping first-seen table order and registration order
+     */
+    private Map<String, List<Object>> groupByTable(Collection<Object> objects) {
+        Map<String, List<Object>> byTable = new LinkedHashMap<>();
+        for (Object obj : objects) {
+            byTable.computeIfAbsent(getTableName(obj), table -> new ArrayList<>()).add(obj);
+        }
+        return byTable;
+    }
+
+    /**
+     * Group updates by statement (table and changed columns), keeping first-seen order
+     */
+    private Map<String, List<RowUpdate>> groupByStatement(List<RowUpdate> updates) {
+        Map<String, List<RowUpdate>> byStatement = new LinkedHashMap<>();
+        for (RowUpdate update : updates) {
+            byStatement.computeIfAbsent(update.statement, statement -> new ArrayList<>()).add(update);
+        }
+        return byStatement;
+    }
+
+    /**
+     * Split one statement's rows into batches of at most batchSize rows
+     */
+    private <T> List<List<T>> batches(List<T> rows) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            batches.add(rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+        return batches;
+    }
+
     /**
      * Get table name from object class (simulated)
      */
@@ -234,12 +463,31 @@ public class UnitOfWork {
     }
 
     /**
-     * Get count of pending changes
+     * Get count of explicitly registered changes (changes to managed
+     * entities are found at commit)
      */
     public int getPendingChangesCount() {
         return newObjects.size() + dirtyObjects.size() + deletedObjects.size();
     }
 
+    /**
+     * Number of batched statements (round trips) sent by the last successful commit
+     */
+    public int getLastCommitRoundTrips() {
+        return lastCommitRoundTrips;
+    }
+
+    /**
+     * Number of entities dirty-checked at commit
+     */
+    public int getManagedCount() {
+        return managedObjects.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     /**
      * Check if there are pending changes
      */
@@ -256,7 +504,43 @@ public class UnitOfWork {
         System.out.println("Dirty objects:   " + dirtyObjects.size());
         System.out.println("Deleted objects: " + deletedObjects.size());
         System.out.println("Total pending:   " + getPendingChangesCount());
+        System.out.println("Managed:         " + managedObjects.size() + " (dirty-checked at commit)");
+        System.out.println("Batch size:      " + batchSize);
         System.out.println("Transaction active: " + isActive);
         System.out.println("==========================\n");
     }
+
+    /**
+     * One UPDATE row: the statement it belongs to and, for Snapshotable
+     * entities, the snapshot and current values of the changed columns
+     */
+    private static final class RowUpdate {
+        private final Object entity;
+        private final String statement;
+        private final Object[] previous;
+        private final Object[] current;
+        private final int[] changedColumns;
+
+        private RowUpdate(Object entity, String statement, Object[] previous, Object[] current, int[] changedColumns) {
+            this.entity = entity;
+            this.statement = statement;
+            this.previous = previous;
+            this.current = current;
+            this.changedColumns = changedColumns;
+        }
+
+        private String describeChanges() {
+            if (previous == null) {
+                return "";
+            }
+            String[] columns = ((Snapshotable) entity).columnNames();
+            StringBuilder changes = new StringBuilder("  [");
+            for (int i = 0; i < changedColumns.length; i++) {
+                int column = changedColumns[i];
+                changes.append(i == 0 ? "" : ", ").append(columns[column]).append(": ")
+                        .append(previous[column]).append(" → ").append(current[column]);
+            }
+            return changes.append(']').toString();
+        }
+    }
 }
@@ -8,6 +8,7 @@ package Others.UnitOfWork;
  * 2. Failed transaction with rollback
  * 3. Bulk operations
  * 4. Order cancellation
+ * 5. Automatic dirty checking
  */
 public class UnitOfWorkDemo {
 
@@ -33,6 +34,11 @@ public class UnitOfWorkDemo {
 
         // Scenario 4: Bulk Orders
         scenario4_BulkOrders();
+
+        System.out.println("\n" + "=".repeat(80) + "\n");
+
+        // Scenario 5: Changes detected without update()
+        scenario5_DirtyChecking();
     }
 
     /**
@@ -207,4 +213,56 @@ public class UnitOfWorkDemo {
         System.out.println("Headphones: " + headphones.getStock() + " (was 25, sold 2)");
         System.out.println("\n✓ All 3 orders placed in single atomic transaction!");
     }
+
+    /**
+     * SCENARIO 5: Automatic Dirty Checking
+     *
+     * Demonstrates:
+     * - Products loaded from the database are attached (snapshotted)
+     * - Changes are found at commit without calling update()
+     * - Only the changed columns are written
+     * - Unchanged products produce no statement
+     * - Added products are dirty-checked after their commit too
+     */
+    private static void scenario5_DirtyChecking() {
+        System.out.println("┌────────────────────────────────────────────────┐");
+        System.out.println("│  Scenario 5: Automatic Dirty Checking         │");
+        System.out.println("└────────────────────────────────────────────────┘\n");
+
+        // Setup
+        UnitOfWork uow = new UnitOfWork();
+        ProductRepository productRepo = new ProductRepository(uow);
+
+        // Products already in the database
+        Product speaker = new Product(10L, "Speaker", 120.0, 40);
+        Product cable = new Product(11L, "Cable", 10.0, 200);
+        Product lamp = new Product(12L, "Lamp", 45.0, 60);
+
+        productRepo.attach(speaker);
+        productRepo.attach(cable);
+        productRepo.attach(lamp);
+
+        System.out.println("\n--- Changing Products (no update() calls) ---");
+        speaker.setPrice(99.0);
+        cable.setPrice(9.0);
+        lamp.setStock(55);
+        lamp.setStock(60);  // back to the loaded value - nothing to write
+
+        uow.printState();
+        uow.commit();
+
+        System.out.println("✓ 2 price changes sent as " + uow.getLastCommitRoundTrips() +
+                " batched UPDATE of the price column, unchanged lamp skipped!");
+
+        System.out.println("\n--- Adding a Product ---");
+        Product desk = new Product(13L, "Desk", 250.0, 5);
+        productRepo.add(desk);
+        uow.commit();
+
+        desk.setStock(4);
+        uow.commit();
+
+        System.out.println("✓ " + uow.getManagedCount() +
+                " managed products - the added desk's stock change was found without update()!");
+    }
 }